@@ -18,6 +18,7 @@ import com.odiparpack.transport_planning.repository.RoadSegmentRepository;
 import com.odiparpack.transport_planning.repository.TruckRepository;
 import com.odiparpack.transport_planning.service.DataLoaderService;
 import com.odiparpack.transport_planning.service.GLSAlgorithmService;
+import com.odiparpack.transport_planning.service.PlanningRuns;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartUtils;
@@ -63,6 +64,9 @@ public class TransportPlanningApplication {
     @Autowired
     private PackageOrderRepository packageOrderRepository;
 
+    @Autowired
+    private PlanningRuns planningRuns;
+
 
     public static void main(String[] args) {
         SpringApplication.run(TransportPlanningApplication.class, args);
@@ -125,10 +129,14 @@ public class TransportPlanningApplication {
 
             Date simulationStartDate = new GregorianCalendar(2023, Calendar.MARCH, 1, 0, 0).getTime();
 
+            // Registrada como "startup": /planning/best y /planning/cancel la alcanzan mientras corre
+            PlanningRuns.Run run = planningRuns.start("startup");
             try {
                 // Ejecutar GLS
-                glsAlgorithmService.runGLS(cities, roadSegments, trucks, packages, simulationStartDate);
+                glsAlgorithmService.runGLS(cities, roadSegments, trucks, packages, simulationStartDate,
+                        run.getCancellationToken(), run.getIncumbent());
             } finally {
+                planningRuns.finish(run);
                 monitorThread.interrupt();
 
                 // Crear gráficas de uso de memoria
@@ -14,6 +14,8 @@ import com.odiparpack.transport_planning.repository.PackageOrderRepository;
 import com.odiparpack.transport_planning.repository.RoadSegmentRepository;
 import com.odiparpack.transport_planning.repository.TruckRepository;
 import com.odiparpack.transport_planning.service.GLSAlgorithmService;
+import com.odiparpack.transport_planning.service.PlanningRuns;
+import com.odiparpack.transport_planning.solver.Incumbent;
 
 import java.util.Date;
 import java.util.List;
@@ -37,8 +39,18 @@ public class PlanningController {
     @Autowired
     private PackageOrderRepository packageOrderRepository;
 
+    @Autowired
+    private PlanningRuns planningRuns;
+
+    // runId opcional: con él, /best y /cancel alcanzan esta ejecución mientras corre
     @GetMapping("/run")
-    public String runGLSAlgorithm() {
+    public String runGLSAlgorithm(@RequestParam(required = false) String runId) {
+        PlanningRuns.Run run;
+        try {
+            run = planningRuns.start(runId);
+        } catch (IllegalStateException e) {
+            return "Error executing GLS Algorithm: " + e.getMessage();
+        }
         try {
             // Obtener los datos necesarios para ejecutar el algoritmo
             List<City> cities = cityRepository.findAll();
@@ -51,11 +63,44 @@ public class PlanningController {
             Date simulationStartTime = sdf.parse("2023-03-01 00:00:00");
 
             // Ejecutar el algoritmo GLS con los parámetros requeridos
-            glsAlgorithmService.runGLS(cities, roadSegments, trucks, packages, simulationStartTime);
-            return "GLS Algorithm executed successfully.";
+            glsAlgorithmService.runGLS(cities, roadSegments, trucks, packages, simulationStartTime,
+                    run.getCancellationToken(), run.getIncumbent());
+            return run.getCancellationToken().isCancelled()
+                    ? "GLS Algorithm cancelled; best solution found so far was saved (run " + run.getId() + ")."
+                    : "GLS Algorithm executed successfully (run " + run.getId() + ").";
         } catch (Exception e) {
             e.printStackTrace();
             return "Error executing GLS Algorithm: " + e.getMessage();
+        } finally {
+            planningRuns.finish(run);
+        }
+    }
+
+    // Mejor solución de una ejecución en curso, sin esperar a que termine
+    @GetMapping("/best")
+    public String bestSoFar(@RequestParam String runId) {
+        PlanningRuns.Run run = planningRuns.get(runId);
+        if (run == null) {
+            return "No GLS run in progress with id " + runId;
+        }
+        Incumbent incumbent = run.getIncumbent();
+        synchronized (incumbent) {
+            if (incumbent.getBestSolution() == null) {
+                return "Run " + runId + " has no solution yet";
+            }
+            return String.format("Run %s best cost: %.2f, %d truck plans, improved at %tT",
+                    runId, incumbent.getBestCost(), incumbent.getBestSolution().size(), new Date(incumbent.getImprovedAtMillis()));
+        }
+    }
+
+    // Las islas terminan en su siguiente iteración y se guarda la mejor solución hallada
+    @GetMapping("/cancel")
+    public String cancel(@RequestParam String runId) {
+        PlanningRuns.Run run = planningRuns.get(runId);
+        if (run == null) {
+            return "No GLS run in progress with id " + runId;
         }
+        run.getCancellationToken().cancel();
+        return "Cancellation requested for run " + runId;
     }
 }
@@ -0,0 +1,71 @@
+package com.odiparpack.transport_planning.controller;
+
+import java.text.SimpleDateFormat;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import com.odiparpack.transport_planning.service.PlanningRuns;
+import com.odiparpack.transport_planning.service.SimulationService;
+
+@RestController
+@RequestMapping("/simulation")
+public class SimulationController {
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private PlanningRuns planningRuns;
+
+    // Escenario semanal desde la fecha dada (yyyy-MM-dd); con runId, /cancel la detiene
+    @GetMapping("/weekly")
+    public String runWeekly(@RequestParam String start, @RequestParam(required = false) String runId) {
+        PlanningRuns.Run run;
+        try {
+            run = planningRuns.start(runId);
+        } catch (IllegalStateException e) {
+            return "Error executing weekly simulation: " + e.getMessage();
+        }
+        try {
+            return simulationService.runWeekly(new SimpleDateFormat("yyyy-MM-dd").parse(start),
+                    run.getCancellationToken()).toString();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "Error executing weekly simulation: " + e.getMessage();
+        } finally {
+            planningRuns.finish(run);
+        }
+    }
+
+    // Escenario hasta el colapso: se detiene en el primer pedido que vence sin entregarse
+    @GetMapping("/collapse")
+    public String runUntilCollapse(@RequestParam String start, @RequestParam(required = false) String runId) {
+        PlanningRuns.Run run;
+        try {
+            run = planningRuns.start(runId);
+        } catch (IllegalStateException e) {
+            return "Error executing collapse simulation: " + e.getMessage();
+        }
+        try {
+            return simulationService.runUntilCollapse(new SimpleDateFormat("yyyy-MM-dd").parse(start),
+                    run.getCancellationToken()).toString();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "Error executing collapse simulation: " + e.getMessage();
+        } finally {
+            planningRuns.finish(run);
+        }
+    }
+
+    // Detiene la simulación en el evento siguiente y devuelve el reporte hasta ese momento
+    @GetMapping("/cancel")
+    public String cancel(@RequestParam String runId) {
+        PlanningRuns.Run run = planningRuns.get(runId);
+        if (run == null) {
+            return "No simulation in progress with id " + runId;
+        }
+        run.getCancellationToken().cancel();
+        return "Cancellation requested for simulation " + runId;
+    }
+}
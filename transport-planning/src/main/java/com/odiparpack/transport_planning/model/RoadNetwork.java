@@ -1,92 +1,221 @@
 package com.odiparpack.transport_planning.model;
 
+import com.odiparpack.transport_planning.routing.BlockageEpochs;
+import com.odiparpack.transport_planning.routing.ContractionHierarchy;
+import com.odiparpack.transport_planning.routing.DistanceRow;
+import com.odiparpack.transport_planning.routing.EpochDistanceCache;
+import com.odiparpack.transport_planning.routing.LandmarkIndex;
+import com.odiparpack.transport_planning.routing.RoadGraph;
+import com.odiparpack.transport_planning.routing.ShortestPathEngine;
+import com.odiparpack.transport_planning.routing.ShortestPathStrategy;
+import com.odiparpack.transport_planning.routing.SpatialIndex;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class RoadNetwork {
 
-    private Map<City, List<RoadSegment>> adjacencyList = new HashMap<>();
+    private final RoadGraph graph;
+    private final ShortestPathEngine engine;
+    private final EpochDistanceCache distanceCache;
+    private final SpatialIndex spatialIndex;
+    private ShortestPathStrategy strategy = ShortestPathStrategy.EPOCH_CACHE;
+    private volatile ContractionHierarchy contractionHierarchy;
+    // Espera máxima ante un bloqueo en la búsqueda dependiente del tiempo
+    private double maxBlockageWaitMinutes = 240;
+
+    // La red se construye una sola vez a partir de los tramos y luego es de solo lectura
+    public RoadNetwork(List<City> cities, List<RoadSegment> roadSegments) {
+        this.graph = RoadGraph.build(cities, roadSegments);
+        // Los landmarks de ALT se precalculan junto con la red
+        this.engine = new ShortestPathEngine(graph, LandmarkIndex.build(graph, LandmarkIndex.DEFAULT_LANDMARKS));
+        this.distanceCache = new EpochDistanceCache(engine, BlockageEpochs.build(graph));
+        // Árbol k-d de las ciudades para las listas de candidatos del solver
+        this.spatialIndex = SpatialIndex.build(graph);
+    }
+
+    public RoadGraph getGraph() {
+        return graph;
+    }
+
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    public ShortestPathStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(ShortestPathStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public double getMaxBlockageWaitMinutes() {
+        return maxBlockageWaitMinutes;
+    }
+
+    public void setMaxBlockageWaitMinutes(double maxBlockageWaitMinutes) {
+        this.maxBlockageWaitMinutes = maxBlockageWaitMinutes;
+    }
+
+    // Id en el grafo del tramo directo entre dos ciudades, o -1 si no existe
+    public int findEdge(City origin, City destination) {
+        return graph.edgeBetween(graph.indexOf(origin), graph.indexOf(destination));
+    }
+
+    // Tramo directo entre dos ciudades en O(1), o null si no existe
+    public RoadSegment findRoadSegment(City origin, City destination) {
+        int edge = findEdge(origin, destination);
+        return edge < 0 ? null : graph.segment(edge);
+    }
+
+    public ShortestPathEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Prepara la jerarquía de contracción, leyéndola de indexPath si existe y
+     * corresponde a esta red, o construyéndola y guardándola ahí. Con indexPath
+     * null solo se construye en memoria.
+     */
+    public void enableContractionHierarchy(Path indexPath) throws IOException {
+        contractionHierarchy = ContractionHierarchy.loadOrBuild(graph, indexPath);
+    }
+
+    // Si no se habilitó antes, la jerarquía se construye en memoria en la primera consulta
+    public ContractionHierarchy getContractionHierarchy() {
+        ContractionHierarchy hierarchy = contractionHierarchy;
+        if (hierarchy == null) {
+            synchronized (this) {
+                if (contractionHierarchy == null) {
+                    contractionHierarchy = ContractionHierarchy.build(graph);
+                }
+                hierarchy = contractionHierarchy;
+            }
+        }
+        return hierarchy;
+    }
 
-    public void addRoadSegment(City origin, City destination, RoadSegment roadSegment) {
-        List<RoadSegment> originSegments = adjacencyList.computeIfAbsent(origin, k -> new ArrayList<>());
-        originSegments.add(roadSegment);
-        adjacencyList.computeIfAbsent(destination, k -> new ArrayList<>());
+    public EpochDistanceCache getDistanceCache() {
+        return distanceCache;
     }
 
     public List<RoadSegment> getAdjacentSegments(City city) {
-        return adjacencyList.getOrDefault(city, new ArrayList<>());
+        int node = graph.indexOf(city);
+        if (node < 0) {
+            return new ArrayList<>();
+        }
+        List<RoadSegment> segments = new ArrayList<>(graph.endEdge(node) - graph.firstEdge(node));
+        for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+            segments.add(graph.segment(e));
+        }
+        return segments;
     }
 
     // Devuelve tanto el costo del camino más corto como la lista de ciudades recorridas
     public ShortestPathResult calculateShortestPathCost(City origin, City destination, Date simulationTime) {
-        // Inicializar la cola de prioridad, el mapa de distancias y el almacenamiento de rutas
-        PriorityQueue<CityDistancePair> priorityQueue = new PriorityQueue<>(Comparator.comparingDouble(CityDistancePair::getCost));
-        Map<City, Double> costs = new HashMap<>();
-        Map<City, List<City>> routes = new HashMap<>();  // Map para almacenar la ruta de cada ciudad
-        Set<City> visited = new HashSet<>();
-    
-        // Inicializar el costo y la ruta para la ciudad origen
-        costs.put(origin, 0.0);
-        routes.put(origin, new ArrayList<>(Collections.singletonList(origin)));  // Ruta inicial solo con la ciudad origen
-        priorityQueue.add(new CityDistancePair(origin, 0.0));
-    
-        while (!priorityQueue.isEmpty()) {
-            CityDistancePair current = priorityQueue.poll();
-            City currentCity = current.getCity();
-    
-            if (visited.contains(currentCity)) {
-                continue;
-            }
-            visited.add(currentCity);
-    
-            if (currentCity.equals(destination)) {
-                // Devuelve el costo y la ruta completa desde el origen hasta el destino
-                return new ShortestPathResult(costs.get(currentCity), routes.get(currentCity));
+        return calculateShortestPathCost(origin, destination, simulationTime, strategy);
+    }
+
+    public ShortestPathResult calculateShortestPathCost(City origin, City destination, Date simulationTime, ShortestPathStrategy strategy) {
+        int source = graph.indexOf(origin);
+        int target = graph.indexOf(destination);
+        if (source < 0 || target < 0) {
+            return new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>());
+        }
+        if (strategy == ShortestPathStrategy.EPOCH_CACHE) {
+            // Entre dos cambios de bloqueo los caminos no cambian: se leen de la fila en caché
+            return distanceCache.row(source, simulationTime).toResult(target);
+        }
+        if (strategy == ShortestPathStrategy.CONTRACTION_HIERARCHY) {
+            return getContractionHierarchy().shortestPath(source, target, simulationTime);
+        }
+        return engine.shortestPath(source, target, simulationTime, strategy);
+    }
+
+    // Caminos más cortos desde un origen hacia varios destinos, leídos de una sola fila del caché
+    public Map<City, ShortestPathResult> calculateShortestPaths(City origin, Collection<City> destinations, Date simulationTime) {
+        Map<City, ShortestPathResult> results = new LinkedHashMap<>();
+        int source = graph.indexOf(origin);
+        List<City> reachable = new ArrayList<>(destinations.size());
+        for (City destination : destinations) {
+            if (source < 0 || graph.indexOf(destination) < 0) {
+                results.put(destination, new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>()));
+            } else {
+                reachable.add(destination);
             }
-    
-            // Obtener los segmentos adyacentes
-            List<RoadSegment> adjacentSegments = getAdjacentSegments(currentCity);
-            for (RoadSegment segment : adjacentSegments) {
-                if (!segment.isAvailableAt(simulationTime)) {
-                    continue;
-                }
-    
-                City neighbor = segment.getDestination();
-                double newCost = current.getCost() + segment.getCost();
-    
-                // Si encontramos un costo menor, actualizamos el costo y la ruta
-                if (newCost < costs.getOrDefault(neighbor, Double.MAX_VALUE)) {
-                    costs.put(neighbor, newCost);
-    
-                    // Crear una nueva lista de ciudades para la ruta actualizada
-                    List<City> newRoute = new ArrayList<>(routes.get(currentCity));
-                    newRoute.add(neighbor);
-                    routes.put(neighbor, newRoute);  // Actualizar la ruta para esta ciudad
-    
-                    priorityQueue.add(new CityDistancePair(neighbor, newCost));
-                }
+        }
+        if (reachable.isEmpty()) {
+            return results;
+        }
+
+        if (strategy == ShortestPathStrategy.EPOCH_CACHE) {
+            DistanceRow row = distanceCache.row(source, simulationTime);
+            for (City destination : reachable) {
+                results.put(destination, row.toResult(graph.indexOf(destination)));
             }
+            return results;
         }
-    
-        // Si no se encuentra un camino, retornar una distancia infinita o algún valor arbitrario
-        return new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>());
-    }
-    
 
-    private static class CityDistancePair {
-        private City city;
-        private double cost;
+        // Las estrategias punto a punto no aplican a uno a muchos: se usa un Dijkstra con parada temprana
+        int[] targets = new int[reachable.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = graph.indexOf(reachable.get(i));
+        }
+        ShortestPathResult[] paths = engine.shortestPaths(source, targets, simulationTime);
+        for (int i = 0; i < targets.length; i++) {
+            results.put(reachable.get(i), paths[i]);
+        }
+        return results;
+    }
 
-        public CityDistancePair(City city, double cost) {
-            this.city = city;
-            this.cost = cost;
+    /**
+     * Caminos de llegada más temprana saliendo del origen en departureTime: cada
+     * tramo se evalúa en el instante en que el camión llega a él y los bloqueos
+     * cortos se esperan. El costo es el tiempo transcurrido en horas.
+     */
+    public Map<City, ShortestPathResult> calculateEarliestArrivals(City origin, Collection<City> destinations, Date departureTime) {
+        Map<City, ShortestPathResult> results = new LinkedHashMap<>();
+        int source = graph.indexOf(origin);
+        List<City> pending = new ArrayList<>(destinations.size());
+        for (City destination : destinations) {
+            if (source < 0 || graph.indexOf(destination) < 0) {
+                results.put(destination, new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>()));
+            } else {
+                pending.add(destination);
+            }
         }
 
-        public City getCity() {
-            return city;
+        if (strategy == ShortestPathStrategy.EPOCH_CACHE && !pending.isEmpty()) {
+            // Si se llega antes del siguiente cambio de bloqueos, el árbol estático de la época es exacto
+            long nextChange = distanceCache.getEpochs().nextChangeAfter(departureTime.getTime());
+            DistanceRow row = distanceCache.row(source, departureTime);
+            Iterator<City> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                City destination = iterator.next();
+                int target = graph.indexOf(destination);
+                if (row.isReachable(target) && departureTime.getTime() + row.cost(target) * 3_600_000 < nextChange) {
+                    results.put(destination, row.toResult(target));
+                    iterator.remove();
+                }
+            }
         }
 
-        public double getCost() {
-            return cost;
+        if (!pending.isEmpty()) {
+            int[] targets = new int[pending.size()];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = graph.indexOf(pending.get(i));
+            }
+            ShortestPathResult[] paths = engine.earliestArrivals(source, targets, departureTime, maxBlockageWaitMinutes);
+            for (int i = 0; i < targets.length; i++) {
+                results.put(pending.get(i), paths[i]);
+            }
         }
+        return results;
+    }
+
+    public ShortestPathResult calculateEarliestArrival(City origin, City destination, Date departureTime) {
+        return calculateEarliestArrivals(origin, Collections.singletonList(destination), departureTime).get(destination);
     }
 }
@@ -1,8 +1,13 @@
 package com.odiparpack.transport_planning.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -10,6 +15,8 @@ import java.util.List;
 @Data
 public class RoadSegment {
 
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,6 +35,10 @@ public class RoadSegment {
     @CollectionTable(name = "blockage_periods", joinColumns = @JoinColumn(name = "road_segment_id"))
     private List<BlockagePeriod> blockagePeriods = new ArrayList<>();
 
+    // Bloqueos indexados; se arman a demanda y se rehacen si cambia la lista de bloqueos
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @ToString.Exclude
+    private transient volatile BlockageIntervals blockageIntervals;
+
     public RoadSegment() {}
 
     public void addBlockagePeriod(Date startDate, Date endDate) {
@@ -36,12 +47,113 @@ public class RoadSegment {
     }
 
     public boolean isAvailableAt(Date currentSimulationTime) {
-        for (BlockagePeriod blockage : blockagePeriods) {
-            if (blockage.isWithinBlockage(currentSimulationTime)) {
-                return false;
+        return blockageIntervals().containing(toMinute(currentSimulationTime)) < 0;
+    }
+
+    // Primer instante a partir de time en que el tramo está abierto
+    public Date availableFrom(Date time) {
+        BlockageIntervals intervals = blockageIntervals();
+        int i = intervals.containing(toMinute(time));
+        return i >= 0 ? new Date(intervals.ends[i] * MILLIS_PER_MINUTE) : time;
+    }
+
+    // Siguiente inicio o fin de bloqueo posterior a time, o null si la disponibilidad ya no cambia
+    public Date nextAvailabilityChange(Date time) {
+        BlockageIntervals intervals = blockageIntervals();
+        long minute = toMinute(time);
+        int i = intervals.lastStartingBy(minute);
+        if (i >= 0 && minute < intervals.ends[i]) {
+            return new Date(intervals.ends[i] * MILLIS_PER_MINUTE);
+        }
+        return i + 1 < intervals.starts.length ? new Date(intervals.starts[i + 1] * MILLIS_PER_MINUTE) : null;
+    }
+
+    // Inicios de los bloqueos en minutos desde epoch; arreglo interno, no modificar
+    public long[] getBlockageStartMinutes() {
+        return blockageIntervals().starts;
+    }
+
+    // Fines de los bloqueos en minutos desde epoch, alineados con getBlockageStartMinutes()
+    public long[] getBlockageEndMinutes() {
+        return blockageIntervals().ends;
+    }
+
+    private static long toMinute(Date time) {
+        return Math.floorDiv(time.getTime(), MILLIS_PER_MINUTE);
+    }
+
+    private BlockageIntervals blockageIntervals() {
+        BlockageIntervals current = blockageIntervals;
+        if (current == null || current.source != blockagePeriods || current.sourceSize != blockagePeriods.size()) {
+            current = BlockageIntervals.of(blockagePeriods);
+            blockageIntervals = current;
+        }
+        return current;
+    }
+
+    // Intervalos [inicio, fin) en minutos desde epoch, ordenados y fusionados
+    private static final class BlockageIntervals {
+        private final long[] starts;
+        private final long[] ends;
+        private final List<BlockagePeriod> source;
+        private final int sourceSize;
+
+        private BlockageIntervals(long[] starts, long[] ends, List<BlockagePeriod> source) {
+            this.starts = starts;
+            this.ends = ends;
+            this.source = source;
+            this.sourceSize = source.size();
+        }
+
+        private static BlockageIntervals of(List<BlockagePeriod> blockagePeriods) {
+            long[][] intervals = new long[blockagePeriods.size()][];
+            for (int i = 0; i < intervals.length; i++) {
+                BlockagePeriod blockage = blockagePeriods.get(i);
+                intervals[i] = new long[] {toMinute(blockage.getStartDate()), toMinute(blockage.getEndDate())};
+            }
+            Arrays.sort(intervals, (a, b) -> Long.compare(a[0], b[0]));
+
+            long[] starts = new long[intervals.length];
+            long[] ends = new long[intervals.length];
+            int count = 0;
+            for (long[] interval : intervals) {
+                if (interval[0] >= interval[1]) {
+                    continue;
+                }
+                // Los intervalos que se solapan o se tocan se fusionan
+                if (count > 0 && interval[0] <= ends[count - 1]) {
+                    ends[count - 1] = Math.max(ends[count - 1], interval[1]);
+                } else {
+                    starts[count] = interval[0];
+                    ends[count] = interval[1];
+                    count++;
+                }
+            }
+            return new BlockageIntervals(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), blockagePeriods);
+        }
+
+        // Índice del bloqueo que contiene al minuto, o -1
+        private int containing(long minute) {
+            int i = lastStartingBy(minute);
+            return i >= 0 && minute < ends[i] ? i : -1;
+        }
+
+        // Último bloqueo cuyo inicio es <= minute, o -1
+        private int lastStartingBy(long minute) {
+            int low = 0;
+            int high = starts.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= minute) {
+                    candidate = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
             }
+            return candidate;
         }
-        return true;
     }
 
     @Embeddable
@@ -0,0 +1,196 @@
+package com.odiparpack.transport_planning.model;
+
+import com.odiparpack.transport_planning.routing.RoadGraph;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Horas de llegada de un camión a cada parada de su ruta, en minutos desde
+ * epoch, acumuladas una sola vez a partir de su hora de salida. Es el único
+ * reloj de una ruta: lo usan la evaluación del planificador y la simulación,
+ * así que ambas ven las mismas esperas por entregas y por bloqueos. Un índice
+ * ciudad → primera visita permite resolver la hora de entrega de cada paquete
+ * con una búsqueda binaria en lugar de recorrer la ruta.
+ */
+public final class RouteTimeline {
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    // arrivalMinutes[i] = llegada a route.get(i); la posición 0 es la salida
+    private final double[] arrivalMinutes;
+    // departureMinutes[i] = salida de route.get(i): la llegada más la espera si ahí se entrega
+    private final double[] departureMinutes;
+    // Nodos visitados ordenados, con la posición de su primera visita en la ruta
+    private final int[] visitedNodes;
+    private final int[] firstVisit;
+
+    // Datos con los que se calculó, para saber si sigue vigente
+    private final List<City> route;
+    private final int routeSize;
+    private final List<PackageOrder> deliveries;
+    private final long deliveryWaitMillis;
+    private final RoadNetwork network;
+    private final long startMillis;
+
+    private RouteTimeline(double[] arrivalMinutes, double[] departureMinutes, int[] visitedNodes, int[] firstVisit,
+                          List<City> route, List<PackageOrder> deliveries, long deliveryWaitMillis,
+                          RoadNetwork network, long startMillis) {
+        this.arrivalMinutes = arrivalMinutes;
+        this.departureMinutes = departureMinutes;
+        this.visitedNodes = visitedNodes;
+        this.firstVisit = firstVisit;
+        this.route = route;
+        this.routeSize = route.size();
+        this.deliveries = deliveries;
+        this.deliveryWaitMillis = deliveryWaitMillis;
+        this.network = network;
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Acumula los tiempos de viaje de cada tramo de la ruta (distancia / velocidad).
+     * Si el tramo está bloqueado al llegar a él y reabre dentro de la espera máxima
+     * de la red, el camión espera; un bloqueo más largo no se espera (la evaluación
+     * lo penaliza aparte). Es la misma regla con la que evaluatePlan cobra la ruta.
+     * Si dos paradas consecutivas no están unidas por un tramo, el camión llega a
+     * la siguiente a la misma hora. En la primera visita a cada destino de
+     * deliveries el camión entrega y espera deliveryWaitMillis antes de seguir,
+     * así que los bloqueos de los tramos siguientes se miran a la salida real.
+     */
+    public static RouteTimeline of(RoadNetwork network, List<City> route, Date start,
+                                   List<PackageOrder> deliveries, long deliveryWaitMillis) {
+        RoadGraph graph = network.getGraph();
+        int size = route.size();
+        double[] arrivalMinutes = new double[size];
+        double[] departureMinutes = new double[size];
+        long[] visits = new long[size];
+        int visitCount = 0;
+        // Nodos donde todavía hay que entregar; -1 una vez atendidos
+        int[] pendingStops = new int[deliveries.size()];
+        for (int d = 0; d < pendingStops.length; d++) {
+            pendingStops[d] = graph.indexOf(deliveries.get(d).getDestination());
+        }
+        double waitMinutes = (double) deliveryWaitMillis / MILLIS_PER_MINUTE;
+
+        double minute = (double) start.getTime() / MILLIS_PER_MINUTE;
+        int previous = -1;
+        for (int i = 0; i < size; i++) {
+            int node = graph.indexOf(route.get(i));
+            if (i > 0 && previous >= 0 && node >= 0) {
+                int edge = graph.edgeBetween(previous, node);
+                if (edge >= 0) {
+                    minute = hopArrivalMinute(network, edge, minute);
+                }
+            }
+            arrivalMinutes[i] = minute;
+            if (node >= 0 && serve(pendingStops, node)) {
+                minute += waitMinutes;
+            }
+            departureMinutes[i] = minute;
+            if (node >= 0) {
+                // Nodo en la parte alta y posición en la baja: al ordenar queda primero la primera visita
+                visits[visitCount++] = ((long) node << 32) | i;
+            }
+            previous = node;
+        }
+
+        Arrays.sort(visits, 0, visitCount);
+        int[] visitedNodes = new int[visitCount];
+        int[] firstVisit = new int[visitCount];
+        int unique = 0;
+        for (int k = 0; k < visitCount; k++) {
+            int node = (int) (visits[k] >>> 32);
+            if (unique == 0 || visitedNodes[unique - 1] != node) {
+                visitedNodes[unique] = node;
+                firstVisit[unique] = (int) visits[k];
+                unique++;
+            }
+        }
+        return new RouteTimeline(arrivalMinutes, departureMinutes, Arrays.copyOf(visitedNodes, unique),
+                Arrays.copyOf(firstVisit, unique), route, deliveries, deliveryWaitMillis, network, start.getTime());
+    }
+
+    // Marca como atendidas las entregas del nodo; true si había alguna
+    private static boolean serve(int[] pendingStops, int node) {
+        boolean served = false;
+        for (int d = 0; d < pendingStops.length; d++) {
+            if (pendingStops[d] == node) {
+                pendingStops[d] = -1;
+                served = true;
+            }
+        }
+        return served;
+    }
+
+    // Llegada al final del tramo edge del grafo saliendo en departureMinute, con la espera por bloqueo corto
+    private static double hopArrivalMinute(RoadNetwork network, int edge, double departureMinute) {
+        RoadGraph graph = network.getGraph();
+        return blockageWait(network, graph.segment(edge), departureMinute) + graph.distance(edge) / graph.speed(edge) * 60.0;
+    }
+
+    // Minuto en que el camión entra al tramo: al reabrir si el bloqueo es corto, en seguida si no
+    private static double blockageWait(RoadNetwork network, RoadSegment segment, double minute) {
+        long millis = Math.round(minute * MILLIS_PER_MINUTE);
+        long reopening = segment.availableFrom(new Date(millis)).getTime();
+        if (reopening > millis && (reopening - millis) <= network.getMaxBlockageWaitMinutes() * MILLIS_PER_MINUTE) {
+            return (double) reopening / MILLIS_PER_MINUTE;
+        }
+        return minute;
+    }
+
+    public boolean isCurrent(List<City> route, List<PackageOrder> deliveries, long deliveryWaitMillis,
+                             RoadNetwork network, Date start) {
+        return this.route == route && this.routeSize == route.size()
+                && this.deliveries == deliveries && this.deliveryWaitMillis == deliveryWaitMillis
+                && this.network == network && this.startMillis == start.getTime();
+    }
+
+    public int size() {
+        return arrivalMinutes.length;
+    }
+
+    public double arrivalMinute(int index) {
+        return arrivalMinutes[index];
+    }
+
+    public Date arrivalTime(int index) {
+        return toDate(arrivalMinutes[index]);
+    }
+
+    // Hora en que el camión sale de la parada hacia la siguiente
+    public double departureMinute(int index) {
+        return departureMinutes[index];
+    }
+
+    public Date departureTime(int index) {
+        return toDate(departureMinutes[index]);
+    }
+
+    // Fin del recorrido; la hora de salida si la ruta no tiene tramos
+    public double finishMinute() {
+        return arrivalMinutes.length == 0 ? (double) startMillis / MILLIS_PER_MINUTE : arrivalMinutes[arrivalMinutes.length - 1];
+    }
+
+    // Posición de la primera visita a la ciudad en la ruta, o -1 si no la visita
+    public int firstVisit(City city) {
+        int node = network.getGraph().indexOf(city);
+        int i = node < 0 ? -1 : Arrays.binarySearch(visitedNodes, node);
+        return i >= 0 ? firstVisit[i] : -1;
+    }
+
+    // Llegada a la ciudad; si la ruta no pasa por ella, el fin del recorrido
+    public double arrivalMinuteAt(City city) {
+        int index = firstVisit(city);
+        return index >= 0 ? arrivalMinutes[index] : finishMinute();
+    }
+
+    public Date arrivalTimeAt(City city) {
+        return toDate(arrivalMinuteAt(city));
+    }
+
+    private static Date toDate(double minute) {
+        return new Date(Math.round(minute * MILLIS_PER_MINUTE));
+    }
+}
@@ -1,8 +1,13 @@
 package com.odiparpack.transport_planning.model;
 
 import jakarta.persistence.*;
+import java.util.Date;
 import java.util.List;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 @Entity
 @Data
@@ -10,13 +15,45 @@ public class TransportationPlan {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    
+
     @ManyToOne
     private Truck truck;
-    
+
     @ManyToMany
     private List<City> route;
-    
+
     @ManyToMany
     private List<PackageOrder> deliveries;
+
+    // Horas de llegada por parada; se calculan a demanda y se rehacen si cambia la ruta
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @ToString.Exclude
+    private transient volatile RouteTimeline timeline;
+
+    public void setRoute(List<City> route) {
+        this.route = route;
+        this.timeline = null;
+    }
+
+    public void setDeliveries(List<PackageOrder> deliveries) {
+        this.deliveries = deliveries;
+        this.timeline = null;
+    }
+
+    // Línea de tiempo de la ruta saliendo cuando el camión queda disponible
+    public RouteTimeline getTimeline(RoadNetwork network) {
+        return getTimeline(network, truck.getAvailableFrom());
+    }
+
+    // Línea de tiempo saliendo a la hora dada, p. ej. la de inicio con la que se planificó, con la espera
+    // del camión en cada parada donde entrega
+    public RouteTimeline getTimeline(RoadNetwork network, Date start) {
+        RouteTimeline current = timeline;
+        List<PackageOrder> stops = deliveries != null ? deliveries : List.of();
+        long wait = truck != null ? truck.getWaitTimeAfterDelivery() : 0;
+        if (current == null || !current.isCurrent(route, stops, wait, network, start)) {
+            current = RouteTimeline.of(network, route, start, stops, wait);
+            timeline = current;
+        }
+        return current;
+    }
 }
@@ -52,20 +52,19 @@ public class Truck {
         return currentTime.after(new Date(lastStopTime.getTime() + waitTimeAfterDelivery));
     }
 
-    // Verifica si el camión puede continuar después de mantenimiento o avería
+    // Verifica si el camión puede continuar después de mantenimiento o avería: no opera dentro de sus ventanas
     public boolean isOperational(Date currentSimulationTime) {
-        /*
-        if (isUnderMaintenance && maintenanceEndTime != null) {
-            System.out.println("Truck " + code + " under maintenance until " + maintenanceEndTime);
-            return currentSimulationTime.after(maintenanceEndTime);
+        if (isUnderMaintenance && within(currentSimulationTime, maintenanceStartTime, maintenanceEndTime)) {
+            return false;
         }
-        if (isBrokenDown && breakdownEndTime != null) {
-            System.out.println("Truck " + code + " broken down until " + breakdownEndTime);
-            return currentSimulationTime.after(breakdownEndTime);
+        if (isBrokenDown && within(currentSimulationTime, breakdownStartTime, breakdownEndTime)) {
+            return false;
         }
-        */
         return true;
     }
-    
+
+    private static boolean within(Date time, Date start, Date end) {
+        return start != null && end != null && !time.before(start) && time.before(end);
+    }
 }
 
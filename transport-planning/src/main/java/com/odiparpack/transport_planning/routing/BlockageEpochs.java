@@ -0,0 +1,52 @@
+package com.odiparpack.transport_planning.routing;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Divide el tiempo en épocas de bloqueo. La disponibilidad de la red solo
+ * cambia al inicio o al fin de un bloqueo, así que entre dos de esos instantes
+ * todos los caminos más cortos son idénticos.
+ */
+public final class BlockageEpochs {
+
+    // Instantes (epoch millis) en los que cambia la disponibilidad, ordenados y sin repetir
+    private final long[] boundaries;
+
+    private BlockageEpochs(long[] boundaries) {
+        this.boundaries = boundaries;
+    }
+
+    public static BlockageEpochs build(RoadGraph graph) {
+        long[] instants = graph.blockages().changeInstantsMillis();
+        Arrays.sort(instants);
+
+        int unique = 0;
+        for (int i = 0; i < instants.length; i++) {
+            if (unique == 0 || instants[i] != instants[unique - 1]) {
+                instants[unique++] = instants[i];
+            }
+        }
+        return new BlockageEpochs(Arrays.copyOf(instants, unique));
+    }
+
+    // Época k = [boundaries[k - 1], boundaries[k]); la época 0 es todo lo anterior al primer cambio
+    public int epochOf(Date time) {
+        return epochOf(time.getTime());
+    }
+
+    public int epochOf(long timeMillis) {
+        int index = Arrays.binarySearch(boundaries, timeMillis);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    // Siguiente instante de cambio estrictamente posterior a timeMillis, Long.MAX_VALUE si no hay más
+    public long nextChangeAfter(long timeMillis) {
+        int epoch = epochOf(timeMillis);
+        return epoch < boundaries.length ? boundaries[epoch] : Long.MAX_VALUE;
+    }
+
+    public int epochCount() {
+        return boundaries.length + 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.RoadSegment;
+
+import java.util.Date;
+
+/**
+ * Índice de bloqueos por tramo del grafo: intervalos [inicio, fin) en minutos
+ * desde epoch, ordenados y fusionados, en arreglos primitivos. Las consultas
+ * de disponibilidad y de reapertura son búsquedas binarias sobre los
+ * intervalos del tramo.
+ */
+public final class BlockageIndex {
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    // Los intervalos del tramo e ocupan [firstInterval[e], firstInterval[e + 1])
+    private final int[] firstInterval;
+    private final long[] start;
+    private final long[] end;
+
+    private BlockageIndex(int[] firstInterval, long[] start, long[] end) {
+        this.firstInterval = firstInterval;
+        this.start = start;
+        this.end = end;
+    }
+
+    // Concatena los intervalos ya ordenados y fusionados de cada tramo
+    static BlockageIndex build(RoadSegment[] segments) {
+        int[] firstInterval = new int[segments.length + 1];
+        int count = 0;
+        for (int e = 0; e < segments.length; e++) {
+            firstInterval[e] = count;
+            count += segments[e].getBlockageStartMinutes().length;
+        }
+        firstInterval[segments.length] = count;
+
+        long[] start = new long[count];
+        long[] end = new long[count];
+        for (int e = 0; e < segments.length; e++) {
+            long[] starts = segments[e].getBlockageStartMinutes();
+            System.arraycopy(starts, 0, start, firstInterval[e], starts.length);
+            System.arraycopy(segments[e].getBlockageEndMinutes(), 0, end, firstInterval[e], starts.length);
+        }
+        return new BlockageIndex(firstInterval, start, end);
+    }
+
+    public static long toMinute(Date time) {
+        return Math.floorDiv(time.getTime(), MILLIS_PER_MINUTE);
+    }
+
+    public static Date toDate(double minute) {
+        return new Date((long) Math.ceil(minute * MILLIS_PER_MINUTE));
+    }
+
+    public boolean hasBlockages(int edge) {
+        return firstInterval[edge] < firstInterval[edge + 1];
+    }
+
+    public int intervalCount() {
+        return start.length;
+    }
+
+    public boolean isBlocked(int edge, double minute) {
+        int i = intervalContaining(edge, minute);
+        return i >= 0;
+    }
+
+    // Primer minuto a partir de minute en que el tramo está abierto
+    public double availableFrom(int edge, double minute) {
+        int i = intervalContaining(edge, minute);
+        return i >= 0 ? end[i] : minute;
+    }
+
+    // Instantes de inicio y fin de todos los bloqueos, en milisegundos
+    long[] changeInstantsMillis() {
+        long[] instants = new long[start.length * 2];
+        for (int i = 0; i < start.length; i++) {
+            instants[2 * i] = start[i] * MILLIS_PER_MINUTE;
+            instants[2 * i + 1] = end[i] * MILLIS_PER_MINUTE;
+        }
+        return instants;
+    }
+
+    // Índice del intervalo del tramo que contiene al minuto, o -1
+    private int intervalContaining(int edge, double minute) {
+        int low = firstInterval[edge];
+        int high = firstInterval[edge + 1] - 1;
+        // Último intervalo cuyo inicio es <= minute
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (start[mid] <= minute) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return candidate >= 0 && minute < end[candidate] ? candidate : -1;
+    }
+}
@@ -0,0 +1,445 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.ShortestPathResult;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Jerarquía de contracción personalizable (CCH) sobre el {@link RoadGraph}.
+ * La topología (orden de contracción y arcos hacia arriba) no depende de los
+ * costos, así que se construye una vez y se puede guardar en disco. Los
+ * bloqueos se aplican en la personalización: por cada época se recalculan los
+ * pesos de los arcos dejando en infinito los tramos cerrados, sin contraer de
+ * nuevo.
+ */
+public final class ContractionHierarchy {
+
+    private static final int FORMAT_MAGIC = 0x43434831; // "CCH1"
+    private static final int MAX_CACHED_METRICS = 8;
+
+    private final RoadGraph graph;
+    private final BlockageEpochs epochs;
+    private final long fingerprint;
+
+    // rank[v] = posición de v en el orden de contracción
+    private final int[] rank;
+    // Arcos hacia nodos de mayor rango: upTarget[upFirst[v] .. upFirst[v + 1]), ordenados por id de nodo
+    private final int[] upFirst;
+    private final int[] upTarget;
+    private final int[] upSource;
+    // Padre en el árbol de eliminación: el vecino hacia arriba de menor rango, -1 en las raíces
+    private final int[] eliminationParent;
+
+    private final Map<Integer, Metric> metricsByEpoch = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Metric> eldest) {
+            return size() > MAX_CACHED_METRICS;
+        }
+    };
+
+    private final ThreadLocal<QueryScratch> queryScratch;
+
+    private ContractionHierarchy(RoadGraph graph, long fingerprint, int[] rank, int[] upFirst, int[] upTarget) {
+        this.graph = graph;
+        this.epochs = BlockageEpochs.build(graph);
+        this.fingerprint = fingerprint;
+        this.rank = rank;
+        this.upFirst = upFirst;
+        this.upTarget = upTarget;
+        this.upSource = new int[upTarget.length];
+        for (int v = 0; v < rank.length; v++) {
+            Arrays.fill(upSource, upFirst[v], upFirst[v + 1], v);
+        }
+        this.eliminationParent = new int[rank.length];
+        for (int v = 0; v < rank.length; v++) {
+            int parent = -1;
+            for (int a = upFirst[v]; a < upFirst[v + 1]; a++) {
+                if (parent < 0 || rank[upTarget[a]] < rank[parent]) {
+                    parent = upTarget[a];
+                }
+            }
+            eliminationParent[v] = parent;
+        }
+        this.queryScratch = ThreadLocal.withInitial(() -> new QueryScratch(graph.nodeCount()));
+    }
+
+    /**
+     * Contrae el grafo en orden de grado mínimo: al eliminar un nodo sus
+     * vecinos aún no contraídos forman una clique, y esos vecinos son sus arcos
+     * hacia arriba. No se hacen búsquedas de testigos, así la topología sirve
+     * para cualquier métrica.
+     */
+    public static ContractionHierarchy build(RoadGraph graph) {
+        int nodeCount = graph.nodeCount();
+        List<Set<Integer>> neighbors = new ArrayList<>(nodeCount);
+        for (int v = 0; v < nodeCount; v++) {
+            neighbors.add(new HashSet<>());
+        }
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            int a = graph.source(e);
+            int b = graph.target(e);
+            if (a != b) {
+                neighbors.get(a).add(b);
+                neighbors.get(b).add(a);
+            }
+        }
+
+        int[] rank = new int[nodeCount];
+        boolean[] contracted = new boolean[nodeCount];
+        int[][] upward = new int[nodeCount][];
+        for (int r = 0; r < nodeCount; r++) {
+            int v = -1;
+            for (int candidate = 0; candidate < nodeCount; candidate++) {
+                if (!contracted[candidate] && (v < 0 || neighbors.get(candidate).size() < neighbors.get(v).size())) {
+                    v = candidate;
+                }
+            }
+            contracted[v] = true;
+            rank[v] = r;
+
+            Set<Integer> higher = neighbors.get(v);
+            upward[v] = higher.stream().mapToInt(Integer::intValue).sorted().toArray();
+            for (int u : upward[v]) {
+                Set<Integer> adjacent = neighbors.get(u);
+                adjacent.remove(v);
+                for (int w : upward[v]) {
+                    if (w != u) {
+                        adjacent.add(w);
+                    }
+                }
+            }
+            neighbors.set(v, Collections.emptySet());
+        }
+
+        int[] upFirst = new int[nodeCount + 1];
+        for (int v = 0; v < nodeCount; v++) {
+            upFirst[v + 1] = upFirst[v] + upward[v].length;
+        }
+        int[] upTarget = new int[upFirst[nodeCount]];
+        for (int v = 0; v < nodeCount; v++) {
+            System.arraycopy(upward[v], 0, upTarget, upFirst[v], upward[v].length);
+        }
+        return new ContractionHierarchy(graph, fingerprint(graph), rank, upFirst, upTarget);
+    }
+
+    // Carga el índice desde disco si corresponde a este grafo; si no, lo construye y lo guarda
+    public static ContractionHierarchy loadOrBuild(RoadGraph graph, Path indexPath) throws IOException {
+        if (indexPath != null && Files.exists(indexPath)) {
+            ContractionHierarchy loaded = load(graph, indexPath);
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        ContractionHierarchy hierarchy = build(graph);
+        if (indexPath != null) {
+            hierarchy.save(indexPath);
+        }
+        return hierarchy;
+    }
+
+    public void save(Path indexPath) throws IOException {
+        if (indexPath.getParent() != null) {
+            Files.createDirectories(indexPath.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath)))) {
+            out.writeInt(FORMAT_MAGIC);
+            out.writeLong(fingerprint);
+            out.writeInt(rank.length);
+            out.writeInt(upTarget.length);
+            for (int r : rank) {
+                out.writeInt(r);
+            }
+            for (int f : upFirst) {
+                out.writeInt(f);
+            }
+            for (int t : upTarget) {
+                out.writeInt(t);
+            }
+        }
+    }
+
+    // Devuelve null si el archivo no corresponde a la red actual
+    public static ContractionHierarchy load(RoadGraph graph, Path indexPath) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != FORMAT_MAGIC || in.readLong() != fingerprint(graph)) {
+                return null;
+            }
+            int nodeCount = in.readInt();
+            int arcCount = in.readInt();
+            if (nodeCount != graph.nodeCount()) {
+                return null;
+            }
+            int[] rank = new int[nodeCount];
+            int[] upFirst = new int[nodeCount + 1];
+            int[] upTarget = new int[arcCount];
+            for (int i = 0; i < nodeCount; i++) {
+                rank[i] = in.readInt();
+            }
+            for (int i = 0; i <= nodeCount; i++) {
+                upFirst[i] = in.readInt();
+            }
+            for (int i = 0; i < arcCount; i++) {
+                upTarget[i] = in.readInt();
+            }
+            return new ContractionHierarchy(graph, fingerprint(graph), rank, upFirst, upTarget);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    public int arcCount() {
+        return upTarget.length;
+    }
+
+    /**
+     * Camino más corto con la métrica de la época que contiene al instante
+     * dado. Los nodos alcanzables hacia arriba desde v son exactamente sus
+     * ancestros en el árbol de eliminación, así que ambas búsquedas hacia
+     * arriba recorren esa cadena en orden de rango, sin montículo.
+     */
+    public ShortestPathResult shortestPath(int source, int target, Date simulationTime) {
+        Metric metric = metricFor(simulationTime);
+        QueryScratch scratch = queryScratch.get();
+        double[] forward = scratch.forward;
+        double[] backward = scratch.backward;
+
+        forward[source] = 0.0;
+        backward[target] = 0.0;
+        relaxAncestors(source, metric.up, forward, scratch.forwardArc);
+        relaxAncestors(target, metric.down, backward, scratch.backwardArc);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        for (int v = source; v != -1; v = eliminationParent[v]) {
+            double cost = forward[v] + backward[v];
+            if (cost < best) {
+                best = cost;
+                meeting = v;
+            }
+        }
+
+        ShortestPathResult result;
+        if (meeting < 0) {
+            result = new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>());
+        } else {
+            // Subida desde el origen hasta el nodo de encuentro, en orden inverso
+            int arcs = 0;
+            for (int v = meeting; v != source; v = upSource[scratch.forwardArc[v]]) {
+                scratch.arcBuffer[arcs++] = scratch.forwardArc[v];
+            }
+            scratch.nodeCount = 0;
+            scratch.addNode(source);
+            for (int i = arcs - 1; i >= 0; i--) {
+                unpack(metric, scratch.arcBuffer[i], true, scratch);
+            }
+            // Bajada desde el nodo de encuentro hasta el destino
+            for (int v = meeting; v != target; v = upSource[scratch.backwardArc[v]]) {
+                unpack(metric, scratch.backwardArc[v], false, scratch);
+            }
+
+            List<City> path = new ArrayList<>(scratch.nodeCount);
+            for (int i = 0; i < scratch.nodeCount; i++) {
+                path.add(graph.city(scratch.nodes[i]));
+            }
+            result = new ShortestPathResult(best, path);
+        }
+
+        // Solo se tocaron los ancestros de ambos extremos: se limpian para la próxima consulta
+        for (int v = source; v != -1; v = eliminationParent[v]) {
+            forward[v] = Double.POSITIVE_INFINITY;
+        }
+        for (int v = target; v != -1; v = eliminationParent[v]) {
+            backward[v] = Double.POSITIVE_INFINITY;
+        }
+        return result;
+    }
+
+    private void relaxAncestors(int start, double[] weights, double[] dist, int[] parentArc) {
+        for (int v = start; v != -1; v = eliminationParent[v]) {
+            double dv = dist[v];
+            if (dv == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            for (int a = upFirst[v]; a < upFirst[v + 1]; a++) {
+                double newCost = dv + weights[a];
+                int u = upTarget[a];
+                if (newCost < dist[u]) {
+                    dist[u] = newCost;
+                    parentArc[u] = a;
+                }
+            }
+        }
+    }
+
+    // Métrica personalizada para la época del instante dado, reutilizada mientras siga en caché
+    Metric metricFor(Date simulationTime) {
+        int epoch = epochs.epochOf(simulationTime);
+        synchronized (metricsByEpoch) {
+            Metric metric = metricsByEpoch.get(epoch);
+            if (metric != null) {
+                return metric;
+            }
+        }
+        Metric metric = customize(simulationTime);
+        synchronized (metricsByEpoch) {
+            metricsByEpoch.put(epoch, metric);
+        }
+        return metric;
+    }
+
+    /**
+     * Personalización básica: se cargan los tramos disponibles en sus arcos y
+     * luego, en orden de rango creciente, cada nodo v relaja los atajos u -> w
+     * de los triángulos inferiores u - v - w.
+     */
+    private Metric customize(Date simulationTime) {
+        int arcCount = upTarget.length;
+        Metric metric = new Metric(arcCount);
+        long minute = BlockageIndex.toMinute(simulationTime);
+
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            int a = graph.source(e);
+            int b = graph.target(e);
+            if (a == b || !graph.isAvailable(e, minute)) {
+                continue;
+            }
+            double cost = graph.cost(e);
+            if (rank[a] < rank[b]) {
+                int arc = findArc(a, b);
+                metric.up[arc] = Math.min(metric.up[arc], cost);
+            } else {
+                int arc = findArc(b, a);
+                metric.down[arc] = Math.min(metric.down[arc], cost);
+            }
+        }
+
+        int[] byRank = new int[rank.length];
+        for (int v = 0; v < rank.length; v++) {
+            byRank[rank[v]] = v;
+        }
+        for (int v : byRank) {
+            for (int arcU = upFirst[v]; arcU < upFirst[v + 1]; arcU++) {
+                double toV = metric.down[arcU];        // u -> v
+                if (toV == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                int u = upTarget[arcU];
+                for (int arcW = upFirst[v]; arcW < upFirst[v + 1]; arcW++) {
+                    int w = upTarget[arcW];
+                    double cost = toV + metric.up[arcW]; // u -> v -> w
+                    if (w == u || cost == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    if (rank[u] < rank[w]) {
+                        int arc = findArc(u, w);
+                        if (cost < metric.up[arc]) {
+                            metric.up[arc] = cost;
+                            metric.upMiddle[arc] = v;
+                        }
+                    } else {
+                        int arc = findArc(w, u);
+                        if (cost < metric.down[arc]) {
+                            metric.down[arc] = cost;
+                            metric.downMiddle[arc] = v;
+                        }
+                    }
+                }
+            }
+        }
+        return metric;
+    }
+
+    // Agrega los nodos del arco (sin su primer nodo) recorriéndolo hacia arriba o hacia abajo
+    private void unpack(Metric metric, int arc, boolean upward, QueryScratch scratch) {
+        int low = upSource[arc];
+        int high = upTarget[arc];
+        int middle = upward ? metric.upMiddle[arc] : metric.downMiddle[arc];
+        if (middle < 0) {
+            scratch.addNode(upward ? high : low);
+            return;
+        }
+        if (upward) {
+            unpack(metric, findArc(middle, low), false, scratch);
+            unpack(metric, findArc(middle, high), true, scratch);
+        } else {
+            unpack(metric, findArc(middle, high), false, scratch);
+            unpack(metric, findArc(middle, low), true, scratch);
+        }
+    }
+
+    private int findArc(int low, int high) {
+        int index = Arrays.binarySearch(upTarget, upFirst[low], upFirst[low + 1], high);
+        if (index < 0) {
+            throw new IllegalStateException("Missing hierarchy arc " + low + " -> " + high);
+        }
+        return index;
+    }
+
+    // Huella de los nodos y tramos del grafo para validar un índice guardado
+    private static long fingerprint(RoadGraph graph) {
+        long hash = 0xcbf29ce484222325L;
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            for (byte b : graph.city(v).getUbigeo().getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ b) * 0x100000001b3L;
+            }
+        }
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            hash = (hash ^ graph.source(e)) * 0x100000001b3L;
+            hash = (hash ^ graph.target(e)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Pesos de cada arco en ambos sentidos y el nodo intermedio de los atajos (-1 si es un tramo original)
+    static final class Metric {
+        final double[] up;
+        final double[] down;
+        final int[] upMiddle;
+        final int[] downMiddle;
+
+        Metric(int arcCount) {
+            up = new double[arcCount];
+            down = new double[arcCount];
+            upMiddle = new int[arcCount];
+            downMiddle = new int[arcCount];
+            Arrays.fill(up, Double.POSITIVE_INFINITY);
+            Arrays.fill(down, Double.POSITIVE_INFINITY);
+            Arrays.fill(upMiddle, -1);
+            Arrays.fill(downMiddle, -1);
+        }
+    }
+
+    // Distancias de ambas búsquedas, en infinito salvo durante una consulta
+    private static final class QueryScratch {
+        final double[] forward;
+        final double[] backward;
+        final int[] forwardArc;
+        final int[] backwardArc;
+        final int[] arcBuffer;
+        int[] nodes;
+        int nodeCount;
+
+        QueryScratch(int graphNodes) {
+            forward = new double[graphNodes];
+            backward = new double[graphNodes];
+            forwardArc = new int[graphNodes];
+            backwardArc = new int[graphNodes];
+            arcBuffer = new int[graphNodes];
+            nodes = new int[Math.max(16, graphNodes)];
+            Arrays.fill(forward, Double.POSITIVE_INFINITY);
+            Arrays.fill(backward, Double.POSITIVE_INFINITY);
+        }
+
+        void addNode(int node) {
+            if (nodeCount == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodeCount * 2);
+            }
+            nodes[nodeCount++] = node;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.ShortestPathResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Árbol de caminos más cortos desde un origen: costos y predecesores hacia
+ * todos los nodos. Es inmutable y puede compartirse entre hilos.
+ */
+public final class DistanceRow {
+
+    private final RoadGraph graph;
+    private final int source;
+    private final double[] costs;
+    private final int[] parents;
+
+    DistanceRow(RoadGraph graph, int source, double[] costs, int[] parents) {
+        this.graph = graph;
+        this.source = source;
+        this.costs = costs;
+        this.parents = parents;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    // Costo hasta el nodo, Double.MAX_VALUE si es inalcanzable
+    public double cost(int target) {
+        return costs[target];
+    }
+
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    public boolean isReachable(int target) {
+        return costs[target] != Double.MAX_VALUE;
+    }
+
+    public ShortestPathResult toResult(int target) {
+        if (!isReachable(target)) {
+            return new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>());
+        }
+        List<City> path = new ArrayList<>();
+        for (int node = target; node != -1; node = parents[node]) {
+            path.add(graph.city(node));
+        }
+        Collections.reverse(path);
+        return new ShortestPathResult(costs[target], path);
+    }
+}
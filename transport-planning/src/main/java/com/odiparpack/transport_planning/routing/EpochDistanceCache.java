@@ -0,0 +1,94 @@
+package com.odiparpack.transport_planning.routing;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de filas de distancias y predecesores por época de bloqueo. Cada
+ * época guarda, bajo demanda, el árbol de caminos más cortos de los orígenes
+ * consultados, con un límite LRU de filas por época y de épocas en memoria.
+ */
+public final class EpochDistanceCache {
+
+    public static final int DEFAULT_MAX_EPOCHS = 16;
+    public static final int DEFAULT_MAX_ROWS_PER_EPOCH = 256;
+
+    private final ShortestPathEngine engine;
+    private final BlockageEpochs epochs;
+    private final int maxRowsPerEpoch;
+    private final LruMap<Integer, LruMap<Integer, DistanceRow>> rowsByEpoch;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public EpochDistanceCache(ShortestPathEngine engine, BlockageEpochs epochs) {
+        this(engine, epochs, DEFAULT_MAX_EPOCHS, DEFAULT_MAX_ROWS_PER_EPOCH);
+    }
+
+    public EpochDistanceCache(ShortestPathEngine engine, BlockageEpochs epochs, int maxEpochs, int maxRowsPerEpoch) {
+        this.engine = engine;
+        this.epochs = epochs;
+        this.maxRowsPerEpoch = maxRowsPerEpoch;
+        this.rowsByEpoch = new LruMap<>(maxEpochs);
+    }
+
+    // Fila del origen para la época que contiene al instante dado; se calcula si no está en caché
+    public DistanceRow row(int source, Date time) {
+        int epoch = epochs.epochOf(time);
+        synchronized (rowsByEpoch) {
+            LruMap<Integer, DistanceRow> rows = rowsByEpoch.get(epoch);
+            DistanceRow row = rows == null ? null : rows.get(source);
+            if (row != null) {
+                hits.incrementAndGet();
+                return row;
+            }
+        }
+
+        // El Dijkstra se ejecuta fuera del candado; si dos hilos calculan la misma fila gana el último
+        misses.incrementAndGet();
+        DistanceRow row = engine.shortestPathTree(source, time);
+        synchronized (rowsByEpoch) {
+            rowsByEpoch.computeIfAbsent(epoch, k -> new LruMap<>(maxRowsPerEpoch)).put(source, row);
+        }
+        return row;
+    }
+
+    public BlockageEpochs getEpochs() {
+        return epochs;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public void clear() {
+        synchronized (rowsByEpoch) {
+            rowsByEpoch.clear();
+        }
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxEntries;
+
+        LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.odiparpack.transport_planning.routing;
+
+/**
+ * Cálculos geográficos compartidos por la carga de datos y el enrutamiento.
+ */
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    private GeoUtils() {}
+
+    /**
+     * Distancia en kilómetros entre dos coordenadas usando la fórmula de Haversine.
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                 + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                 * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Velocidad permitida en km/h entre las regiones de origen y destino.
+     */
+    public static double speedLimit(String region1, String region2) {
+        if (region1.equalsIgnoreCase("COSTA") && region2.equalsIgnoreCase("COSTA"))
+            return 70.0;
+        if ((region1.equalsIgnoreCase("COSTA") && region2.equalsIgnoreCase("SIERRA")) ||
+            (region1.equalsIgnoreCase("SIERRA") && region2.equalsIgnoreCase("COSTA")))
+            return 50.0;
+        if (region1.equalsIgnoreCase("SIERRA") && region2.equalsIgnoreCase("SIERRA"))
+            return 60.0;
+        if ((region1.equalsIgnoreCase("SIERRA") && region2.equalsIgnoreCase("SELVA")) ||
+            (region1.equalsIgnoreCase("SELVA") && region2.equalsIgnoreCase("SIERRA")))
+            return 55.0;
+        if (region1.equalsIgnoreCase("SELVA") && region2.equalsIgnoreCase("SELVA"))
+            return 65.0;
+        return 50.0; // Default speed limit
+    }
+}
@@ -0,0 +1,128 @@
+package com.odiparpack.transport_planning.routing;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario mínimo indexado por id de nodo, con claves double y
+ * decrease-key real. Cada nodo aparece a lo sumo una vez, así que no hay
+ * entradas obsoletas ni objetos por relajación.
+ */
+public final class IndexedMinHeap {
+
+    private int[] heap;        // heap[i] = nodo en la posición i
+    private int[] position;    // position[nodo] = posición en heap, -1 si no está
+    private double[] keys;     // keys[nodo] = clave actual del nodo
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    // Amplía la capacidad para ids de nodo menores que capacity
+    public void ensureCapacity(int capacity) {
+        if (position.length < capacity) {
+            int oldLength = position.length;
+            heap = Arrays.copyOf(heap, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            position = Arrays.copyOf(position, capacity);
+            Arrays.fill(position, oldLength, capacity, -1);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int node) {
+        return position[node] >= 0;
+    }
+
+    public double key(int node) {
+        return keys[node];
+    }
+
+    public double peekKey() {
+        return keys[heap[0]];
+    }
+
+    // Inserta el nodo o, si ya está y la nueva clave es menor, la disminuye
+    public void insertOrDecrease(int node, double key) {
+        int i = position[node];
+        if (i < 0) {
+            i = size++;
+            heap[i] = node;
+            position[node] = i;
+        } else if (key >= keys[node]) {
+            return;
+        }
+        keys[node] = key;
+        siftUp(i);
+    }
+
+    public int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    // Vacía el montículo en O(tamaño) sin recorrer todos los nodos
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+        double key = keys[node];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            int parentNode = heap[p];
+            if (keys[parentNode] <= key) {
+                break;
+            }
+            heap[i] = parentNode;
+            position[parentNode] = i;
+            i = p;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+        double key = keys[node];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            int childNode = heap[child];
+            if (keys[childNode] >= key) {
+                break;
+            }
+            heap[i] = childNode;
+            position[childNode] = i;
+            i = child;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+}
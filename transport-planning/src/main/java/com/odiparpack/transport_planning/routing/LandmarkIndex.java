@@ -0,0 +1,104 @@
+package com.odiparpack.transport_planning.routing;
+
+import java.util.Arrays;
+
+/**
+ * Landmarks para la heurística ALT (A*, landmarks y desigualdad triangular).
+ * Se calculan una vez al construir la red, sin bloqueos: cerrar un tramo solo
+ * puede alargar los caminos, así que las cotas siguen siendo admisibles.
+ */
+public final class LandmarkIndex {
+
+    public static final int DEFAULT_LANDMARKS = 8;
+
+    private final int[] landmarks;
+    // fromLandmark[l][v] = d(L, v) y toLandmark[l][v] = d(v, L)
+    private final double[][] fromLandmark;
+    private final double[][] toLandmark;
+
+    private LandmarkIndex(int[] landmarks, double[][] fromLandmark, double[][] toLandmark) {
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Elige los landmarks por el criterio del más lejano: cada nuevo landmark
+     * es el nodo cuya distancia mínima a los ya elegidos es mayor.
+     */
+    public static LandmarkIndex build(RoadGraph graph, int landmarkCount) {
+        int nodeCount = graph.nodeCount();
+        int count = Math.min(landmarkCount, nodeCount);
+        int[] landmarks = new int[count];
+        double[][] fromLandmark = new double[count][];
+        double[][] toLandmark = new double[count][];
+
+        double[] closest = new double[nodeCount];
+        Arrays.fill(closest, Double.MAX_VALUE);
+        int next = 0;
+        for (int l = 0; l < count; l++) {
+            landmarks[l] = next;
+            fromLandmark[l] = staticTree(graph, next, false);
+            toLandmark[l] = staticTree(graph, next, true);
+
+            double farthest = -1;
+            for (int v = 0; v < nodeCount; v++) {
+                closest[v] = Math.min(closest[v], fromLandmark[l][v]);
+                // Los nodos inalcanzables no sirven de landmark
+                if (closest[v] != Double.MAX_VALUE && closest[v] > farthest) {
+                    farthest = closest[v];
+                    next = v;
+                }
+            }
+        }
+        return new LandmarkIndex(landmarks, fromLandmark, toLandmark);
+    }
+
+    public int landmarkCount() {
+        return landmarks.length;
+    }
+
+    public int landmark(int l) {
+        return landmarks[l];
+    }
+
+    // Cota inferior de d(v, target) por desigualdad triangular sobre todos los landmarks
+    public double lowerBound(int v, int target) {
+        double best = 0.0;
+        for (int l = 0; l < landmarks.length; l++) {
+            double[] from = fromLandmark[l];
+            double[] to = toLandmark[l];
+            if (from[v] != Double.MAX_VALUE && from[target] != Double.MAX_VALUE) {
+                best = Math.max(best, from[target] - from[v]);
+            }
+            if (to[v] != Double.MAX_VALUE && to[target] != Double.MAX_VALUE) {
+                best = Math.max(best, to[v] - to[target]);
+            }
+        }
+        return best;
+    }
+
+    // Dijkstra completo ignorando bloqueos; si reverse es true recorre los tramos al revés
+    private static double[] staticTree(RoadGraph graph, int source, boolean reverse) {
+        double[] costs = new double[graph.nodeCount()];
+        Arrays.fill(costs, Double.MAX_VALUE);
+        IndexedMinHeap heap = new IndexedMinHeap(graph.nodeCount());
+        costs[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            int begin = reverse ? graph.firstInEdge(u) : graph.firstEdge(u);
+            int end = reverse ? graph.endInEdge(u) : graph.endEdge(u);
+            for (int i = begin; i < end; i++) {
+                int e = reverse ? graph.inEdge(i) : i;
+                int v = reverse ? graph.source(e) : graph.target(e);
+                double newCost = costs[u] + graph.cost(e);
+                if (newCost < costs[v]) {
+                    costs[v] = newCost;
+                    heap.insertOrDecrease(v, newCost);
+                }
+            }
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,266 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.RoadSegment;
+
+import java.util.*;
+
+/**
+ * Grafo de carreteras de solo lectura en formato CSR (compressed sparse row).
+ * Las ciudades reciben un id entero denso y los tramos se guardan en arreglos
+ * primitivos ordenados por ciudad de origen, de modo que las búsquedas de
+ * caminos no tengan que pasar por las entidades JPA.
+ */
+public final class RoadGraph {
+
+    private final City[] cities;
+    private final Map<String, Integer> indexByUbigeo;
+
+    // Los tramos que salen del nodo u ocupan [firstEdge[u], firstEdge[u + 1])
+    private final int[] firstEdge;
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+    private final double[] edgeCost;
+    private final double[] edgeDistance;
+    private final double[] edgeSpeed;
+    private final RoadSegment[] edgeSegment;
+
+    // Grafo inverso: los tramos que llegan al nodo v son inEdge[firstInEdge[v] .. firstInEdge[v + 1])
+    private final int[] firstInEdge;
+    private final int[] inEdge;
+
+    private final double[] latitude;
+    private final double[] longitude;
+    private final double minCostPerKm;
+    private final BlockageIndex blockages;
+
+    // Tabla hash de direccionamiento abierto (origen, destino) -> id de tramo, con sondeo lineal
+    private final int[] edgeLookup;
+    private final int edgeLookupShift;
+
+    private RoadGraph(City[] cities, Map<String, Integer> indexByUbigeo, int[] firstEdge, int[] edgeTarget,
+                      double[] edgeCost, double[] edgeDistance, double[] edgeSpeed, RoadSegment[] edgeSegment) {
+        this.cities = cities;
+        this.indexByUbigeo = indexByUbigeo;
+        this.firstEdge = firstEdge;
+        this.edgeTarget = edgeTarget;
+        this.edgeCost = edgeCost;
+        this.edgeDistance = edgeDistance;
+        this.edgeSpeed = edgeSpeed;
+        this.edgeSegment = edgeSegment;
+
+        int nodeCount = cities.length;
+        int edgeCount = edgeTarget.length;
+        this.edgeSource = new int[edgeCount];
+        for (int u = 0; u < nodeCount; u++) {
+            Arrays.fill(edgeSource, firstEdge[u], firstEdge[u + 1], u);
+        }
+
+        this.firstInEdge = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            firstInEdge[edgeTarget[e] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            firstInEdge[v + 1] += firstInEdge[v];
+        }
+        this.inEdge = new int[edgeCount];
+        int[] next = Arrays.copyOf(firstInEdge, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            inEdge[next[edgeTarget[e]]++] = e;
+        }
+
+        this.latitude = new double[nodeCount];
+        this.longitude = new double[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            latitude[v] = cities[v].getLatitude();
+            longitude[v] = cities[v].getLongitude();
+        }
+
+        // Menor costo por kilómetro en línea recta entre todos los tramos: cota inferior admisible para A*
+        double minRatio = Double.MAX_VALUE;
+        for (int u = 0; u < nodeCount; u++) {
+            for (int e = firstEdge[u]; e < firstEdge[u + 1]; e++) {
+                double km = GeoUtils.haversineKm(latitude[u], longitude[u], latitude[edgeTarget[e]], longitude[edgeTarget[e]]);
+                if (km > 0) {
+                    minRatio = Math.min(minRatio, edgeCost[e] / km);
+                }
+            }
+        }
+        this.minCostPerKm = minRatio == Double.MAX_VALUE ? 0.0 : minRatio;
+        this.blockages = BlockageIndex.build(edgeSegment);
+
+        // Capacidad potencia de dos con factor de carga <= 0.5
+        int capacity = Integer.highestOneBit(Math.max(2, edgeCount * 2 - 1)) << 1;
+        this.edgeLookupShift = 64 - Integer.numberOfTrailingZeros(capacity);
+        this.edgeLookup = new int[capacity];
+        Arrays.fill(edgeLookup, -1);
+        for (int e = 0; e < edgeCount; e++) {
+            int slot = lookupSlot(edgeSource[e], edgeTarget[e]);
+            // Si hay tramos repetidos se conserva el primero, como hacía la búsqueda lineal
+            if (edgeLookup[slot] < 0) {
+                edgeLookup[slot] = e;
+            }
+        }
+    }
+
+    public static RoadGraph build(Collection<City> cities, Collection<RoadSegment> roadSegments) {
+        // Ids densos ordenados por ubigeo para que el grafo sea el mismo en cada ejecución
+        TreeMap<String, City> citiesByUbigeo = new TreeMap<>();
+        for (City city : cities) {
+            citiesByUbigeo.put(city.getUbigeo(), city);
+        }
+        for (RoadSegment segment : roadSegments) {
+            citiesByUbigeo.putIfAbsent(segment.getOrigin().getUbigeo(), segment.getOrigin());
+            citiesByUbigeo.putIfAbsent(segment.getDestination().getUbigeo(), segment.getDestination());
+        }
+
+        int nodeCount = citiesByUbigeo.size();
+        City[] nodes = new City[nodeCount];
+        Map<String, Integer> indexByUbigeo = new HashMap<>(nodeCount * 2);
+        int index = 0;
+        for (City city : citiesByUbigeo.values()) {
+            nodes[index] = city;
+            indexByUbigeo.put(city.getUbigeo(), index);
+            index++;
+        }
+
+        // Ordenamiento por conteo de los tramos según su nodo de origen
+        int edgeCount = roadSegments.size();
+        int[] firstEdge = new int[nodeCount + 1];
+        for (RoadSegment segment : roadSegments) {
+            firstEdge[indexByUbigeo.get(segment.getOrigin().getUbigeo()) + 1]++;
+        }
+        for (int u = 0; u < nodeCount; u++) {
+            firstEdge[u + 1] += firstEdge[u];
+        }
+
+        int[] next = Arrays.copyOf(firstEdge, nodeCount);
+        int[] edgeTarget = new int[edgeCount];
+        double[] edgeCost = new double[edgeCount];
+        double[] edgeDistance = new double[edgeCount];
+        double[] edgeSpeed = new double[edgeCount];
+        RoadSegment[] edgeSegment = new RoadSegment[edgeCount];
+        for (RoadSegment segment : roadSegments) {
+            int e = next[indexByUbigeo.get(segment.getOrigin().getUbigeo())]++;
+            edgeTarget[e] = indexByUbigeo.get(segment.getDestination().getUbigeo());
+            edgeCost[e] = segment.getCost();
+            edgeDistance[e] = segment.getDistance();
+            edgeSpeed[e] = segment.getSpeedLimit();
+            edgeSegment[e] = segment;
+        }
+
+        return new RoadGraph(nodes, indexByUbigeo, firstEdge, edgeTarget, edgeCost, edgeDistance, edgeSpeed, edgeSegment);
+    }
+
+    public int nodeCount() {
+        return cities.length;
+    }
+
+    public int edgeCount() {
+        return edgeTarget.length;
+    }
+
+    // Devuelve -1 si la ciudad no pertenece al grafo
+    public int indexOf(City city) {
+        if (city == null) {
+            return -1;
+        }
+        Integer index = indexByUbigeo.get(city.getUbigeo());
+        return index == null ? -1 : index;
+    }
+
+    public City city(int node) {
+        return cities[node];
+    }
+
+    public int firstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    public int endEdge(int node) {
+        return firstEdge[node + 1];
+    }
+
+    public int target(int edge) {
+        return edgeTarget[edge];
+    }
+
+    public double cost(int edge) {
+        return edgeCost[edge];
+    }
+
+    public double distance(int edge) {
+        return edgeDistance[edge];
+    }
+
+    public double speed(int edge) {
+        return edgeSpeed[edge];
+    }
+
+    public RoadSegment segment(int edge) {
+        return edgeSegment[edge];
+    }
+
+    // Id del tramo que va de source a target, o -1 si no existe
+    public int edgeBetween(int source, int target) {
+        if (source < 0 || target < 0) {
+            return -1;
+        }
+        return edgeLookup[lookupSlot(source, target)];
+    }
+
+    // Casilla que ocupa el par (source, target) o la primera libre de su secuencia de sondeo
+    private int lookupSlot(int source, int target) {
+        long key = (long) source * cities.length + target;
+        int mask = edgeLookup.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> edgeLookupShift);
+        while (edgeLookup[slot] >= 0
+                && (edgeSource[edgeLookup[slot]] != source || edgeTarget[edgeLookup[slot]] != target)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public BlockageIndex blockages() {
+        return blockages;
+    }
+
+    // Disponibilidad del tramo en un minuto (desde epoch), con búsqueda binaria en sus bloqueos
+    public boolean isAvailable(int edge, double minute) {
+        return !blockages.isBlocked(edge, minute);
+    }
+
+    public int firstInEdge(int node) {
+        return firstInEdge[node];
+    }
+
+    public int endInEdge(int node) {
+        return firstInEdge[node + 1];
+    }
+
+    // Id del tramo en la posición i del arreglo de tramos entrantes
+    public int inEdge(int i) {
+        return inEdge[i];
+    }
+
+    public int source(int edge) {
+        return edgeSource[edge];
+    }
+
+    public double latitude(int node) {
+        return latitude[node];
+    }
+
+    public double longitude(int node) {
+        return longitude[node];
+    }
+
+    // Distancia en línea recta entre dos nodos, en kilómetros
+    public double straightLineKm(int a, int b) {
+        return GeoUtils.haversineKm(latitude[a], longitude[a], latitude[b], longitude[b]);
+    }
+
+    public double minCostPerKm() {
+        return minCostPerKm;
+    }
+}
@@ -0,0 +1,107 @@
+package com.odiparpack.transport_planning.routing;
+
+import java.util.Arrays;
+
+/**
+ * Buffers reutilizables de una búsqueda de caminos, uno por hilo.
+ * En lugar de limpiar los arreglos en cada consulta se incrementa un contador
+ * de generación: una entrada solo es válida si su sello coincide con la
+ * generación actual.
+ */
+final class SearchScratch {
+
+    private static final ThreadLocal<SearchScratch> LOCAL = ThreadLocal.withInitial(SearchScratch::new);
+
+    private int generation;
+    private int[] reachedStamp = new int[0];
+    private int[] settledStamp = new int[0];
+    private int[] targetStamp = new int[0];
+    double[] dist = new double[0];
+    int[] parent = new int[0];
+    int[] parentEdge = new int[0];
+    // Heurística de cada nodo alcanzado, para no recalcularla en cada decrease-key
+    double[] potential = new double[0];
+    int settledCount;
+
+    // Cola de prioridad indexada compartida por todas las variantes de búsqueda
+    final IndexedMinHeap heap = new IndexedMinHeap(0);
+
+    // Buffer para reconstruir caminos desde los predecesores
+    int[] pathBuffer = new int[0];
+
+    private SearchScratch() {}
+
+    // Buffers del hilo actual sin reiniciarlos, para leer estadísticas de la última búsqueda
+    static SearchScratch current() {
+        return LOCAL.get();
+    }
+
+    // Devuelve los buffers del hilo actual listos para una nueva búsqueda sobre nodeCount nodos
+    static SearchScratch acquire(int nodeCount) {
+        SearchScratch scratch = LOCAL.get();
+        scratch.reset(nodeCount);
+        return scratch;
+    }
+
+    private void reset(int nodeCount) {
+        if (reachedStamp.length < nodeCount) {
+            reachedStamp = new int[nodeCount];
+            settledStamp = new int[nodeCount];
+            targetStamp = new int[nodeCount];
+            dist = new double[nodeCount];
+            parent = new int[nodeCount];
+            parentEdge = new int[nodeCount];
+            potential = new double[nodeCount];
+            pathBuffer = new int[nodeCount];
+            heap.ensureCapacity(nodeCount);
+            generation = 0;
+        }
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(reachedStamp, 0);
+            Arrays.fill(settledStamp, 0);
+            Arrays.fill(targetStamp, 0);
+            generation = 0;
+        }
+        generation++;
+        settledCount = 0;
+        heap.clear();
+    }
+
+    boolean isReached(int node) {
+        return reachedStamp[node] == generation;
+    }
+
+    boolean isSettled(int node) {
+        return settledStamp[node] == generation;
+    }
+
+    void settle(int node) {
+        settledStamp[node] = generation;
+        settledCount++;
+    }
+
+    // Marca un destino pendiente; devuelve false si ya estaba marcado en esta búsqueda
+    boolean markTarget(int node) {
+        if (targetStamp[node] == generation) {
+            return false;
+        }
+        targetStamp[node] = generation;
+        return true;
+    }
+
+    boolean isTarget(int node) {
+        return targetStamp[node] == generation;
+    }
+
+    // Distancia tentativa, infinita si el nodo aún no fue alcanzado
+    double distance(int node) {
+        return reachedStamp[node] == generation ? dist[node] : Double.MAX_VALUE;
+    }
+
+    void reach(int node, double distance, int parentNode, int viaEdge) {
+        reachedStamp[node] = generation;
+        dist[node] = distance;
+        parent[node] = parentNode;
+        parentEdge[node] = viaEdge;
+    }
+}
@@ -0,0 +1,264 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.ShortestPathResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Dijkstra sobre el grafo CSR sin reservar memoria por consulta: distancias,
+ * predecesores y el {@link IndexedMinHeap} viven en un {@link SearchScratch}
+ * por hilo, y el camino solo se reconstruye para el destino pedido.
+ * Las consultas punto a punto también pueden dirigirse al destino con A* o ALT.
+ */
+public final class ShortestPathEngine {
+
+    private final RoadGraph graph;
+    private final LandmarkIndex landmarks;
+
+    public ShortestPathEngine(RoadGraph graph) {
+        this(graph, null);
+    }
+
+    public ShortestPathEngine(RoadGraph graph, LandmarkIndex landmarks) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+    }
+
+    public ShortestPathResult shortestPath(int source, int target, Date simulationTime) {
+        return shortestPath(source, target, simulationTime, ShortestPathStrategy.DIJKSTRA);
+    }
+
+    /**
+     * Consulta punto a punto con la estrategia indicada. A* y ALT ordenan el
+     * montículo por costo + cota inferior hasta el destino; ambas cotas son
+     * consistentes, así que cada nodo se asienta una sola vez.
+     */
+    public ShortestPathResult shortestPath(int source, int target, Date simulationTime, ShortestPathStrategy strategy) {
+        long minute = BlockageIndex.toMinute(simulationTime);
+        if (strategy == ShortestPathStrategy.ALT && landmarks == null) {
+            throw new IllegalStateException("ALT requires a landmark index");
+        }
+        SearchScratch scratch = SearchScratch.acquire(graph.nodeCount());
+        IndexedMinHeap heap = scratch.heap;
+        scratch.reach(source, 0.0, -1, -1);
+        scratch.potential[source] = estimate(source, target, strategy);
+        heap.insertOrDecrease(source, scratch.potential[source]);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            scratch.settle(u);
+
+            if (u == target) {
+                return new ShortestPathResult(scratch.dist[u], buildPath(scratch, target));
+            }
+
+            double costU = scratch.dist[u];
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (!graph.isAvailable(e, minute)) {
+                    continue;
+                }
+                int v = graph.target(e);
+                if (scratch.isSettled(v)) {
+                    continue;
+                }
+                double newCost = costU + graph.cost(e);
+                if (!scratch.isReached(v)) {
+                    scratch.reach(v, newCost, u, e);
+                    scratch.potential[v] = estimate(v, target, strategy);
+                    heap.insertOrDecrease(v, newCost + scratch.potential[v]);
+                } else if (newCost < scratch.dist[v]) {
+                    scratch.reach(v, newCost, u, e);
+                    heap.insertOrDecrease(v, newCost + scratch.potential[v]);
+                }
+            }
+        }
+
+        return new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>());
+    }
+
+    /**
+     * Búsqueda de llegada más temprana dependiente del tiempo, de uno a muchos.
+     * Cada tramo se evalúa en el minuto en que el camión llega a su origen; si
+     * está bloqueado y reabre dentro de maxWaitMinutes, el camión espera. La
+     * espera conserva la propiedad FIFO, así que Dijkstra sobre el minuto de
+     * llegada es exacto. El costo devuelto son las horas transcurridas desde
+     * la salida, incluyendo esperas.
+     */
+    public ShortestPathResult[] earliestArrivals(int source, int[] targets, Date departureTime, double maxWaitMinutes) {
+        SearchScratch scratch = SearchScratch.acquire(graph.nodeCount());
+        IndexedMinHeap heap = scratch.heap;
+        BlockageIndex blockages = graph.blockages();
+        double departure = departureTime.getTime() / 60_000.0;
+        int pending = 0;
+        for (int target : targets) {
+            if (scratch.markTarget(target)) {
+                pending++;
+            }
+        }
+
+        scratch.reach(source, departure, -1, -1);
+        heap.insertOrDecrease(source, departure);
+
+        while (!heap.isEmpty() && pending > 0) {
+            int u = heap.poll();
+            scratch.settle(u);
+            if (scratch.isTarget(u)) {
+                pending--;
+            }
+
+            double arrivalU = scratch.dist[u];
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                if (scratch.isSettled(v)) {
+                    continue;
+                }
+                double leave = arrivalU;
+                if (blockages.isBlocked(e, arrivalU)) {
+                    leave = blockages.availableFrom(e, arrivalU);
+                    if (leave - arrivalU > maxWaitMinutes) {
+                        continue;
+                    }
+                }
+                double arrivalV = leave + graph.cost(e) * 60.0;
+                if (arrivalV < scratch.distance(v)) {
+                    scratch.reach(v, arrivalV, u, e);
+                    heap.insertOrDecrease(v, arrivalV);
+                }
+            }
+        }
+
+        ShortestPathResult[] results = new ShortestPathResult[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            int target = targets[i];
+            results[i] = scratch.isSettled(target)
+                    ? new ShortestPathResult((scratch.dist[target] - departure) / 60.0, buildPath(scratch, target))
+                    : new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>());
+        }
+        return results;
+    }
+
+    // Nodos asentados por la última búsqueda de este hilo
+    public int lastSettledCount() {
+        return SearchScratch.current().settledCount;
+    }
+
+    private double estimate(int node, int target, ShortestPathStrategy strategy) {
+        switch (strategy) {
+            case A_STAR:
+                return graph.straightLineKm(node, target) * graph.minCostPerKm();
+            case ALT:
+                return landmarks.lowerBound(node, target);
+            default:
+                return 0.0;
+        }
+    }
+
+    /**
+     * Búsqueda de uno a muchos: un solo Dijkstra desde el origen que se detiene
+     * cuando todos los destinos pedidos quedan asentados. El resultado i
+     * corresponde a targets[i]; los destinos inalcanzables tienen costo infinito
+     * y camino vacío.
+     */
+    public ShortestPathResult[] shortestPaths(int source, int[] targets, Date simulationTime) {
+        long minute = BlockageIndex.toMinute(simulationTime);
+        SearchScratch scratch = SearchScratch.acquire(graph.nodeCount());
+        IndexedMinHeap heap = scratch.heap;
+        int pending = 0;
+        for (int target : targets) {
+            if (scratch.markTarget(target)) {
+                pending++;
+            }
+        }
+
+        scratch.reach(source, 0.0, -1, -1);
+        heap.insertOrDecrease(source, 0.0);
+
+        while (!heap.isEmpty() && pending > 0) {
+            int u = heap.poll();
+            scratch.settle(u);
+            if (scratch.isTarget(u)) {
+                pending--;
+            }
+
+            double costU = scratch.dist[u];
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (!graph.isAvailable(e, minute)) {
+                    continue;
+                }
+                int v = graph.target(e);
+                if (scratch.isSettled(v)) {
+                    continue;
+                }
+                double newCost = costU + graph.cost(e);
+                if (newCost < scratch.distance(v)) {
+                    scratch.reach(v, newCost, u, e);
+                    heap.insertOrDecrease(v, newCost);
+                }
+            }
+        }
+
+        ShortestPathResult[] results = new ShortestPathResult[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            int target = targets[i];
+            results[i] = scratch.isSettled(target)
+                    ? new ShortestPathResult(scratch.dist[target], buildPath(scratch, target))
+                    : new ShortestPathResult(Double.MAX_VALUE, new ArrayList<>());
+        }
+        return results;
+    }
+
+    // Árbol completo de caminos más cortos desde el origen, en arreglos propios para poder guardarlo en caché
+    public DistanceRow shortestPathTree(int source, Date simulationTime) {
+        long minute = BlockageIndex.toMinute(simulationTime);
+        int nodeCount = graph.nodeCount();
+        SearchScratch scratch = SearchScratch.acquire(nodeCount);
+        IndexedMinHeap heap = scratch.heap;
+        double[] costs = new double[nodeCount];
+        int[] parents = new int[nodeCount];
+        Arrays.fill(costs, Double.MAX_VALUE);
+        Arrays.fill(parents, -1);
+
+        costs[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            scratch.settle(u);
+
+            double costU = costs[u];
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (!graph.isAvailable(e, minute)) {
+                    continue;
+                }
+                int v = graph.target(e);
+                if (scratch.isSettled(v)) {
+                    continue;
+                }
+                double newCost = costU + graph.cost(e);
+                if (newCost < costs[v]) {
+                    costs[v] = newCost;
+                    parents[v] = u;
+                    heap.insertOrDecrease(v, newCost);
+                }
+            }
+        }
+        return new DistanceRow(graph, source, costs, parents);
+    }
+
+    // Recorre los predecesores hacia atrás sobre el buffer del hilo y luego arma la lista en orden
+    private List<City> buildPath(SearchScratch scratch, int target) {
+        int[] buffer = scratch.pathBuffer;
+        int length = 0;
+        for (int node = target; node != -1; node = scratch.parent[node]) {
+            buffer[length++] = node;
+        }
+        List<City> path = new ArrayList<>(length);
+        for (int i = length - 1; i >= 0; i--) {
+            path.add(graph.city(buffer[i]));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,17 @@
+package com.odiparpack.transport_planning.routing;
+
+/**
+ * Estrategia con la que la red resuelve las consultas de camino más corto.
+ */
+public enum ShortestPathStrategy {
+    // Árboles completos por origen guardados en el caché por época de bloqueo
+    EPOCH_CACHE,
+    // Dijkstra punto a punto
+    DIJKSTRA,
+    // A* con la distancia Haversine por el menor costo por kilómetro como heurística
+    A_STAR,
+    // A* con cotas de landmarks por desigualdad triangular
+    ALT,
+    // Búsqueda bidireccional sobre la jerarquía de contracción personalizada por época
+    CONTRACTION_HIERARCHY
+}
@@ -0,0 +1,222 @@
+package com.odiparpack.transport_planning.routing;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Árbol k-d sobre las coordenadas de los nodos del grafo. Las coordenadas se
+ * proyectan a kilómetros (equirectangular, centrada en la latitud media de la
+ * red), así que la distancia euclídea del árbol sigue de cerca a la de
+ * Haversine a la escala de Perú. Se arma una vez con la red.
+ */
+public final class SpatialIndex {
+
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * GeoUtils.EARTH_RADIUS_KM;
+
+    // Nodos en orden de árbol implícito: la raíz de [lo, hi) está en (lo + hi) / 2
+    private final int[] tree;
+    private final double[] x;
+    private final double[] y;
+    private final double cosLatitude;
+
+    private SpatialIndex(int[] tree, double[] x, double[] y, double cosLatitude) {
+        this.tree = tree;
+        this.x = x;
+        this.y = y;
+        this.cosLatitude = cosLatitude;
+    }
+
+    public static SpatialIndex build(RoadGraph graph) {
+        int n = graph.nodeCount();
+        double meanLatitude = 0;
+        for (int v = 0; v < n; v++) {
+            meanLatitude += graph.latitude(v);
+        }
+        double cosLatitude = Math.cos(Math.toRadians(n == 0 ? 0 : meanLatitude / n));
+
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] tree = new int[n];
+        for (int v = 0; v < n; v++) {
+            x[v] = graph.longitude(v) * KM_PER_DEGREE * cosLatitude;
+            y[v] = graph.latitude(v) * KM_PER_DEGREE;
+            tree[v] = v;
+        }
+        SpatialIndex index = new SpatialIndex(tree, x, y, cosLatitude);
+        index.split(0, n, 0);
+        return index;
+    }
+
+    /**
+     * Hasta k nodos aceptados por el filtro más cercanos al nodo dado (él
+     * incluido si el filtro lo acepta), ordenados por distancia.
+     */
+    public int[] nearest(int node, int k, IntPredicate accept) {
+        return nearestProjected(x[node], y[node], k, accept);
+    }
+
+    // Lo mismo para un punto cualquiera dado en grados
+    public int[] nearestTo(double latitude, double longitude, int k, IntPredicate accept) {
+        return nearestProjected(longitude * KM_PER_DEGREE * cosLatitude, latitude * KM_PER_DEGREE, k, accept);
+    }
+
+    private int[] nearestProjected(double qx, double qy, int k, IntPredicate accept) {
+        if (k <= 0 || tree.length == 0) {
+            return new int[0];
+        }
+        Candidates candidates = new Candidates(k);
+        search(0, tree.length, 0, qx, qy, accept, candidates);
+        return candidates.sorted();
+    }
+
+    private void search(int lo, int hi, int depth, double qx, double qy, IntPredicate accept, Candidates candidates) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int node = tree[mid];
+        if (accept.test(node)) {
+            double dx = x[node] - qx;
+            double dy = y[node] - qy;
+            candidates.offer(node, dx * dx + dy * dy);
+        }
+
+        double diff = depth % 2 == 0 ? qx - x[node] : qy - y[node];
+        // Primero el lado de la consulta; el otro solo si el plano de corte está más cerca que el peor candidato
+        if (diff < 0) {
+            search(lo, mid, depth + 1, qx, qy, accept, candidates);
+            if (diff * diff < candidates.worst()) {
+                search(mid + 1, hi, depth + 1, qx, qy, accept, candidates);
+            }
+        } else {
+            search(mid + 1, hi, depth + 1, qx, qy, accept, candidates);
+            if (diff * diff < candidates.worst()) {
+                search(lo, mid, depth + 1, qx, qy, accept, candidates);
+            }
+        }
+    }
+
+    // Deja en tree[(lo + hi) / 2] la mediana del eje y a cada lado sus subárboles
+    private void split(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        double[] axis = depth % 2 == 0 ? x : y;
+        int mid = (lo + hi) >>> 1;
+        select(axis, lo, hi - 1, mid);
+        split(lo, mid, depth + 1);
+        split(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect: tree[k] queda con el k-ésimo menor valor del eje en [lo, hi]
+    private void select(double[] axis, int lo, int hi, int k) {
+        while (lo < hi) {
+            double pivot = axis[tree[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (axis[tree[i]] < pivot) {
+                    i++;
+                }
+                while (axis[tree[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = tree[i];
+                    tree[i++] = tree[j];
+                    tree[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Los k mejores vistos hasta ahora, en un max-heap por distancia al cuadrado
+    private static final class Candidates {
+        private final int[] nodes;
+        private final double[] distances;
+        private int size;
+
+        Candidates(int k) {
+            this.nodes = new int[k];
+            this.distances = new double[k];
+        }
+
+        double worst() {
+            return size < nodes.length ? Double.MAX_VALUE : distances[0];
+        }
+
+        void offer(int node, double distance) {
+            if (size < nodes.length) {
+                nodes[size] = node;
+                distances[size] = distance;
+                siftUp(size++);
+            } else if (distance < distances[0]) {
+                nodes[0] = node;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        int[] sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            // Empates por id de nodo para que el resultado sea determinista
+            Arrays.sort(order, (a, b) -> distances[a] != distances[b]
+                    ? Double.compare(distances[a], distances[b])
+                    : Integer.compare(nodes[a], nodes[b]));
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = nodes[order[i]];
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && distances[left] > distances[largest]) {
+                    largest = left;
+                }
+                if (right < size && distances[right] > distances[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int node = nodes[a];
+            nodes[a] = nodes[b];
+            nodes[b] = node;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        }
+    }
+}
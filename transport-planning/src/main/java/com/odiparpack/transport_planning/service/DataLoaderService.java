@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.odiparpack.transport_planning.repository.*;
 import com.odiparpack.transport_planning.model.*;
+import com.odiparpack.transport_planning.routing.GeoUtils;
+import com.odiparpack.transport_planning.simulation.TruckIncident;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
@@ -140,22 +142,8 @@ public class DataLoaderService {
      * @return The distance in kilometers.
      */
     private double calculateDistance(City origin, City destination) {
-        double lat1 = origin.getLatitude();
-        double lon1 = origin.getLongitude();
-        double lat2 = destination.getLatitude();
-        double lon2 = destination.getLongitude();
-
-        // Haversine formula
-        final int R = 6371; // Radius of the Earth in kilometers
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                 + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                 * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = R * c;
-
-        return distance;
+        return GeoUtils.haversineKm(origin.getLatitude(), origin.getLongitude(),
+                destination.getLatitude(), destination.getLongitude());
     }
 
     /**
@@ -165,20 +153,7 @@ public class DataLoaderService {
      * @return The speed limit in km/h.
      */
     private double getSpeedLimit(String region1, String region2) {
-        // Define speed limits based on regions
-        if (region1.equalsIgnoreCase("COSTA") && region2.equalsIgnoreCase("COSTA"))
-            return 70.0;
-        if ((region1.equalsIgnoreCase("COSTA") && region2.equalsIgnoreCase("SIERRA")) ||
-            (region1.equalsIgnoreCase("SIERRA") && region2.equalsIgnoreCase("COSTA")))
-            return 50.0;
-        if (region1.equalsIgnoreCase("SIERRA") && region2.equalsIgnoreCase("SIERRA"))
-            return 60.0;
-        if ((region1.equalsIgnoreCase("SIERRA") && region2.equalsIgnoreCase("SELVA")) ||
-            (region1.equalsIgnoreCase("SELVA") && region2.equalsIgnoreCase("SIERRA")))
-            return 55.0;
-        if (region1.equalsIgnoreCase("SELVA") && region2.equalsIgnoreCase("SELVA"))
-            return 65.0;
-        return 50.0; // Default speed limit
+        return GeoUtils.speedLimit(region1, region2);
     }
 
     /**
@@ -375,6 +350,23 @@ public class DataLoaderService {
     }
 
     public void loadMaintenanceSchedule(String filePath) {
+        for (TruckIncident maintenance : readMaintenanceSchedule(filePath)) {
+            Truck truck = truckRepository.findById(maintenance.getTruckCode()).orElse(null);
+            if (truck != null) {
+                truck.setUnderMaintenance(true);
+                truck.setMaintenanceStartTime(maintenance.getStart());
+                truck.setMaintenanceEndTime(maintenance.getEnd());
+                truckRepository.save(truck);
+            }
+        }
+    }
+
+    /**
+     * Reads the maintenance plan without touching the trucks; each maintenance lasts 2 days.
+     * @param filePath Path to the maintenance plan file.
+     */
+    public List<TruckIncident> readMaintenanceSchedule(String filePath) {
+        List<TruckIncident> maintenances = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = br.readLine()) != null) {
@@ -388,18 +380,14 @@ public class DataLoaderService {
                 cal.setTime(maintenanceStartDate);
                 cal.add(Calendar.DAY_OF_MONTH, 2);
                 Date maintenanceEndDate = cal.getTime();
-    
-                Truck truck = truckRepository.findById(truckCode).orElse(null);
-                if (truck != null) {
-                    truck.setUnderMaintenance(true);
-                    truck.setMaintenanceStartTime(maintenanceStartDate);
-                    truck.setMaintenanceEndTime(maintenanceEndDate);
-                    truckRepository.save(truck);
-                }
+
+                maintenances.add(new TruckIncident(TruckIncident.Kind.MAINTENANCE, truckCode,
+                        maintenanceStartDate, maintenanceEndDate, 0));
             }
         } catch (IOException | ParseException e) {
             e.printStackTrace();
         }
+        return maintenances;
     }
     
     public void loadBlockages() {
@@ -506,6 +494,31 @@ public class DataLoaderService {
      * @param filePath The path to the breakdown schedule file.
      */
     public void loadScheduledBreakdowns(String filePath) {
+        for (TruckIncident breakdown : readScheduledBreakdowns(filePath)) {
+            // Find the truck by its code
+            Truck truck = truckRepository.findById(breakdown.getTruckCode()).orElse(null);
+            if (truck != null) {
+                // Set the truck's breakdown details
+                truck.setBrokenDown(true);
+                truck.setBreakdownType(breakdown.getBreakdownType());
+                truck.setBreakdownStartTime(breakdown.getStart());
+                truck.setBreakdownEndTime(breakdown.getEnd());
+                truckRepository.save(truck);
+
+                logger.info("Scheduled breakdown for truck {} from {} to {} with type {}", 
+                    breakdown.getTruckCode(), breakdown.getStart(), breakdown.getEnd(), breakdown.getBreakdownType());
+            } else {
+                logger.warn("Truck with code {} not found", breakdown.getTruckCode());
+            }
+        }
+    }
+
+    /**
+     * Reads the scheduled breakdowns without touching the trucks.
+     * @param filePath Path to the breakdowns file.
+     */
+    public List<TruckIncident> readScheduledBreakdowns(String filePath) {
+        List<TruckIncident> breakdowns = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = br.readLine()) != null) {
@@ -529,24 +542,12 @@ public class DataLoaderService {
                 cal.add(Calendar.DAY_OF_MONTH, 2);
                 Date breakdownEndDate = cal.getTime();
 
-                // Find the truck by its code
-                Truck truck = truckRepository.findById(truckCode).orElse(null);
-                if (truck != null) {
-                    // Set the truck's breakdown details
-                    truck.setBrokenDown(true);
-                    truck.setBreakdownType(breakdownType);
-                    truck.setBreakdownStartTime(breakdownStartDate);
-                    truck.setBreakdownEndTime(breakdownEndDate);
-                    truckRepository.save(truck);
-
-                    logger.info("Scheduled breakdown for truck {} from {} to {} with type {}", 
-                        truckCode, breakdownStartDate, breakdownEndDate, breakdownType);
-                } else {
-                    logger.warn("Truck with code {} not found", truckCode);
-                }
+                breakdowns.add(new TruckIncident(TruckIncident.Kind.BREAKDOWN, truckCode,
+                        breakdownStartDate, breakdownEndDate, breakdownType));
             }
         } catch (IOException | ParseException e) {
             logger.error("Error loading scheduled breakdowns", e);
         }
+        return breakdowns;
     }
 }
@@ -1,67 +1,130 @@
 package com.odiparpack.transport_planning.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.odiparpack.transport_planning.repository.*;
 import com.odiparpack.transport_planning.model.*;
+import com.odiparpack.transport_planning.routing.EpochDistanceCache;
+import com.odiparpack.transport_planning.solver.CancellationToken;
+import com.odiparpack.transport_planning.solver.DepotDecomposition;
+import com.odiparpack.transport_planning.solver.Incumbent;
+import com.odiparpack.transport_planning.solver.InitialConstruction;
+import com.odiparpack.transport_planning.solver.IntraRouteSearch;
+import com.odiparpack.transport_planning.solver.IslandSolver;
+import com.odiparpack.transport_planning.solver.IslandStats;
+import com.odiparpack.transport_planning.solver.PlanEvaluation;
+import com.odiparpack.transport_planning.solver.PlanState;
+import com.odiparpack.transport_planning.solver.Solution;
+import com.odiparpack.transport_planning.solver.SolverContext;
+import com.odiparpack.transport_planning.solver.SolverSettings;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.text.SimpleDateFormat;
 
 @Service
 public class GLSAlgorithmService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GLSAlgorithmService.class);
+
     @Autowired
     private TransportationPlanRepository transportationPlanRepository;
 
-    private Map<RoadSegment, Integer> penalties;
-    private double lambda;
-    private RoadNetwork roadNetwork;
+    @Autowired
+    private RoadNetworkProvider roadNetworkProvider;
 
-    public void runGLS(List<City> cities, List<RoadSegment> roadSegments, List<Truck> trucks, List<PackageOrder> packages, Date simulationStartTime) {
-        
-        penalties = new HashMap<>();
-        lambda = calculateLambda(roadSegments);
-        roadNetwork = new RoadNetwork();
+    // Máximo de iteraciones por isla; 0 sin límite
+    @Value("${planning.gls.max-iterations:1000}")
+    private int maxIterations;
 
-        // Construir la red de carreteras
-        buildRoadNetwork(cities, roadSegments);
+    @Value("${planning.gls.initial-temperature:1000}")
+    private double initialTemperature;
 
-        // Solución inicial
-        List<TransportationPlan> currentSolution = generateInitialSolution(trucks, packages, simulationStartTime, roadSegments);
-        List<TransportationPlan> bestSolution = new ArrayList<>(currentSolution);
-        double bestTime = calculateTotalDeliveryTime(bestSolution, roadSegments, simulationStartTime);
-    
-        // Parámetros de Simulated Annealing
-        double temperature = 1000; // Temperatura inicial
-        double coolingRate = 0.995; // Tasa de enfriamiento
-        int maxIterations = 1000;
-        int iteration = 0;
-    
-        // GLS con Simulated Annealing
-        while (iteration < maxIterations && temperature > 1) {
-            // Búsqueda local
-            List<TransportationPlan> newSolution = localSearch(currentSolution, simulationStartTime, roadSegments);
-            double newTime = calculateTotalDeliveryTime(newSolution, roadSegments, simulationStartTime);
-    
-            // Comparar con la mejor solución
-            if (acceptSolution(newTime, bestTime, temperature)) {
-                currentSolution = newSolution;
-                if (newTime < bestTime) {
-                    bestSolution = new ArrayList<>(newSolution);
-                    bestTime = newTime;
-                }
-            }
-    
-            // Reducir la temperatura
-            temperature *= coolingRate;
-            iteration++;
-    
-            // Actualizar penalizaciones (GLS)
-            updatePenalties(newSolution, roadSegments);
+    @Value("${planning.gls.cooling-rate:0.995}")
+    private double coolingRate;
+
+    // Hilos del vecindario paralelo; 0 usa todos los procesadores disponibles
+    @Value("${planning.gls.parallelism:0}")
+    private int parallelism;
+
+    @Value("${planning.gls.seed:42}")
+    private long seed;
+
+    // Cadenas independientes del modelo de islas; 0 usa una por procesador
+    @Value("${planning.gls.islands:1}")
+    private int islands;
+
+    @Value("${planning.gls.migration-interval:50}")
+    private int migrationInterval;
+
+    // Presupuesto de tiempo compartido por las islas; 0 sin límite
+    @Value("${planning.gls.time-budget-ms:0}")
+    private long timeBudgetMillis;
+
+    // Iteraciones seguidas sin mejora tras las que una isla se detiene; 0 sin límite
+    @Value("${planning.gls.no-improvement-iterations:0}")
+    private int noImprovementIterations;
+
+    // Costo con el que basta para detener la búsqueda; vacío para no usarlo
+    @Value("${planning.gls.target-objective:}")
+    private String targetObjective;
+
+    // Destinos cercanos (árbol k-d de ciudades) con los que se combina cada entrega; 0 prueba todos los pares
+    @Value("${planning.gls.candidate-neighbours:8}")
+    private int candidateNeighbours;
+
+    // Pasadas de 2-opt / Or-opt sobre las paradas de cada ruta; 0 deja el orden del vecino más cercano
+    @Value("${planning.gls.intra-route-passes:50}")
+    private int intraRoutePasses;
+
+    // Resolver cada depósito en su propio hilo y reparar la frontera con una búsqueda global corta
+    @Value("${planning.gls.decompose-by-depot:false}")
+    private boolean decomposeByDepot;
+
+    @Value("${planning.gls.repair-iterations:100}")
+    private int repairIterations;
+
+    // Operadores de remoción/reparación (ALNS) con pesos adaptativos junto al vecindario de intercambios
+    @Value("${planning.gls.adaptive-operators:false}")
+    private boolean adaptiveOperators;
+
+    @Value("${planning.gls.removal-fraction:0.15}")
+    private double removalFraction;
+
+    // Saltar los pares de camiones cuyos planes no cambiaron desde que se revisaron sin mejoras
+    @Value("${planning.gls.dont-look-bits:false}")
+    private boolean dontLookBits;
+
+    // Movimientos puntuados que guarda el caché de cada isla (LRU); 0 lo desactiva
+    @Value("${planning.gls.move-cache-entries:4096}")
+    private int moveCacheEntries;
+
+    // El token permite detener la búsqueda desde otro hilo y el incumbente leer su mejor solución mientras
+    // sigue; al cancelar se guarda la mejor solución hallada hasta entonces
+    public void runGLS(List<City> cities, List<RoadSegment> roadSegments, List<Truck> trucks, List<PackageOrder> packages,
+                       Date simulationStartTime, CancellationToken cancellationToken, Incumbent incumbent) {
+        // El presupuesto corre desde que llega la solicitud: incluye armar la red y la solución inicial
+        SolverSettings settings = defaultSettings(roadSegments);
+        long deadline = settings.deadlineFromNow();
+
+        // Red compartida: solo se reconstruye si cambiaron los tramos o los bloqueos
+        NetworkSnapshot snapshot = roadNetworkProvider.acquire(cities, roadSegments);
+        RoadNetwork roadNetwork = snapshot.getNetwork();
+
+        // Todo el estado de esta ejecución vive en el contexto; el servicio no guarda nada entre llamadas
+        SolverContext context = new SolverContext(roadNetwork, snapshot.getVersion(), simulationStartTime, settings,
+                cancellationToken, incumbent, deadline);
+
+        IslandSolver.Result result = solve(context, trucks, packages);
+        // Las entidades se arman una sola vez, al final, a partir de la mejor solución del solver
+        List<TransportationPlan> bestSolution = result.getBestSolution().toTransportationPlans();
+        double bestTime = result.getBestCost();
+        for (IslandStats stats : result.getIslandStats()) {
+            System.out.println(stats);
+            stats.getOperatorStats().forEach(System.out::println);
         }
-        System.out.println("Max iterations: " + iteration);
     
         // Guardar la mejor solución encontrada
         for (TransportationPlan plan : bestSolution) {
@@ -70,16 +133,70 @@ public class GLSAlgorithmService {
     
         // Mostrar la solución final
         System.out.println("Best solution total time: " + bestTime);
-        printSolution(bestSolution, roadSegments);
+        EpochDistanceCache distanceCache = roadNetwork.getDistanceCache();
+        logger.info("Distance cache: {} hits, {} misses ({}% hit rate)", distanceCache.getHits(),
+                distanceCache.getMisses(), String.format("%.1f", distanceCache.getHitRate() * 100));
+        printSolution(roadNetwork, simulationStartTime, bestSolution);
     }
 
-    // Construir la red de carreteras
-    private void buildRoadNetwork(List<City> cities, List<RoadSegment> roadSegments) {
-        for (RoadSegment segment : roadSegments) {
-            roadNetwork.addRoadSegment(segment.getOrigin(), segment.getDestination(), segment);
+    // Parámetros del solver según la configuración; el llamador puede ajustar una copia
+    public SolverSettings defaultSettings(List<RoadSegment> roadSegments) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        SolverSettings settings = new SolverSettings();
+        settings.setMaxIterations(maxIterations);
+        settings.setInitialTemperature(initialTemperature);
+        settings.setCoolingRate(coolingRate);
+        settings.setLambda(calculateLambda(roadSegments));
+        settings.setSeed(seed);
+        settings.setParallelism(parallelism > 0 ? parallelism : processors);
+        settings.setIslands(islands > 0 ? islands : processors);
+        settings.setMigrationInterval(migrationInterval);
+        settings.setTimeBudgetMillis(timeBudgetMillis);
+        settings.setNoImprovementIterations(noImprovementIterations);
+        settings.setIntraRoutePasses(intraRoutePasses);
+        settings.setCandidateNeighbours(candidateNeighbours);
+        settings.setDecomposeByDepot(decomposeByDepot);
+        settings.setRepairIterations(repairIterations);
+        settings.setAdaptiveOperators(adaptiveOperators);
+        settings.setRemovalFraction(removalFraction);
+        settings.setDontLookBits(dontLookBits);
+        settings.setMoveCacheEntries(moveCacheEntries);
+        if (!targetObjective.isBlank()) {
+            settings.setTargetObjective(Double.parseDouble(targetObjective));
         }
+        settings.validate();
+        return settings;
+    }
+
+    // Planificación sin imprimir ni guardar nada, para quien la invoca repetidamente (la simulación)
+    public IslandSolver.Result plan(List<City> cities, List<RoadSegment> roadSegments, List<Truck> trucks,
+                                   List<PackageOrder> packages, Date startTime, SolverSettings settings,
+                                   CancellationToken cancellationToken, Incumbent incumbent) {
+        long deadline = settings.deadlineFromNow();
+        NetworkSnapshot snapshot = roadNetworkProvider.acquire(cities, roadSegments);
+        SolverContext context = new SolverContext(snapshot.getNetwork(), snapshot.getVersion(), startTime, settings,
+                cancellationToken, incumbent, deadline);
+        return solve(context, trucks, packages);
     }
 
+    private IslandSolver.Result solve(SolverContext context, List<Truck> trucks, List<PackageOrder> packages) {
+        if (context.getSettings().isDecomposeByDepot()) {
+            // Un subproblema por depósito, cada uno con su solución inicial y su GLS
+            DepotDecomposition decomposition = new DepotDecomposition(context,
+                    (depotTrucks, depotPackages) -> generateInitialSolution(context, depotTrucks, depotPackages),
+                    (truck, deliveries) -> buildPlan(context, truck, deliveries),
+                    plan -> evaluatePlan(context, plan));
+            return decomposition.solve(trucks, packages);
+        }
+        // Solución inicial
+        Solution initialSolution = generateInitialSolution(context, trucks, packages);
+
+        // GLS con Simulated Annealing, en una o varias islas
+        IslandSolver solver = new IslandSolver(context,
+                (truck, deliveries) -> buildPlan(context, truck, deliveries),
+                plan -> evaluatePlan(context, plan));
+        return solver.solve(initialSolution);
+    }
 
     private double calculateLambda(List<RoadSegment> roadSegments) {
         double totalCost = 0;
@@ -89,139 +206,126 @@ public class GLSAlgorithmService {
         return 0.1 * (totalCost / roadSegments.size());
     }
 
-    private boolean acceptSolution(double newTime, double currentTime, double temperature) {
-        if (newTime < currentTime) {
-            return true; // Aceptar una mejor solución
-        }
-        // Aceptar una solución peor con cierta probabilidad
-        return Math.random() < Math.exp((currentTime - newTime) / temperature);
-    }
-
-    private void updatePenalties(List<TransportationPlan> solution, List<RoadSegment> roadSegments) {
-        List<RoadSegment> overusedSegments = identifyOverusedSegments(solution, roadSegments);
-        
-        for (RoadSegment rs : overusedSegments) {
-            int currentPenalty = penalties.getOrDefault(rs, 0);
-            penalties.put(rs, currentPenalty + 1); // Aumentar la penalización en los segmentos sobreutilizados
-        }
-    }
-
-    private List<RoadSegment> identifyOverusedSegments(List<TransportationPlan> solution, List<RoadSegment> roadSegments) {
-        Map<RoadSegment, Integer> segmentUsage = new HashMap<>();
-
-        for (TransportationPlan tp : solution) {
-            List<City> route = tp.getRoute();
-            for (int i = 0; i < route.size() - 1; i++) {
-                City origin = route.get(i);
-                City destination = route.get(i + 1);
-                RoadSegment rs = findRoadSegment(roadSegments, origin, destination);
-                if (rs != null) {
-                    segmentUsage.put(rs, segmentUsage.getOrDefault(rs, 0) + 1);
-                }
-            }
+    // Método que genera la solución inicial, considerando bloqueos, mantenimientos y averías.
+    // Inserción con arrepentimiento sobre los camiones de cada depósito; ver InitialConstruction.
+    private Solution generateInitialSolution(SolverContext context, List<Truck> trucks, List<PackageOrder> packages) {
+        InitialConstruction construction = new InitialConstruction(context,
+                (truck, deliveries) -> buildPlan(context, truck, deliveries));
+        Solution solution = construction.build(trucks, packages);
+        List<PackageOrder> unassigned = construction.getUnassigned();
+        if (!unassigned.isEmpty()) {
+            int quantity = unassigned.stream().mapToInt(PackageOrder::getQuantity).sum();
+            logger.warn("{} orders ({} packages) did not fit in any truck: {}", unassigned.size(), quantity,
+                    unassigned.stream().map(PackageOrder::getOrderId).toList());
         }
-
-        int usageThreshold = 1; // Ajusta este umbral si es necesario
-        return segmentUsage.entrySet().stream()
-                .filter(entry -> entry.getValue() > usageThreshold)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return solution;
     }
 
-    // Método que genera la solución inicial, considerando bloqueos, mantenimientos y averías
-    private List<TransportationPlan> generateInitialSolution(List<Truck> trucks, List<PackageOrder> packages, Date simulationStartTime, List<RoadSegment> roadSegments) {
-        List<TransportationPlan> plans = new ArrayList<>();
-
-        packages.sort(Comparator.comparing(PackageOrder::getDeliveryDeadline));
-
-        for (Truck truck : trucks) {
-            // Verificar si el camión está disponible (sin mantenimiento ni averías)
-            if (!truck.isAvailable() || !truck.isOperational(simulationStartTime)) continue;
-
-            List<PackageOrder> assignedPackages = new ArrayList<>();
-            int remainingCapacity = truck.getCapacity();
-
-             Iterator<PackageOrder> pkgIterator = packages.iterator();
-            while (pkgIterator.hasNext()) {
-                PackageOrder pkg = pkgIterator.next();
-                int pkgQuantity = pkg.getQuantity();
-
-                // Asignar paquetes según la capacidad del camión
-                if (remainingCapacity >= pkgQuantity) {
-                    assignedPackages.add(pkg);
-                    remainingCapacity -= pkgQuantity;
-                    pkgIterator.remove();
-                } else if (remainingCapacity > 0) {
-                    // Asignación parcial
-                    PackageOrder partialPkg = new PackageOrder();
-                    partialPkg.setOrderId(pkg.getOrderId());
-                    partialPkg.setQuantity(remainingCapacity);
-                    partialPkg.setDestination(pkg.getDestination());
-                    partialPkg.setOrderDate(pkg.getOrderDate());
-                    partialPkg.setDeliveryDeadline(pkg.getDeliveryDeadline());
-
-                    assignedPackages.add(partialPkg);
-                    pkg.setQuantity(pkgQuantity - remainingCapacity);
-                    remainingCapacity = 0;
-                }
-
-                if (remainingCapacity == 0) break;
-            }
-
-            if (!assignedPackages.isEmpty()) {
-                List<City> route = planRouteUsingNetwork(truck.getCurrentLocation(), assignedPackages, simulationStartTime, roadSegments);
-
-                TransportationPlan plan = new TransportationPlan();
-                plan.setTruck(truck);
-                plan.setRoute(route);
-                plan.setDeliveries(assignedPackages);
-                plans.add(plan);
-            }
+    // Planificar la ruta utilizando la red de carreteras y considerando bloqueos. El vecino más cercano
+    // fija un primer orden de paradas; cada búsqueda apunta a todas las paradas, así que de paso arma
+    // la matriz parada a parada con la que 2-opt y Or-opt reordenan el recorrido sin más búsquedas.
+    private PlanState planRouteUsingNetwork(SolverContext context, Truck truck, List<PackageOrder> packages) {
+        RoadNetwork roadNetwork = context.getNetwork();
+        City startLocation = truck.getCurrentLocation();
+        Set<City> targets = new LinkedHashSet<>();
+        targets.add(startLocation);
+        for (PackageOrder pkg : packages) {
+            targets.add(pkg.getDestination());
         }
 
-        return plans;
-    }
-
-    // Planificar la ruta utilizando la red de carreteras y considerando bloqueos
-    private List<City> planRouteUsingNetwork(City startLocation, List<PackageOrder> packages, Date simulationStartTime, List<RoadSegment> roadSegments) {
-        List<City> route = new ArrayList<>();
-        route.add(startLocation);
+        List<City> stops = new ArrayList<>();
+        stops.add(startLocation);
+        // rows.get(i): caminos desde stops.get(i) hacia todas las paradas
+        List<Map<City, ShortestPathResult>> rows = new ArrayList<>();
         City currentCity = startLocation;
+        // Hora a la que el camión sale de la ciudad actual; los bloqueos se evalúan al llegar a cada tramo
+        Date currentTime = new Date(context.getSimulationStartTime().getTime());
         List<PackageOrder> remainingPackages = new ArrayList<>(packages);
     
         while (!remainingPackages.isEmpty()) {
-            PackageOrder nextPackage = findNearestPackageUsingNetwork(currentCity, remainingPackages, simulationStartTime, roadSegments);
+            // Una sola búsqueda por parada, hacia todos los destinos
+            if (rows.size() < stops.size()) {
+                rows.add(roadNetwork.calculateEarliestArrivals(currentCity, targets, currentTime));
+            }
+            Map<City, ShortestPathResult> paths = rows.get(rows.size() - 1);
+            PackageOrder nextPackage = findNearestPackageUsingNetwork(remainingPackages, paths);
             if (nextPackage == null) {
                 break;
             }
     
             City nextCity = nextPackage.getDestination();
-            ShortestPathResult pathResult = calculateShortestPathDistance(currentCity, nextCity, simulationStartTime);
-            
-            // Asegurarse de agregar todas las ciudades intermedias de la ruta
-            route.addAll(pathResult.getPath().subList(1, pathResult.getPath().size()));
-            currentCity = nextCity;
-            remainingPackages.remove(nextPackage);
+            // Los paquetes de una misma ciudad se entregan en la misma parada
+            remainingPackages.removeIf(pkg -> pkg.getDestination().equals(nextCity));
+            if (!nextCity.equals(currentCity)) {
+                // Sale de la parada después de la espera por la entrega, como en la línea de tiempo del plan
+                currentTime = new Date(currentTime.getTime() + (long) (paths.get(nextCity).getCost() * 3600 * 1000)
+                        + truck.getWaitTimeAfterDelivery());
+                currentCity = nextCity;
+                stops.add(nextCity);
+            }
         }
     
-        // Retornar a la ubicación inicial si es necesario
-        if (!currentCity.equals(startLocation)) {
-            ShortestPathResult returnPath = calculateShortestPathDistance(currentCity, startLocation, simulationStartTime);
-            route.addAll(returnPath.getPath().subList(1, returnPath.getPath().size()));
+        if (stops.size() == 1) {
+            return new PlanState(truck, packages, new ArrayList<>(stops));
+        }
+        // La fila de la última parada incluye la vuelta a la ubicación inicial
+        if (rows.size() < stops.size()) {
+            rows.add(roadNetwork.calculateEarliestArrivals(currentCity, targets, currentTime));
+        }
+
+        int[] order = new int[stops.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        PlanState plan = new PlanState(truck, packages, stitchRoute(stops, rows, order));
+        int passes = context.getSettings().getIntraRoutePasses();
+        if (passes > 0 && stops.size() > 2) {
+            // Aproximación: la matriz es estática, con las horas de cada fila calculadas a la salida que tenía esa
+            // parada en el orden del vecino más cercano, y 2-opt / Or-opt minimizan horas totales sin mirar fechas
+            // límite. Al reordenar, los bloqueos y la tardanza pueden cambiar, así que el orden mejorado solo
+            // reemplaza al del vecino más cercano si evaluatePlan, con su propio reloj, no lo cobra más caro.
+            // Cada plan se evalúa una vez: el elegido ya lleva su evaluación para quien llamó a buildPlan.
+            double[][] cost = new double[stops.size()][stops.size()];
+            for (int i = 0; i < stops.size(); i++) {
+                for (int j = 0; j < stops.size(); j++) {
+                    double hours = rows.get(i).get(stops.get(j)).getCost();
+                    cost[i][j] = hours == Double.MAX_VALUE ? IntraRouteSearch.UNREACHABLE : hours;
+                }
+            }
+            int[] improved = IntraRouteSearch.improve(cost, order, passes);
+            if (!Arrays.equals(improved, order)) {
+                PlanState reordered = new PlanState(truck, packages, stitchRoute(stops, rows, improved));
+                if (evaluatePlan(context, reordered).getBaseCost() <= evaluatePlan(context, plan).getBaseCost()) {
+                    plan = reordered;
+                }
+            }
+        }
+        return plan;
+    }
+
+    // Asegurarse de agregar todas las ciudades intermedias de la ruta, con la vuelta al final
+    private List<City> stitchRoute(List<City> stops, List<Map<City, ShortestPathResult>> rows, int[] order) {
+        List<City> route = new ArrayList<>();
+        route.add(stops.get(0));
+        for (int k = 0; k < order.length; k++) {
+            int from = order[k];
+            int to = order[(k + 1) % order.length];
+            List<City> path = rows.get(from).get(stops.get(to)).getPath();
+            if (!path.isEmpty()) {
+                route.addAll(path.subList(1, path.size()));
+            }
         }
-    
         return route;
     }
     
     
-    // Encontrar el paquete más cercano utilizando la red de carreteras, considerando bloqueos
-    private PackageOrder findNearestPackageUsingNetwork(City currentCity, List<PackageOrder> packages, Date simulationStartTime, List<RoadSegment> roadSegments) {
+    // Encontrar el paquete más cercano a partir de los caminos ya calculados desde la ciudad actual
+    private PackageOrder findNearestPackageUsingNetwork(List<PackageOrder> packages, Map<City, ShortestPathResult> paths) {
         PackageOrder nearestPackage = null;
         double minDistance = Double.MAX_VALUE;
     
         for (PackageOrder pkg : packages) {
-            City destination = pkg.getDestination();
-            double distance = calculateShortestPathDistance(currentCity, destination, simulationStartTime).getCost();
+            double distance = paths.get(pkg.getDestination()).getCost();
     
             // Validación adicional: si no se encuentra un camino, omitir el paquete
             if (distance == Double.MAX_VALUE) {
@@ -237,176 +341,88 @@ public class GLSAlgorithmService {
         return nearestPackage;
     }
     
-    
-
-    // Cálculo del camino más corto utilizando la red de carreteras y verificando bloqueos
-    private ShortestPathResult calculateShortestPathDistance(City origin, City destination, Date simulationStartTime) {
-        ShortestPathResult shortestPathResult = roadNetwork.calculateShortestPathCost(origin, destination, simulationStartTime);
-        return shortestPathResult;
-    }
-    
-
-
-    // Calcular el tiempo total de entrega considerando bloqueos, penalizaciones y fechas límite
-    private double calculateTotalDeliveryTime(List<TransportationPlan> solution, List<RoadSegment> roadSegments, Date simulationStartTime) {
-        double totalTime = 0.0;
-
-        for (TransportationPlan tp : solution) {
-            List<City> route = tp.getRoute();
-            Date currentTime = new Date(simulationStartTime.getTime());
-
-            for (int i = 0; i < route.size() - 1; i++) {
-                City origin = route.get(i);
-                City destination = route.get(i + 1);
-                RoadSegment rs = findRoadSegment(roadSegments, origin, destination);
-                if (rs != null && rs.isAvailableAt(currentTime)) { // Verificar bloqueos
-                    double time = rs.getDistance() / rs.getSpeedLimit();
-                    int penalty = penalties.getOrDefault(rs, 0);
-                    totalTime += time + lambda * penalty;
-                } else {
-                    // Si la carretera está bloqueada, aplicar penalización o buscar alternativa
-                    totalTime += 10000; // Penalización arbitraria por carretera bloqueada
-                }
-            }
-
-            // Penalización por entregas tardías
-            for (PackageOrder pkg : tp.getDeliveries()) {
-                Date estimatedDeliveryTime = estimateDeliveryTime(tp, pkg, simulationStartTime, roadSegments);
-                if (estimatedDeliveryTime.after(pkg.getDeliveryDeadline())) {
-                    totalTime += 10000 * (estimatedDeliveryTime.getTime() - pkg.getDeliveryDeadline().getTime()) / (1000 * 60 * 60);
-                }
-            }
+    // Tiempo de entrega de un plan considerando bloqueos y fechas límite; los tramos recorridos
+    // se devuelven aparte para que SolutionCost sume lambda * penalización. El reloj es la línea de
+    // tiempo del plan, con la espera del camión en cada entrega, la misma que reproduce la simulación.
+    // El plan es inmutable: la evaluación queda guardada en él para la red y la hora de salida del contexto
+    private PlanEvaluation evaluatePlan(SolverContext context, PlanState tp) {
+        RoadNetwork roadNetwork = context.getNetwork();
+        PlanEvaluation cached = tp.getEvaluation(roadNetwork, context.getSimulationStartTime());
+        if (cached != null) {
+            return cached;
         }
-
-        return totalTime;
-    }
-    
-
-    private Date estimateDeliveryTime(TransportationPlan tp, PackageOrder pkg, Date simulationStartTime, List<RoadSegment> roadSegments) {
-        Date startTime = tp.getTruck().getAvailableFrom();
-        Date currentTime = new Date(startTime.getTime());
-
+        double totalTime = 0.0;
         List<City> route = tp.getRoute();
+        int[] penalizedEdges = new int[Math.max(0, route.size() - 1)];
+        int penalizedCount = 0;
+        RouteTimeline timeline = tp.getTimeline(roadNetwork, context.getSimulationStartTime());
+
         for (int i = 0; i < route.size() - 1; i++) {
             City origin = route.get(i);
             City destination = route.get(i + 1);
-            RoadSegment rs = findRoadSegment(roadSegments, origin, destination);
-            if (rs != null) {
-                double distance = rs.getDistance();
-                double speedLimit = rs.getSpeedLimit();
-                double travelTimeHours = distance / speedLimit;
-
-                long travelTimeMs = (long) (travelTimeHours * 3600 * 1000);
-                currentTime = new Date(currentTime.getTime() + travelTimeMs);
-
-                if (destination.equals(pkg.getDestination())) {
-                    break;
-                }
+            int edge = roadNetwork.findEdge(origin, destination);
+            if (edge < 0) {
+                totalTime += 10000;
+                continue;
+            }
+            RoadSegment rs = roadNetwork.getGraph().segment(edge);
+
+            // El bloqueo se verifica a la hora en que el camión sale hacia el tramo
+            double time = rs.getDistance() / rs.getSpeedLimit();
+            Date departure = timeline.departureTime(i);
+            Date reopening = rs.availableFrom(departure);
+            double waitHours = (reopening.getTime() - departure.getTime()) / (1000.0 * 60 * 60);
+            if (waitHours * 60 <= roadNetwork.getMaxBlockageWaitMinutes()) {
+                // Bloqueo corto: el camión espera a que se libere el tramo
+                totalTime += waitHours + time;
+                penalizedEdges[penalizedCount++] = edge;
+            } else {
+                // Si la carretera está bloqueada, aplicar penalización o buscar alternativa
+                totalTime += 10000; // Penalización arbitraria por carretera bloqueada
             }
         }
-    
-        return currentTime;
-    }
-    
 
-    // Implementación del método faltante localSearch
-    private List<TransportationPlan> localSearch(List<TransportationPlan> solution, Date simulationStartTime, List<RoadSegment> roadSegments) {
-        List<TransportationPlan> newSolution = copyTransportationPlans(solution);
-
-        // Ejemplo: Intentar intercambiar paquetes entre camiones
-        for (int i = 0; i < newSolution.size(); i++) {
-            for (int j = i + 1; j < newSolution.size(); j++) {
-                TransportationPlan tp1 = newSolution.get(i);
-                TransportationPlan tp2 = newSolution.get(j);
-
-                // Intercambiar paquetes si mejora el tiempo total
-                List<PackageOrder> packages1 = new ArrayList<>(tp1.getDeliveries());
-                List<PackageOrder> packages2 = new ArrayList<>(tp2.getDeliveries());
-
-                for (PackageOrder pkg1 : packages1) {
-                    for (PackageOrder pkg2 : packages2) {
-                        if (canSwapPackages(tp1, pkg1, tp2, pkg2)) {
-                            swapPackages(tp1, pkg1, tp2, pkg2);
-                            // Recalcular las rutas y el tiempo de entrega utilizando roadNetwork
-                            tp1.setRoute(planRouteUsingNetwork(tp1.getTruck().getCurrentLocation(), tp1.getDeliveries(), simulationStartTime, roadSegments));
-                            tp2.setRoute(planRouteUsingNetwork(tp2.getTruck().getCurrentLocation(), tp2.getDeliveries(), simulationStartTime, roadSegments));
-                            break;
-                        }
-                    }
-                }
+        // Penalización por entregas tardías con la llegada de la misma línea de tiempo
+        for (PackageOrder pkg : tp.getDeliveries()) {
+            double lateMinutes = timeline.arrivalMinuteAt(pkg.getDestination()) - pkg.getDeliveryDeadline().getTime() / 60000.0;
+            if (lateMinutes > 0) {
+                totalTime += 10000 * lateMinutes / 60;
             }
         }
 
-        return newSolution;
-    }
-
-    private boolean canSwapPackages(TransportationPlan tp1, PackageOrder pkg1, TransportationPlan tp2, PackageOrder pkg2) {
-        int capacity1 = tp1.getTruck().getCapacity();
-        int capacity2 = tp2.getTruck().getCapacity();
-
-        int totalWeightTp1 = tp1.getDeliveries().stream().mapToInt(PackageOrder::getQuantity).sum();
-        int totalWeightTp2 = tp2.getDeliveries().stream().mapToInt(PackageOrder::getQuantity).sum();
-
-        int newWeightTp1 = totalWeightTp1 - pkg1.getQuantity() + pkg2.getQuantity();
-        int newWeightTp2 = totalWeightTp2 - pkg2.getQuantity() + pkg1.getQuantity();
-
-        return newWeightTp1 <= capacity1 && newWeightTp2 <= capacity2;
-    }
-
-    private void swapPackages(TransportationPlan tp1, PackageOrder pkg1, TransportationPlan tp2, PackageOrder pkg2) {
-        tp1.getDeliveries().remove(pkg1);
-        tp2.getDeliveries().remove(pkg2);
-
-        tp1.getDeliveries().add(pkg2);
-        tp2.getDeliveries().add(pkg1);
+        PlanEvaluation evaluation = new PlanEvaluation(totalTime, Arrays.copyOf(penalizedEdges, penalizedCount));
+        tp.setEvaluation(roadNetwork, context.getSimulationStartTime(), evaluation);
+        return evaluation;
     }
+    
 
-    private List<TransportationPlan> copyTransportationPlans(List<TransportationPlan> originalPlans) {
-        List<TransportationPlan> copiedPlans = new ArrayList<>();
-        for (TransportationPlan tp : originalPlans) {
-            TransportationPlan copy = new TransportationPlan();
-            copy.setTruck(tp.getTruck());
-            copy.setRoute(new ArrayList<>(tp.getRoute()));
-            copy.setDeliveries(new ArrayList<>(tp.getDeliveries()));
-            copiedPlans.add(copy);
-        }
-        return copiedPlans;
+    // Plan nuevo de un camión con la ruta recalculada para sus entregas
+    private PlanState buildPlan(SolverContext context, Truck truck, List<PackageOrder> deliveries) {
+        return planRouteUsingNetwork(context, truck, deliveries);
     }
 
-    private void printSolution(List<TransportationPlan> solution, List<RoadSegment> roadSegments) {
+    private void printSolution(RoadNetwork roadNetwork, Date startTime, List<TransportationPlan> solution) {
         SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm");
-        Date initialStartDate = new Date(); // Hora de inicio para la simulación
     
         for (TransportationPlan plan : solution) {
             System.out.println("Camión: " + plan.getTruck().getCode());
-            Date currentTime = new Date(initialStartDate.getTime());
-            System.out.println("Fecha de inicio: " + sdf.format(currentTime));
+            // Las horas de salida y llegada salen de la línea de tiempo con la que se evaluó el plan
+            RouteTimeline timeline = plan.getTimeline(roadNetwork, startTime);
+            System.out.println("Fecha de inicio: " + sdf.format(startTime));
     
             System.out.println("Ruta:");
             List<City> route = plan.getRoute();
             int remainingCapacity = plan.getTruck().getCapacity();
-            
-            // Crear un mapa para almacenar la fecha de entrega de cada ciudad en la ruta
-            Map<City, Date> deliveryTimes = new HashMap<>();
     
-            // Iterar a través de la ruta y calcular los tiempos de llegada
             for (int i = 0; i < route.size() - 1; i++) {
                 City origin = route.get(i);
                 City destination = route.get(i + 1);
-                RoadSegment rs = findRoadSegment(roadSegments, origin, destination);
+                RoadSegment rs = roadNetwork.findRoadSegment(origin, destination);
     
                 if (rs != null) {
-                    System.out.println(" - Saliendo de " + origin.getProvince() + " (" + origin.getUbigeo() + ") a las " + sdf.format(currentTime));
-    
-                    // Calcular el tiempo de viaje
+                    System.out.println(" - Saliendo de " + origin.getProvince() + " (" + origin.getUbigeo() + ") a las " + sdf.format(timeline.arrivalTime(i)));
                     double travelTimeHours = rs.getDistance() / rs.getSpeedLimit();
-                    long travelTimeMs = (long) (travelTimeHours * 3600 * 1000);
-                    currentTime = new Date(currentTime.getTime() + travelTimeMs);
-    
-                    // Registrar el tiempo de llegada a esta ciudad en el mapa
-                    deliveryTimes.put(destination, currentTime);
-    
-                    System.out.println(" - Llegando a " + destination.getProvince() + " (" + destination.getUbigeo() + ") a las " + sdf.format(currentTime));
+                    System.out.println(" - Llegando a " + destination.getProvince() + " (" + destination.getUbigeo() + ") a las " + sdf.format(timeline.arrivalTime(i + 1)));
                     System.out.println("   Costo: " + rs.getCost() + " | Tiempo: " + travelTimeHours + " horas | Distancia: " + rs.getDistance() + " km");
                 }
             }
@@ -414,12 +430,12 @@ public class GLSAlgorithmService {
             System.out.println("Entregas:");
             for (PackageOrder pkg : plan.getDeliveries()) {
                 // Verificar si la ciudad de entrega del paquete está en la ruta
-                Date deliveryTime = deliveryTimes.get(pkg.getDestination());
+                int stop = timeline.firstVisit(pkg.getDestination());
     
-                if (deliveryTime != null) {
+                if (stop >= 0) {
                     // Mostrar la fecha exacta de entrega en base a la llegada del camión
                     System.out.println(" - Paquete " + pkg.getOrderId() + " (Cantidad: " + pkg.getQuantity() + ") a " + pkg.getDestination().getProvince() + " (" + pkg.getDestination().getUbigeo() + ")");
-                    System.out.println("   Fecha de entrega: " + sdf.format(deliveryTime) + " (Capacidad restante del camión: " + remainingCapacity + ")");
+                    System.out.println("   Fecha de entrega: " + sdf.format(timeline.arrivalTime(stop)) + " (Capacidad restante del camión: " + remainingCapacity + ")");
                     remainingCapacity -= pkg.getQuantity();  // Actualizar la capacidad después de la entrega
                 } else {
                     System.out.println(" - Paquete " + pkg.getOrderId() + " no pudo ser entregado en la ruta");
@@ -429,13 +445,4 @@ public class GLSAlgorithmService {
         }
     }
     
-    private RoadSegment findRoadSegment(List<RoadSegment> roadSegments, City origin, City destination) {
-        for (RoadSegment rs : roadSegments) {
-            if (rs.getOrigin().equals(origin) && rs.getDestination().equals(destination)) {
-                return rs;
-            }
-        }
-        return null;
-    }
-    
 }
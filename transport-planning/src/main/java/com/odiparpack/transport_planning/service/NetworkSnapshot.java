@@ -0,0 +1,33 @@
+package com.odiparpack.transport_planning.service;
+
+import com.odiparpack.transport_planning.model.RoadNetwork;
+
+/**
+ * Versión publicada de la red de carreteras. La red no se modifica después de
+ * publicarse, así que varias planificaciones pueden usarla a la vez.
+ */
+public final class NetworkSnapshot {
+
+    private final RoadNetwork network;
+    private final long version;
+    // Huella de las ciudades, tramos y bloqueos con los que se construyó
+    private final long fingerprint;
+
+    NetworkSnapshot(RoadNetwork network, long version, long fingerprint) {
+        this.network = network;
+        this.version = version;
+        this.fingerprint = fingerprint;
+    }
+
+    public RoadNetwork getNetwork() {
+        return network;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    long getFingerprint() {
+        return fingerprint;
+    }
+}
@@ -0,0 +1,62 @@
+package com.odiparpack.transport_planning.service;
+
+import org.springframework.stereotype.Service;
+import com.odiparpack.transport_planning.solver.CancellationToken;
+import com.odiparpack.transport_planning.solver.Incumbent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ejecuciones en curso (planificaciones y simulaciones) por id. Quien inicia
+ * una la registra con su token y su incumbente, de modo que otra solicitud
+ * pueda cancelarla o leer su mejor solución mientras sigue buscando.
+ */
+@Service
+public class PlanningRuns {
+
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    // Registra una ejecución nueva; con id null se genera uno
+    public Run start(String id) {
+        String runId = id == null || id.isBlank() ? UUID.randomUUID().toString() : id;
+        Run run = new Run(runId);
+        if (runs.putIfAbsent(runId, run) != null) {
+            throw new IllegalStateException("Ya hay una ejecución en curso con id " + runId);
+        }
+        return run;
+    }
+
+    // null si no hay una ejecución en curso con ese id
+    public Run get(String id) {
+        return runs.get(id);
+    }
+
+    public void finish(Run run) {
+        runs.remove(run.getId(), run);
+    }
+
+    public static final class Run {
+        private final String id;
+        private final CancellationToken cancellationToken = new CancellationToken();
+        private final Incumbent incumbent = new Incumbent();
+
+        private Run(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public CancellationToken getCancellationToken() {
+            return cancellationToken;
+        }
+
+        // Mejor solución de la planificación; una simulación replanifica con un incumbente por llamada
+        public Incumbent getIncumbent() {
+            return incumbent;
+        }
+    }
+}
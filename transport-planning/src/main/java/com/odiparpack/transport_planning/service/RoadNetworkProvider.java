@@ -0,0 +1,107 @@
+package com.odiparpack.transport_planning.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.RoadSegment;
+import com.odiparpack.transport_planning.routing.ShortestPathStrategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Entrega la red de carreteras compartida entre planificaciones. La red se
+ * reconstruye solo cuando cambian las ciudades, los tramos o sus bloqueos; en
+ * otro caso todas las solicitudes reciben la misma instancia, con sus cachés
+ * de caminos ya calientes.
+ */
+@Service
+public class RoadNetworkProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoadNetworkProvider.class);
+
+    @Value("${planning.routing.strategy:EPOCH_CACHE}")
+    private ShortestPathStrategy routingStrategy;
+
+    @Value("${planning.routing.ch-index-path:}")
+    private String contractionHierarchyPath;
+
+    @Value("${planning.routing.max-blockage-wait-minutes:240}")
+    private double maxBlockageWaitMinutes;
+
+    private volatile NetworkSnapshot snapshot;
+
+    // Red para estos datos: la publicada si la huella coincide, o una nueva versión
+    public NetworkSnapshot acquire(List<City> cities, List<RoadSegment> roadSegments) {
+        long fingerprint = fingerprint(cities, roadSegments);
+        NetworkSnapshot current = snapshot;
+        if (current != null && current.getFingerprint() == fingerprint) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && current.getFingerprint() == fingerprint) {
+                return current;
+            }
+            long version = current == null ? 1 : current.getVersion() + 1;
+            NetworkSnapshot rebuilt = new NetworkSnapshot(buildRoadNetwork(cities, roadSegments), version, fingerprint);
+            logger.info("Road network version {} built with {} segments", version, roadSegments.size());
+            snapshot = rebuilt;
+            return rebuilt;
+        }
+    }
+
+    // Construir la red de carreteras
+    private RoadNetwork buildRoadNetwork(List<City> cities, List<RoadSegment> roadSegments) {
+        RoadNetwork roadNetwork = new RoadNetwork(cities, roadSegments);
+        roadNetwork.setStrategy(routingStrategy);
+        roadNetwork.setMaxBlockageWaitMinutes(maxBlockageWaitMinutes);
+
+        if (routingStrategy == ShortestPathStrategy.CONTRACTION_HIERARCHY) {
+            try {
+                roadNetwork.enableContractionHierarchy(contractionHierarchyPath.isBlank() ? null : Path.of(contractionHierarchyPath));
+            } catch (IOException e) {
+                // Sin índice en disco la jerarquía se construye en memoria en la primera consulta
+                logger.warn("Could not use the contraction hierarchy index at {}: {}", contractionHierarchyPath, e.getMessage());
+            }
+        }
+        return roadNetwork;
+    }
+
+    // FNV-1a sobre todo lo que entra en el grafo; depende del orden de los tramos, igual que el grafo
+    static long fingerprint(List<City> cities, List<RoadSegment> roadSegments) {
+        long hash = 0xcbf29ce484222325L;
+        for (City city : cities) {
+            hash = mix(hash, city.getUbigeo().hashCode());
+            hash = mix(hash, Double.doubleToLongBits(city.getLatitude()));
+            hash = mix(hash, Double.doubleToLongBits(city.getLongitude()));
+        }
+        for (RoadSegment segment : roadSegments) {
+            hash = mix(hash, segment.getOrigin().getUbigeo().hashCode());
+            hash = mix(hash, segment.getDestination().getUbigeo().hashCode());
+            hash = mix(hash, Double.doubleToLongBits(segment.getCost()));
+            hash = mix(hash, Double.doubleToLongBits(segment.getDistance()));
+            hash = mix(hash, Double.doubleToLongBits(segment.getSpeedLimit()));
+            long[] starts = segment.getBlockageStartMinutes();
+            long[] ends = segment.getBlockageEndMinutes();
+            hash = mix(hash, starts.length);
+            for (int i = 0; i < starts.length; i++) {
+                hash = mix(hash, starts[i]);
+                hash = mix(hash, ends[i]);
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (8 * i)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
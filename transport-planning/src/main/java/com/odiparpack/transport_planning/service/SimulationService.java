@@ -0,0 +1,122 @@
+package com.odiparpack.transport_planning.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.RoadSegment;
+import com.odiparpack.transport_planning.model.Truck;
+import com.odiparpack.transport_planning.repository.CityRepository;
+import com.odiparpack.transport_planning.repository.PackageOrderRepository;
+import com.odiparpack.transport_planning.repository.RoadSegmentRepository;
+import com.odiparpack.transport_planning.repository.TruckRepository;
+import com.odiparpack.transport_planning.simulation.Simulation;
+import com.odiparpack.transport_planning.simulation.SimulationReport;
+import com.odiparpack.transport_planning.simulation.SimulationSettings;
+import com.odiparpack.transport_planning.simulation.TruckIncident;
+import com.odiparpack.transport_planning.solver.CancellationToken;
+import com.odiparpack.transport_planning.solver.Incumbent;
+import com.odiparpack.transport_planning.solver.SolverSettings;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Escenarios de simulación sobre los datos cargados: una semana, y una corrida
+ * larga que se detiene en el primer pedido que vence sin entregarse. Cada
+ * corrida trabaja sobre entidades recién leídas, así que no altera los datos
+ * de las demás.
+ */
+@Service
+public class SimulationService {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    @Autowired
+    private GLSAlgorithmService glsAlgorithmService;
+
+    @Autowired
+    private RoadNetworkProvider roadNetworkProvider;
+
+    @Autowired
+    private DataLoaderService dataLoaderService;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private RoadSegmentRepository roadSegmentRepository;
+
+    @Autowired
+    private TruckRepository truckRepository;
+
+    @Autowired
+    private PackageOrderRepository packageOrderRepository;
+
+    @Value("${simulation.replan-interval-minutes:60}")
+    private int replanIntervalMinutes;
+
+    // Iteraciones del GLS en cada replanificación; la simulación lo invoca muchas veces
+    @Value("${simulation.planner-iterations:100}")
+    private int plannerIterations;
+
+    @Value("${simulation.pickup-window-minutes:120}")
+    private int pickupWindowMinutes;
+
+    // Horizonte máximo del escenario hasta el colapso
+    @Value("${simulation.collapse-horizon-days:180}")
+    private int collapseHorizonDays;
+
+    // El token detiene tanto la replanificación en curso como la corrida
+    public SimulationReport runWeekly(Date start, CancellationToken token) throws IOException {
+        return run(start, 7, false, token);
+    }
+
+    public SimulationReport runUntilCollapse(Date start, CancellationToken token) throws IOException {
+        return run(start, collapseHorizonDays, true, token);
+    }
+
+    private SimulationReport run(Date start, int days, boolean stopAtCollapse, CancellationToken token) throws IOException {
+        List<City> cities = cityRepository.findAll();
+        List<RoadSegment> roadSegments = roadSegmentRepository.findAll();
+        List<Truck> trucks = truckRepository.findAll();
+        List<PackageOrder> orders = packageOrderRepository.findAll();
+        // Las averías y mantenimientos los marca la simulación al llegar su hora
+        for (Truck truck : trucks) {
+            truck.setBrokenDown(false);
+            truck.setUnderMaintenance(false);
+        }
+
+        SimulationSettings settings = new SimulationSettings();
+        settings.setStart(start);
+        settings.setEnd(new Date(start.getTime() + days * MILLIS_PER_DAY));
+        settings.setReplanIntervalMinutes(replanIntervalMinutes);
+        settings.setPickupWindowMinutes(pickupWindowMinutes);
+        settings.setStopAtCollapse(stopAtCollapse);
+
+        SolverSettings solverSettings = glsAlgorithmService.defaultSettings(roadSegments);
+        solverSettings.setMaxIterations(plannerIterations);
+        RoadNetwork network = roadNetworkProvider.acquire(cities, roadSegments).getNetwork();
+
+        Simulation simulation = new Simulation(network, settings, trucks,
+                (now, available, pending) -> glsAlgorithmService.plan(cities, roadSegments, available, pending, now,
+                        solverSettings, token, new Incumbent()).getBestSolution());
+        simulation.addOrders(orders);
+        simulation.addBlockages(roadSegments);
+        List<TruckIncident> incidents = new ArrayList<>();
+        incidents.addAll(dataLoaderService.readScheduledBreakdowns(
+                resourceLoader.getResource("classpath:data/averias.txt").getFile().getPath()));
+        incidents.addAll(dataLoaderService.readMaintenanceSchedule(
+                resourceLoader.getResource("classpath:data/c.1inf54.plan.mant.trim.abr.may.jun.txt").getFile().getPath()));
+        simulation.addIncidents(incidents);
+        return simulation.run(token);
+    }
+}
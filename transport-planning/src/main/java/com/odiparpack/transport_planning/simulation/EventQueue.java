@@ -0,0 +1,35 @@
+package com.odiparpack.transport_planning.simulation;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Cola de prioridad de eventos por tiempo, luego por tipo y luego por orden de
+ * llegada, así que dos corridas con los mismos datos procesan los eventos en
+ * el mismo orden.
+ */
+final class EventQueue {
+
+    private final PriorityQueue<SimulationEvent> queue = new PriorityQueue<>(
+            Comparator.comparingLong(SimulationEvent::getTime)
+                    .thenComparing(SimulationEvent::getType)
+                    .thenComparingLong(SimulationEvent::getSequence));
+    private long nextSequence;
+
+    void schedule(SimulationEvent event) {
+        event.setSequence(nextSequence++);
+        queue.add(event);
+    }
+
+    SimulationEvent poll() {
+        return queue.poll();
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.odiparpack.transport_planning.simulation;
+
+/**
+ * Tipos de evento de la simulación. Entre eventos del mismo instante se
+ * procesan en este orden: primero lo que cambia el estado de camiones y
+ * almacenes, al final la replanificación, que así ve el estado al día.
+ */
+public enum EventType {
+    BLOCKAGE_END,
+    BLOCKAGE_START,
+    BREAKDOWN_END,
+    MAINTENANCE_END,
+    BREAKDOWN,
+    MAINTENANCE_START,
+    TRUCK_ARRIVAL,
+    TRUCK_RETURN,
+    WAREHOUSE_RELEASE,
+    ORDER_ARRIVAL,
+    DEADLINE,
+    REPLAN
+}
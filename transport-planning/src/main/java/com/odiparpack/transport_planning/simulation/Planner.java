@@ -0,0 +1,19 @@
+package com.odiparpack.transport_planning.simulation;
+
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.Truck;
+import com.odiparpack.transport_planning.solver.Solution;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Planificador que la simulación invoca en cada replanificación con los
+ * camiones libres y los pedidos pendientes. Puede partir pedidos entre
+ * camiones: la parte que queda sin asignar se queda en el pedido original.
+ */
+@FunctionalInterface
+public interface Planner {
+
+    Solution plan(Date now, List<Truck> trucks, List<PackageOrder> orders);
+}
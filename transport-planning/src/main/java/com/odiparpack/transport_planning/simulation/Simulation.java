@@ -0,0 +1,321 @@
+package com.odiparpack.transport_planning.simulation;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.RoadSegment;
+import com.odiparpack.transport_planning.model.RouteTimeline;
+import com.odiparpack.transport_planning.model.Truck;
+import com.odiparpack.transport_planning.solver.CancellationToken;
+import com.odiparpack.transport_planning.solver.PlanState;
+import com.odiparpack.transport_planning.solver.Solution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Simulación por eventos discretos. Un reloj avanza de evento en evento sobre
+ * una cola de prioridad: llegada de pedidos, vencimientos, inicio y fin de
+ * bloqueos, averías, mantenimientos, llegadas de camiones a cada parada,
+ * regresos al depósito y liberación de almacenes. Cada cierto intervalo se
+ * invoca al planificador con los camiones libres y los pedidos pendientes, y
+ * los planes que devuelve se convierten en eventos según la línea de tiempo de
+ * su ruta, la misma con la que el planificador los evaluó. El tiempo simulado
+ * salta de un evento al siguiente, así que una semana corre tan rápido como lo
+ * permita el planificador.
+ *
+ * Los bloqueos se tratan como un calendario publicado de antemano (cierres
+ * programados): cada replanificación ve todos los bloqueos futuros de la red,
+ * no solo los que ya empezaron. Es deliberado; los eventos de inicio y fin
+ * de bloqueo solo quedan en el registro y en el reporte, no cambian lo que
+ * sabe el planificador.
+ */
+public final class Simulation {
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final RoadNetwork network;
+    private final SimulationSettings settings;
+    private final List<Truck> trucks;
+    private final Planner planner;
+    private final EventQueue events = new EventQueue();
+    private final SimulationReport report;
+
+    // Pedidos recibidos y todavía sin camión, en orden de llegada
+    private final List<PackageOrder> pending = new ArrayList<>();
+    // Cantidad por entregar de cada pedido; las partes de un pedido comparten su orderId
+    private final Map<String, Integer> undelivered = new HashMap<>();
+    // Los camiones son entidades con equals por valor que cambian durante la simulación: se indexan por identidad
+    private final Map<Truck, Trip> trips = new IdentityHashMap<>();
+    private final Map<Truck, City> depots = new IdentityHashMap<>();
+    private final Map<String, Truck> trucksByCode = new HashMap<>();
+    private long now;
+    private boolean collapsed;
+
+    public Simulation(RoadNetwork network, SimulationSettings settings, List<Truck> trucks, Planner planner) {
+        this.network = network;
+        this.settings = settings;
+        this.trucks = trucks;
+        this.planner = planner;
+        this.report = new SimulationReport(settings.getStart());
+        for (Truck truck : trucks) {
+            depots.put(truck, truck.getCurrentLocation());
+            trucksByCode.put(truck.getCode(), truck);
+        }
+    }
+
+    // Los pedidos llegan en su fecha de pedido; los de fuera del horizonte se ignoran
+    public void addOrders(List<PackageOrder> orders) {
+        for (PackageOrder order : orders) {
+            if (order.getOrderDate() != null && inHorizon(order.getOrderDate().getTime())) {
+                events.schedule(SimulationEvent.order(order.getOrderDate().getTime(), EventType.ORDER_ARRIVAL, order));
+            }
+        }
+    }
+
+    public void addIncidents(List<TruckIncident> incidents) {
+        for (TruckIncident incident : incidents) {
+            Truck truck = trucksByCode.get(incident.getTruckCode());
+            if (truck == null || !inHorizon(incident.getStart().getTime())) {
+                continue;
+            }
+            boolean breakdown = incident.getKind() == TruckIncident.Kind.BREAKDOWN;
+            events.schedule(SimulationEvent.incident(incident.getStart().getTime(),
+                    breakdown ? EventType.BREAKDOWN : EventType.MAINTENANCE_START, truck, incident));
+            events.schedule(SimulationEvent.incident(incident.getEnd().getTime(),
+                    breakdown ? EventType.BREAKDOWN_END : EventType.MAINTENANCE_END, truck, incident));
+        }
+    }
+
+    // Los bloqueos ya están en los tramos de la red, donde el planificador los conoce de antemano y la línea de
+    // tiempo de cada viaje los respeta; aquí solo marcan el reloj y se cuentan en el reporte
+    public void addBlockages(List<RoadSegment> segments) {
+        for (RoadSegment segment : segments) {
+            long[] starts = segment.getBlockageStartMinutes();
+            long[] ends = segment.getBlockageEndMinutes();
+            for (int i = 0; i < starts.length; i++) {
+                long start = starts[i] * MILLIS_PER_MINUTE;
+                if (inHorizon(start)) {
+                    events.schedule(SimulationEvent.at(start, EventType.BLOCKAGE_START));
+                    events.schedule(SimulationEvent.at(ends[i] * MILLIS_PER_MINUTE, EventType.BLOCKAGE_END));
+                }
+            }
+        }
+    }
+
+    public SimulationReport run() {
+        return run(new CancellationToken());
+    }
+
+    // El token se revisa antes de cada evento; cancelada, la corrida termina con el reporte hasta ese momento
+    public SimulationReport run(CancellationToken cancellationToken) {
+        long wallStart = System.nanoTime();
+        long end = settings.getEnd().getTime();
+        now = settings.getStart().getTime();
+        events.schedule(SimulationEvent.at(now, EventType.REPLAN));
+
+        SimulationReport.StopReason reason = SimulationReport.StopReason.END_OF_HORIZON;
+        while (!events.isEmpty()) {
+            if (cancellationToken.isCancelled()) {
+                reason = SimulationReport.StopReason.CANCELLED;
+                break;
+            }
+            SimulationEvent event = events.poll();
+            if (event.getTime() >= end) {
+                now = end;
+                break;
+            }
+            now = event.getTime();
+            handle(event);
+            report.event(event.getType());
+            if (collapsed && settings.isStopAtCollapse()) {
+                reason = SimulationReport.StopReason.COLLAPSE;
+                break;
+            }
+        }
+        report.finish(reason, new Date(now), System.nanoTime() - wallStart);
+        return report;
+    }
+
+    private void handle(SimulationEvent event) {
+        switch (event.getType()) {
+            case ORDER_ARRIVAL -> orderArrived(event.getOrder());
+            case DEADLINE -> deadlineReached(event.getOrder());
+            case REPLAN -> replan();
+            case TRUCK_ARRIVAL -> truckArrived(event);
+            case TRUCK_RETURN -> truckReturned(event);
+            case WAREHOUSE_RELEASE -> event.getCity().releaseCapacity(new Date(now + 1)); // releaseCapacity libera lo anterior al instante dado
+            case BREAKDOWN -> breakdown(event.getTruck(), event.getIncident());
+            case BREAKDOWN_END -> breakdownEnded(event.getTruck());
+            case MAINTENANCE_START -> maintenanceStarted(event.getTruck(), event.getIncident());
+            case MAINTENANCE_END -> event.getTruck().setUnderMaintenance(false);
+            case BLOCKAGE_START -> report.blockage();
+            case BLOCKAGE_END -> { } // El planificador ya contaba con la reapertura
+        }
+    }
+
+    private void orderArrived(PackageOrder order) {
+        pending.add(order);
+        undelivered.merge(order.getOrderId(), order.getQuantity(), Integer::sum);
+        report.orderReceived();
+        if (order.getDeliveryDeadline() != null) {
+            events.schedule(SimulationEvent.order(order.getDeliveryDeadline().getTime(), EventType.DEADLINE, order));
+        }
+    }
+
+    // Colapso: un pedido llega a su fecha límite con paquetes sin entregar
+    private void deadlineReached(PackageOrder order) {
+        if (undelivered.getOrDefault(order.getOrderId(), 0) > 0) {
+            report.orderLate(order.getOrderId(), new Date(now));
+            collapsed = true;
+        }
+    }
+
+    private void replan() {
+        long next = now + Math.max(1, settings.getReplanIntervalMinutes()) * MILLIS_PER_MINUTE;
+        events.schedule(SimulationEvent.at(next, EventType.REPLAN));
+        if (pending.isEmpty()) {
+            return;
+        }
+        Date time = new Date(now);
+        List<Truck> available = new ArrayList<>();
+        for (Truck truck : trucks) {
+            if (!trips.containsKey(truck) && truck.isAvailable() && truck.isOperational(time)) {
+                // Las rutas del planificador arrancan cuando el camión queda libre
+                truck.setAvailableFrom(time);
+                available.add(truck);
+            }
+        }
+        if (available.isEmpty()) {
+            return;
+        }
+
+        long plannerStart = System.nanoTime();
+        Solution solution = planner.plan(time, available, new ArrayList<>(pending));
+        report.replanned(System.nanoTime() - plannerStart);
+        for (int p = 0; p < solution.size(); p++) {
+            dispatch(solution.get(p));
+        }
+    }
+
+    /**
+     * Saca del pendiente las entregas del plan y programa la llegada a cada
+     * parada y el regreso. Las horas salen de la línea de tiempo del plan, la
+     * misma con la que el planificador lo evaluó: incluye la espera del camión
+     * en cada parada donde entrega y la espera por bloqueos cortos.
+     */
+    private void dispatch(PlanState plan) {
+        Truck truck = plan.getTruck();
+        Set<PackageOrder> assigned = Collections.newSetFromMap(new IdentityHashMap<>());
+        assigned.addAll(plan.getDeliveries());
+        // Las partes de un pedido partido son objetos nuevos; el original sigue pendiente con el resto
+        pending.removeIf(assigned::contains);
+
+        Trip trip = new Trip(plan);
+        trips.put(truck, trip);
+        RouteTimeline timeline = plan.getTimeline(network, new Date(now));
+        for (PackageOrder order : plan.getDeliveries()) {
+            // Se entrega en la primera visita al destino, como lo supone la línea de tiempo
+            int stop = timeline.firstVisit(order.getDestination());
+            if (stop >= 0) {
+                events.schedule(SimulationEvent.trip(timeline.arrivalTime(stop).getTime(), EventType.TRUCK_ARRIVAL,
+                        truck, order, trip));
+            }
+        }
+        // Lo que no esté en la ruta vuelve a la cola cuando el camión regrese
+        long finish = Math.round(timeline.finishMinute() * MILLIS_PER_MINUTE);
+        events.schedule(SimulationEvent.trip(Math.max(finish, now), EventType.TRUCK_RETURN, truck, null, trip));
+    }
+
+    private void truckArrived(SimulationEvent event) {
+        Truck truck = event.getTruck();
+        Trip trip = trips.get(truck);
+        if (trip != event.getTrip()) {
+            return; // Viaje interrumpido por una avería
+        }
+        PackageOrder order = event.getOrder();
+        trip.undelivered.remove(order);
+        truck.setCurrentLocation(order.getDestination());
+        truck.setLastStopTime(new Date(now));
+
+        undelivered.merge(order.getOrderId(), -order.getQuantity(), Integer::sum);
+        report.delivered(order.getDeliveryDeadline() != null && now > order.getDeliveryDeadline().getTime());
+
+        City city = order.getDestination();
+        if (city.getWarehouseCapacity() > 0 && city.getCurrentCapacity() + order.getQuantity() > city.getWarehouseCapacity()) {
+            report.warehouseOverflow();
+        }
+        long release = now + settings.getPickupWindowMinutes() * MILLIS_PER_MINUTE;
+        city.addPackageOrder(order, new Date(release));
+        events.schedule(SimulationEvent.city(release, EventType.WAREHOUSE_RELEASE, city));
+    }
+
+    private void truckReturned(SimulationEvent event) {
+        Truck truck = event.getTruck();
+        Trip trip = trips.get(truck);
+        if (trip != event.getTrip()) {
+            return;
+        }
+        trips.remove(truck);
+        List<City> route = trip.plan.getRoute();
+        truck.setCurrentLocation(route.isEmpty() ? depots.get(truck) : route.get(route.size() - 1));
+        truck.setAvailableFrom(new Date(now));
+        requeue(trip);
+    }
+
+    // El camión se detiene donde está y lo que llevaba vuelve a la cola para otro camión
+    private void breakdown(Truck truck, TruckIncident incident) {
+        truck.setBrokenDown(true);
+        truck.setBreakdownType(incident.getBreakdownType());
+        truck.setBreakdownStartTime(incident.getStart());
+        truck.setBreakdownEndTime(incident.getEnd());
+        report.breakdown();
+        Trip trip = trips.remove(truck);
+        if (trip != null) {
+            requeue(trip);
+        }
+    }
+
+    // Reparado, el camión vuelve a operar desde su depósito
+    private void breakdownEnded(Truck truck) {
+        truck.setBrokenDown(false);
+        if (!trips.containsKey(truck)) {
+            truck.setCurrentLocation(depots.get(truck));
+        }
+    }
+
+    // Un camión en viaje lo termina y entra a mantenimiento al volver, si la ventana sigue abierta
+    private void maintenanceStarted(Truck truck, TruckIncident incident) {
+        truck.setUnderMaintenance(true);
+        truck.setMaintenanceStartTime(incident.getStart());
+        truck.setMaintenanceEndTime(incident.getEnd());
+        report.maintenance();
+    }
+
+    private void requeue(Trip trip) {
+        if (!trip.undelivered.isEmpty()) {
+            pending.addAll(trip.undelivered);
+            report.packagesReturned(trip.undelivered.size());
+        }
+    }
+
+    private boolean inHorizon(long time) {
+        return time >= settings.getStart().getTime() && time < settings.getEnd().getTime();
+    }
+
+    private static final class Trip {
+        private final PlanState plan;
+        private final Set<PackageOrder> undelivered = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Trip(PlanState plan) {
+            this.plan = plan;
+            undelivered.addAll(plan.getDeliveries());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.odiparpack.transport_planning.simulation;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.Truck;
+
+/**
+ * Evento con marca de tiempo. Según el tipo lleva el camión, el pedido, la
+ * ciudad o el incidente al que se refiere; los campos que no aplican quedan
+ * en null. trip identifica el viaje que lo generó, para descartar los eventos
+ * de un viaje que se interrumpió.
+ */
+final class SimulationEvent {
+
+    private final long time;
+    private final EventType type;
+    private final Truck truck;
+    private final PackageOrder order;
+    private final City city;
+    private final TruckIncident incident;
+    private final Object trip;
+    // Orden de llegada a la cola: desempata eventos del mismo tipo e instante
+    private long sequence;
+
+    private SimulationEvent(long time, EventType type, Truck truck, PackageOrder order, City city,
+                            TruckIncident incident, Object trip) {
+        this.time = time;
+        this.type = type;
+        this.truck = truck;
+        this.order = order;
+        this.city = city;
+        this.incident = incident;
+        this.trip = trip;
+    }
+
+    static SimulationEvent at(long time, EventType type) {
+        return new SimulationEvent(time, type, null, null, null, null, null);
+    }
+
+    static SimulationEvent order(long time, EventType type, PackageOrder order) {
+        return new SimulationEvent(time, type, null, order, null, null, null);
+    }
+
+    static SimulationEvent incident(long time, EventType type, Truck truck, TruckIncident incident) {
+        return new SimulationEvent(time, type, truck, null, null, incident, null);
+    }
+
+    static SimulationEvent trip(long time, EventType type, Truck truck, PackageOrder order, Object trip) {
+        return new SimulationEvent(time, type, truck, order, null, null, trip);
+    }
+
+    static SimulationEvent city(long time, EventType type, City city) {
+        return new SimulationEvent(time, type, null, null, city, null, null);
+    }
+
+    long getTime() {
+        return time;
+    }
+
+    EventType getType() {
+        return type;
+    }
+
+    Truck getTruck() {
+        return truck;
+    }
+
+    PackageOrder getOrder() {
+        return order;
+    }
+
+    City getCity() {
+        return city;
+    }
+
+    TruckIncident getIncident() {
+        return incident;
+    }
+
+    Object getTrip() {
+        return trip;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+}
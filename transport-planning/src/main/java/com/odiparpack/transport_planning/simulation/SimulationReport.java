@@ -0,0 +1,186 @@
+package com.odiparpack.transport_planning.simulation;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resultado de una corrida de simulación: qué pasó en el tiempo simulado y
+ * cuánto tardó en tiempo real.
+ */
+public final class SimulationReport {
+
+    public enum StopReason { END_OF_HORIZON, COLLAPSE, CANCELLED }
+
+    private final Date start;
+    private Date end;
+    private StopReason stopReason;
+    // Primer pedido que venció sin entregarse por completo; null si no colapsó
+    private Date collapseTime;
+    private String collapseOrderId;
+
+    private int ordersReceived;
+    private int deliveries;
+    private int lateDeliveries;
+    private int lateOrders;
+    private int replans;
+    private long plannerNanos;
+    private int breakdowns;
+    private int maintenances;
+    private int blockages;
+    // Paquetes que volvieron a la cola por una avería o por no estar en la ruta del camión
+    private int returnedPackages;
+    private int warehouseOverflows;
+    private final Map<EventType, Integer> events = new EnumMap<>(EventType.class);
+    private long wallNanos;
+
+    SimulationReport(Date start) {
+        this.start = start;
+    }
+
+    void event(EventType type) {
+        events.merge(type, 1, Integer::sum);
+    }
+
+    void orderReceived() {
+        ordersReceived++;
+    }
+
+    void delivered(boolean late) {
+        deliveries++;
+        if (late) {
+            lateDeliveries++;
+        }
+    }
+
+    void orderLate(String orderId, Date time) {
+        lateOrders++;
+        if (collapseTime == null) {
+            collapseTime = time;
+            collapseOrderId = orderId;
+        }
+    }
+
+    void replanned(long nanos) {
+        replans++;
+        plannerNanos += nanos;
+    }
+
+    void breakdown() {
+        breakdowns++;
+    }
+
+    void maintenance() {
+        maintenances++;
+    }
+
+    void blockage() {
+        blockages++;
+    }
+
+    void packagesReturned(int count) {
+        returnedPackages += count;
+    }
+
+    void warehouseOverflow() {
+        warehouseOverflows++;
+    }
+
+    void finish(StopReason stopReason, Date end, long wallNanos) {
+        this.stopReason = stopReason;
+        this.end = end;
+        this.wallNanos = wallNanos;
+    }
+
+    public Date getStart() {
+        return start;
+    }
+
+    public Date getEnd() {
+        return end;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public Date getCollapseTime() {
+        return collapseTime;
+    }
+
+    public String getCollapseOrderId() {
+        return collapseOrderId;
+    }
+
+    public int getOrdersReceived() {
+        return ordersReceived;
+    }
+
+    public int getDeliveries() {
+        return deliveries;
+    }
+
+    public int getLateDeliveries() {
+        return lateDeliveries;
+    }
+
+    public int getLateOrders() {
+        return lateOrders;
+    }
+
+    public int getReplans() {
+        return replans;
+    }
+
+    public int getBreakdowns() {
+        return breakdowns;
+    }
+
+    public int getMaintenances() {
+        return maintenances;
+    }
+
+    public int getBlockages() {
+        return blockages;
+    }
+
+    public int getReturnedPackages() {
+        return returnedPackages;
+    }
+
+    public int getWarehouseOverflows() {
+        return warehouseOverflows;
+    }
+
+    public int getEventCount(EventType type) {
+        return events.getOrDefault(type, 0);
+    }
+
+    public long getWallMillis() {
+        return wallNanos / 1_000_000;
+    }
+
+    // Tiempo simulado por unidad de tiempo real
+    public double getSpeedup() {
+        return wallNanos == 0 ? 0 : (end.getTime() - start.getTime()) * 1e6 / wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Simulación del %s al %s, fin por %s%n", sdf.format(start), sdf.format(end), stopReason));
+        if (collapseTime != null) {
+            text.append(String.format("Colapso: el pedido %s venció el %s sin entregarse%n", collapseOrderId, sdf.format(collapseTime)));
+        }
+        text.append(String.format("Pedidos: %d recibidos, %d entregas (%d tarde), %d pedidos vencidos%n",
+                ordersReceived, deliveries, lateDeliveries, lateOrders));
+        text.append(String.format("Incidentes: %d averías, %d mantenimientos, %d bloqueos, %d paquetes devueltos a la cola, %d desbordes de almacén%n",
+                breakdowns, maintenances, blockages, returnedPackages, warehouseOverflows));
+        text.append(String.format("Replanificaciones: %d, %.1f s en el planificador%n", replans, plannerNanos / 1e9));
+        text.append(String.format("Eventos: %s%n", events));
+        text.append(String.format("Tiempo real: %.1f s (%.0fx más rápido que el tiempo real)", wallNanos / 1e9, getSpeedup()));
+        return text.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.odiparpack.transport_planning.simulation;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * Parámetros de un escenario de simulación.
+ */
+@Data
+public class SimulationSettings {
+    private Date start;
+    // Fin del horizonte simulado (excluido)
+    private Date end;
+    // Cada cuántos minutos simulados se invoca al planificador
+    private int replanIntervalMinutes = 60;
+    // Tiempo que un paquete ocupa el almacén de destino hasta que el cliente lo recoge
+    private int pickupWindowMinutes = 120;
+    // Detenerse en el primer pedido que vence sin entregarse por completo
+    private boolean stopAtCollapse;
+}
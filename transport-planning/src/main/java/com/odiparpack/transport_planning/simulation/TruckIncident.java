@@ -0,0 +1,47 @@
+package com.odiparpack.transport_planning.simulation;
+
+import java.util.Date;
+
+/**
+ * Avería o mantenimiento programado de un camión, leído de averias.txt o del
+ * plan de mantenimiento. El camión no opera entre start y end.
+ */
+public final class TruckIncident {
+
+    public enum Kind { BREAKDOWN, MAINTENANCE }
+
+    private final Kind kind;
+    private final String truckCode;
+    private final Date start;
+    private final Date end;
+    // 1: Moderado, 2: Grave, 3: Siniestro; 0 en los mantenimientos
+    private final int breakdownType;
+
+    public TruckIncident(Kind kind, String truckCode, Date start, Date end, int breakdownType) {
+        this.kind = kind;
+        this.truckCode = truckCode;
+        this.start = start;
+        this.end = end;
+        this.breakdownType = breakdownType;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getTruckCode() {
+        return truckCode;
+    }
+
+    public Date getStart() {
+        return start;
+    }
+
+    public Date getEnd() {
+        return end;
+    }
+
+    public int getBreakdownType() {
+        return breakdownType;
+    }
+}
@@ -0,0 +1,121 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.Truck;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Capa ALNS sobre el vecindario de intercambios. En cada iteración elige por
+ * ruleta entre el paso de intercambio/traslado y los operadores de remoción;
+ * si toca una remoción, elige también un operador de reparación. Solo se
+ * arman y evalúan de nuevo los planes que cambió el par remoción-reparación.
+ * Los pesos se adaptan según lo que aporta cada operador, y las estadísticas
+ * muestran en qué se va el tiempo de la isla.
+ */
+final class AdaptiveLargeNeighbourhood {
+
+    private static final String LOCAL_SEARCH = "intercambio/traslado";
+
+    private final ParallelNeighbourhood neighbourhood;
+    private final BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder;
+    private final Function<PlanState, PlanEvaluation> evaluator;
+    private final double removalFraction;
+
+    // Operador 0 de moves: el vecindario; el resto, las remociones en el mismo orden que destroyOperators
+    private final List<DestroyOperator> destroyOperators;
+    private final List<RepairOperator> repairOperators;
+    private final AdaptiveWeights moves;
+    private final AdaptiveWeights repairs;
+
+    // Operadores elegidos en el último paso; repair es -1 si fue el vecindario
+    private int lastMove = -1;
+    private int lastRepair = -1;
+    private long evaluatedPlans;
+
+    AdaptiveLargeNeighbourhood(RoadNetwork network, Date start, SolverSettings settings, ParallelNeighbourhood neighbourhood,
+                               BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder,
+                               Function<PlanState, PlanEvaluation> evaluator) {
+        this.neighbourhood = neighbourhood;
+        this.planBuilder = planBuilder;
+        this.evaluator = evaluator;
+        this.removalFraction = settings.getRemovalFraction();
+        this.destroyOperators = List.of(DestroyOperators.random(), DestroyOperators.worstLateness(network, start),
+                DestroyOperators.related());
+        this.repairOperators = List.of(RepairOperators.greedy(), RepairOperators.regret());
+
+        String[] moveNames = new String[destroyOperators.size() + 1];
+        moveNames[0] = LOCAL_SEARCH;
+        for (int d = 0; d < destroyOperators.size(); d++) {
+            moveNames[d + 1] = destroyOperators.get(d).name();
+        }
+        String[] repairNames = new String[repairOperators.size()];
+        for (int r = 0; r < repairOperators.size(); r++) {
+            repairNames[r] = repairOperators.get(r).name();
+        }
+        this.moves = new AdaptiveWeights(moveNames, settings.getOperatorSegment());
+        this.repairs = new AdaptiveWeights(repairNames, settings.getOperatorSegment());
+    }
+
+    // Devuelve la solución vecina y deja en cost las evaluaciones de los planes reemplazados
+    Solution step(Solution solution, SolutionCost cost, SplittableRandom random) {
+        lastMove = moves.select(random);
+        lastRepair = -1;
+        if (lastMove == 0) {
+            return neighbourhood.step(solution, cost);
+        }
+        lastRepair = repairs.select(random);
+        return destroyAndRepair(solution, cost, destroyOperators.get(lastMove - 1),
+                repairOperators.get(lastRepair), random);
+    }
+
+    // Resultado del último paso, con el tiempo que tomó en el hilo de la isla
+    void record(AdaptiveWeights.Outcome outcome, double improvement, long cpuNanos) {
+        if (lastMove < 0) {
+            return;
+        }
+        moves.record(lastMove, outcome, improvement, cpuNanos);
+        if (lastRepair >= 0) {
+            repairs.record(lastRepair, outcome, improvement, cpuNanos);
+        }
+        lastMove = -1;
+        lastRepair = -1;
+    }
+
+    long getEvaluatedPlans() {
+        return evaluatedPlans;
+    }
+
+    List<OperatorStats> stats() {
+        List<OperatorStats> stats = new ArrayList<>(moves.stats());
+        stats.addAll(repairs.stats());
+        return stats;
+    }
+
+    Solution destroyAndRepair(Solution solution, SolutionCost cost, DestroyOperator destroy, RepairOperator repair,
+                              SplittableRandom random) {
+        cost.total(solution);
+        PartialSolution partial = new PartialSolution(solution);
+        int maxRemoved = Math.max(1, (int) Math.round(removalFraction * partial.deliveryCount()));
+        destroy.destroy(partial, 1 + random.nextInt(maxRemoved), random);
+        // Sin remociones o sin lugar para reinsertar, el paso no cambia nada
+        if (partial.removed().isEmpty() || !repair.repair(partial, random)) {
+            return solution;
+        }
+
+        Solution.Editor neighbour = solution.edit();
+        for (int p : partial.touchedPlans()) {
+            PlanState plan = planBuilder.apply(partial.basePlan(p).getTruck(), partial.deliveries(p));
+            neighbour.set(p, plan);
+            cost.set(p, evaluator.apply(plan));
+            evaluatedPlans++;
+        }
+        return neighbour.build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.odiparpack.transport_planning.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Selección por ruleta entre operadores con pesos adaptativos (Ropke y
+ * Pisinger): cada uso suma un puntaje según el resultado y, al cerrar cada
+ * segmento de usos, el peso se acerca al puntaje medio del segmento. También
+ * lleva las estadísticas de cada operador.
+ */
+final class AdaptiveWeights {
+
+    enum Outcome { NEW_BEST, IMPROVED, ACCEPTED, REJECTED }
+
+    // Puntajes por resultado: nuevo mejor, mejora la actual, aceptado sin mejorar
+    private static final double NEW_BEST_SCORE = 33;
+    private static final double IMPROVED_SCORE = 9;
+    private static final double ACCEPTED_SCORE = 13;
+    // Cuánto del peso anterior se reemplaza al cerrar un segmento
+    private static final double REACTION = 0.1;
+    // Ningún operador deja de elegirse del todo
+    private static final double MIN_WEIGHT = 0.05;
+
+    private final String[] names;
+    private final double[] weights;
+    private final double[] segmentScore;
+    private final int[] segmentUses;
+    private final int segmentLength;
+    private int usesInSegment;
+
+    private final long[] calls;
+    private final long[] accepted;
+    private final long[] improvements;
+    private final double[] improvement;
+    private final long[] cpuNanos;
+
+    AdaptiveWeights(String[] names, int segmentLength) {
+        int n = names.length;
+        this.names = names.clone();
+        this.weights = new double[n];
+        Arrays.fill(weights, 1.0);
+        this.segmentScore = new double[n];
+        this.segmentUses = new int[n];
+        this.segmentLength = Math.max(1, segmentLength);
+        this.calls = new long[n];
+        this.accepted = new long[n];
+        this.improvements = new long[n];
+        this.improvement = new double[n];
+        this.cpuNanos = new long[n];
+    }
+
+    int select(SplittableRandom random) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double r = random.nextDouble() * total;
+        for (int op = 0; op < weights.length; op++) {
+            r -= weights[op];
+            if (r < 0) {
+                return op;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    // improvement: baja del costo aumentado de la solución actual, 0 si no bajó
+    void record(int op, Outcome outcome, double improvement, long cpuNanos) {
+        calls[op]++;
+        this.cpuNanos[op] += cpuNanos;
+        segmentUses[op]++;
+        switch (outcome) {
+            case NEW_BEST -> segmentScore[op] += NEW_BEST_SCORE;
+            case IMPROVED -> segmentScore[op] += IMPROVED_SCORE;
+            case ACCEPTED -> segmentScore[op] += ACCEPTED_SCORE;
+            case REJECTED -> { }
+        }
+        if (outcome != Outcome.REJECTED) {
+            accepted[op]++;
+        }
+        if (improvement > 0) {
+            improvements[op]++;
+            this.improvement[op] += improvement;
+        }
+        if (++usesInSegment >= segmentLength) {
+            closeSegment();
+        }
+    }
+
+    List<OperatorStats> stats() {
+        List<OperatorStats> stats = new ArrayList<>(names.length);
+        for (int op = 0; op < names.length; op++) {
+            stats.add(new OperatorStats(names[op], calls[op], accepted[op], improvements[op], improvement[op],
+                    cpuNanos[op], weights[op]));
+        }
+        return stats;
+    }
+
+    // Los operadores que no se usaron en el segmento conservan su peso
+    private void closeSegment() {
+        for (int op = 0; op < weights.length; op++) {
+            if (segmentUses[op] > 0) {
+                double mean = segmentScore[op] / segmentUses[op];
+                weights[op] = Math.max(MIN_WEIGHT, (1 - REACTION) * weights[op] + REACTION * mean);
+            }
+            segmentScore[op] = 0;
+            segmentUses[op] = 0;
+        }
+        usesInSegment = 0;
+    }
+}
@@ -0,0 +1,246 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.routing.RoadGraph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Una cadena de recocido simulado con GLS. Cada isla tiene sus propias
+ * penalizaciones, su generador aleatorio y su vecindario, así que varias islas
+ * pueden avanzar en paralelo sin compartir estado mutable.
+ */
+final class AnnealingIsland {
+
+    private final int id;
+    private final RoadNetwork network;
+    private final ParallelNeighbourhood neighbourhood;
+    // null si cada iteración es un paso del vecindario
+    private final AdaptiveLargeNeighbourhood operators;
+    private final Function<PlanState, PlanEvaluation> evaluator;
+    private final SplittableRandom random;
+    private final double lambda;
+    private final double coolingRate;
+
+    // Penalización y uso por id de tramo del grafo
+    private final int[] penalties;
+    private final int[] segmentUsage;
+
+    private double temperature;
+    private Solution currentSolution;
+    private SolutionCost currentCost;
+    private double currentTime;
+    // La mejor solución se compara por el costo sin penalizaciones
+    private Solution bestSolution;
+    private double bestCost;
+
+    private int iterations;
+    private int lastImprovementIteration;
+    private TerminationReason terminationReason;
+    private int acceptedMoves;
+    private int improvements;
+    private int immigrants;
+    private long evaluatedPlans;
+
+    AnnealingIsland(int id, RoadNetwork network, SolverSettings settings, SplittableRandom random,
+                    ParallelNeighbourhood neighbourhood, AdaptiveLargeNeighbourhood operators,
+                    Function<PlanState, PlanEvaluation> evaluator, Solution initialSolution) {
+        this.id = id;
+        this.network = network;
+        this.neighbourhood = neighbourhood;
+        this.operators = operators;
+        this.evaluator = evaluator;
+        this.random = random;
+        this.lambda = settings.getLambda();
+        this.coolingRate = settings.getCoolingRate();
+        int edgeCount = network.getGraph().edgeCount();
+        this.penalties = new int[edgeCount];
+        this.segmentUsage = new int[edgeCount];
+        this.temperature = settings.getInitialTemperature();
+
+        adopt(initialSolution);
+        bestSolution = currentSolution;
+        bestCost = currentCost.baseTotal();
+    }
+
+    // Punto de partida distinto para cada isla
+    void perturb(int moves) {
+        for (int i = 0; i < moves; i++) {
+            SolutionCost cost = currentCost.copy();
+            currentSolution = neighbourhood.perturb(currentSolution, cost, random);
+            currentCost = cost;
+            currentTime = cost.total(currentSolution);
+        }
+        recordBest();
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    int iterationsWithoutImprovement() {
+        return iterations - lastImprovementIteration;
+    }
+
+    void stop(TerminationReason reason) {
+        terminationReason = reason;
+    }
+
+    void iterate() {
+        // CPU de la iteración: la del hilo de la isla más la que gastó el pool del vecindario
+        long cpuStart = CpuClock.now();
+        long poolCpuStart = neighbourhood.getPoolCpuNanos();
+        // Búsqueda local, o el operador que elija la capa adaptativa
+        SolutionCost newCost = currentCost.copy();
+        Solution newSolution = operators == null
+                ? neighbourhood.step(currentSolution, newCost)
+                : operators.step(currentSolution, newCost, random);
+        double newTime = newCost.total(newSolution);
+        evaluatedPlans += newCost.getEvaluatedPlans();
+
+        AdaptiveWeights.Outcome outcome = AdaptiveWeights.Outcome.REJECTED;
+        double improvement = 0;
+        // Un paso que no cambió nada no cuenta como aceptado
+        if (newSolution != currentSolution && accept(newTime, currentTime)) {
+            improvement = Math.max(0, currentTime - newTime);
+            currentSolution = newSolution;
+            currentCost = newCost;
+            currentTime = newTime;
+            acceptedMoves++;
+            if (recordBest()) {
+                outcome = AdaptiveWeights.Outcome.NEW_BEST;
+            } else {
+                outcome = improvement > 0 ? AdaptiveWeights.Outcome.IMPROVED : AdaptiveWeights.Outcome.ACCEPTED;
+            }
+        }
+        if (operators != null) {
+            long cpuNanos = CpuClock.now() - cpuStart + neighbourhood.getPoolCpuNanos() - poolCpuStart;
+            operators.record(outcome, improvement, cpuNanos);
+        }
+
+        // Reducir la temperatura; desde 1 en adelante la cadena solo acepta empeoramientos mínimos
+        temperature = Math.max(1.0, temperature * coolingRate);
+        iterations++;
+
+        // Actualizar penalizaciones (GLS)
+        updatePenalties(newSolution);
+    }
+
+    synchronized Solution getBestSolution() {
+        return bestSolution;
+    }
+
+    synchronized double getBestCost() {
+        return bestCost;
+    }
+
+    // Reemplaza la solución actual por la migrante si es mejor que la actual en costo real
+    void receive(Solution migrant, double migrantCost) {
+        if (migrantCost < currentCost.baseTotal()) {
+            adopt(migrant);
+            immigrants++;
+            recordBest();
+        }
+    }
+
+    IslandStats stats() {
+        long operatorPlans = operators == null ? 0 : operators.getEvaluatedPlans();
+        return new IslandStats(id, iterations, acceptedMoves, improvements, immigrants,
+                evaluatedPlans + neighbourhood.getEvaluatedPlans() + operatorPlans, neighbourhood.getCachedMoves(),
+                getBestCost(), terminationReason, operators == null ? List.of() : operators.stats());
+    }
+
+    private void adopt(Solution solution) {
+        // Las soluciones son inmutables: se comparte la migrante sin copiarla
+        currentSolution = solution;
+        // La solución se evalúa de nuevo con las penalizaciones propias de la isla
+        currentCost = new SolutionCost(lambda, edge -> penalties[edge], evaluator);
+        currentTime = currentCost.total(currentSolution);
+        evaluatedPlans += currentCost.getEvaluatedPlans();
+    }
+
+    // true si la solución actual pasó a ser la mejor de la isla
+    private synchronized boolean recordBest() {
+        if (currentCost.baseTotal() < bestCost) {
+            bestSolution = currentSolution;
+            bestCost = currentCost.baseTotal();
+            improvements++;
+            lastImprovementIteration = iterations;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean accept(double newTime, double currentTime) {
+        if (newTime < currentTime) {
+            return true; // Aceptar una mejor solución
+        }
+        // Aceptar una solución peor con cierta probabilidad
+        return random.nextDouble() < Math.exp((currentTime - newTime) / temperature);
+    }
+
+    // Actualización de GLS por utilidad: util(e) = costo(e) * uso(e) / (1 + p(e)) sobre los tramos de la
+    // solución; se penalizan los de utilidad máxima. Cada incremento se notifica al costo de la solución actual.
+    private void updatePenalties(Solution solution) {
+        RoadGraph graph = network.getGraph();
+        Arrays.fill(segmentUsage, 0);
+        for (int p = 0; p < solution.size(); p++) {
+            List<City> route = solution.get(p).getRoute();
+            for (int i = 0; i < route.size() - 1; i++) {
+                int edge = network.findEdge(route.get(i), route.get(i + 1));
+                if (edge >= 0) {
+                    segmentUsage[edge]++;
+                }
+            }
+        }
+
+        double maxUtility = 0.0;
+        for (int e = 0; e < segmentUsage.length; e++) {
+            if (segmentUsage[e] > 0) {
+                maxUtility = Math.max(maxUtility, featureUtility(graph, e));
+            }
+        }
+        if (maxUtility <= 0.0) {
+            return;
+        }
+        boolean[] penalised = new boolean[segmentUsage.length];
+        for (int e = 0; e < segmentUsage.length; e++) {
+            if (segmentUsage[e] > 0 && featureUtility(graph, e) >= maxUtility * (1 - 1e-9)) {
+                penalised[e] = true;
+            }
+        }
+        for (int e = 0; e < segmentUsage.length; e++) {
+            if (penalised[e]) {
+                penalties[e]++;
+                currentCost.penaltyIncremented(e);
+            }
+        }
+        // Los movimientos de los planes que pasan por un tramo penalizado cambiaron de costo
+        for (int p = 0; p < currentSolution.size(); p++) {
+            if (usesAny(currentSolution.get(p), penalised)) {
+                neighbourhood.unsettle(currentSolution.get(p));
+            }
+        }
+        // El costo aumentado de la solución actual cambió con las penalizaciones
+        currentTime = currentCost.total(currentSolution);
+    }
+
+    private boolean usesAny(PlanState plan, boolean[] edges) {
+        List<City> route = plan.getRoute();
+        for (int i = 0; i < route.size() - 1; i++) {
+            int edge = network.findEdge(route.get(i), route.get(i + 1));
+            if (edge >= 0 && edges[edge]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double featureUtility(RoadGraph graph, int edge) {
+        return graph.cost(edge) * segmentUsage[edge] / (1.0 + penalties[edge]);
+    }
+}
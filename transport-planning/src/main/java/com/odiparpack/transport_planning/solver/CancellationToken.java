@@ -0,0 +1,18 @@
+package com.odiparpack.transport_planning.solver;
+
+/**
+ * Permite detener una planificación en curso desde otro hilo. Las islas lo
+ * revisan entre iteraciones y terminan con la mejor solución encontrada.
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,70 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.routing.RoadGraph;
+
+/**
+ * Para cada ciudad de destino, los k destinos más cercanos en línea recta,
+ * sacados del índice espacial de la red. El vecindario solo combina entregas
+ * cuyos destinos están en la lista del otro, así que la cantidad de
+ * movimientos crece con k y no con el cuadrado de los pedidos.
+ */
+public final class CandidateLists {
+
+    private static final int[] NONE = new int[0];
+
+    private final RoadGraph graph;
+    // near[v]: destinos más cercanos a v, v incluido, ordenados por distancia; null si v no es destino
+    private final int[][] near;
+
+    private CandidateLists(RoadGraph graph, int[][] near) {
+        this.graph = graph;
+        this.near = near;
+    }
+
+    // Los destinos no cambian durante la búsqueda: los movimientos solo reparten los paquetes
+    public static CandidateLists build(RoadNetwork network, Solution solution, int k) {
+        RoadGraph graph = network.getGraph();
+        boolean[] destination = new boolean[graph.nodeCount()];
+        for (int p = 0; p < solution.size(); p++) {
+            for (PackageOrder pkg : solution.get(p).getDeliveries()) {
+                int node = graph.indexOf(pkg.getDestination());
+                if (node >= 0) {
+                    destination[node] = true;
+                }
+            }
+        }
+
+        int[][] near = new int[graph.nodeCount()][];
+        for (int v = 0; v < near.length; v++) {
+            if (destination[v]) {
+                // k vecinos además del propio destino
+                near[v] = network.getSpatialIndex().nearest(v, k + 1, u -> destination[u]);
+            }
+        }
+        return new CandidateLists(graph, near);
+    }
+
+    int nodeCount() {
+        return near.length;
+    }
+
+    // Nodo del destino del paquete, o -1 si no está en la red
+    int nodeOf(PackageOrder pkg) {
+        return graph.indexOf(pkg.getDestination());
+    }
+
+    int[] near(int node) {
+        return node < 0 || near[node] == null ? NONE : near[node];
+    }
+
+    boolean isNear(int from, int to) {
+        for (int v : near(from)) {
+            if (v == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.odiparpack.transport_planning.solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Tiempo de CPU del hilo actual en nanosegundos. Si la JVM no lo mide se usa
+ * el reloj de pared, así que las sumas siguen siendo comparables entre
+ * operadores aunque ya no descuenten las esperas.
+ */
+final class CpuClock {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+    private CpuClock() {
+    }
+
+    static long now() {
+        return SUPPORTED ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
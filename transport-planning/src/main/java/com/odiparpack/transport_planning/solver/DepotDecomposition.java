@@ -0,0 +1,255 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.ShortestPathResult;
+import com.odiparpack.transport_planning.model.Truck;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Descomposición por depósito: cada pedido se asigna al depósito más cercano
+ * por la red que todavía tenga capacidad, y los pedidos de cada depósito se
+ * resuelven con sus camiones en un hilo propio. Las soluciones se unen y una
+ * búsqueda global corta, con las listas de candidatos, mueve pedidos entre
+ * depósitos vecinos. Como cada subproblema solo ve sus pedidos, el tiempo
+ * crece con el volumen y no con su cuadrado. Mientras los depósitos buscan,
+ * cada mejora de uno se une con lo mejor de los demás y se publica en el
+ * incumbente global, que así se puede despachar en cualquier momento.
+ */
+public final class DepotDecomposition {
+
+    private final SolverContext context;
+    // Solución inicial de un grupo de camiones y sus pedidos
+    private final BiFunction<List<Truck>, List<PackageOrder>, Solution> constructor;
+    private final BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder;
+    private final Function<PlanState, PlanEvaluation> evaluator;
+
+    public DepotDecomposition(SolverContext context,
+                              BiFunction<List<Truck>, List<PackageOrder>, Solution> constructor,
+                              BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder,
+                              Function<PlanState, PlanEvaluation> evaluator) {
+        this.context = context;
+        this.constructor = constructor;
+        this.planBuilder = planBuilder;
+        this.evaluator = evaluator;
+    }
+
+    public IslandSolver.Result solve(List<Truck> trucks, List<PackageOrder> packages) {
+        // Los depósitos y la reparación heredan el plazo del contexto y se reparten lo que quede de él
+        SolverSettings settings = context.getSettings();
+        long deadline = context.getDeadlineMillis();
+        List<Depot> depots = cluster(trucks, packages);
+
+        Stitcher stitcher = new Stitcher(context.getIncumbent(), depots.size());
+        List<IslandSolver.Result> results = solveInParallel(depots, stitcher);
+        List<IslandStats> stats = new ArrayList<>();
+        for (IslandSolver.Result result : results) {
+            stats.addAll(result.getIslandStats());
+        }
+        // Al terminar, la última unión es la de las mejores soluciones de todos los depósitos
+        Solution stitched = stitcher.getSolution();
+        double stitchedCost = stitcher.getCost();
+        if (stitched == null) {
+            stitched = Solution.of(new ArrayList<>());
+            stitchedCost = 0;
+        }
+        context.getIncumbent().offer(stitched, stitchedCost);
+
+        // El costo objetivo es de la solución completa: solo se compara con la unión
+        if (depots.size() < 2 || settings.getRepairIterations() <= 0 || stitched.size() < 2
+                || stitchedCost <= settings.getTargetObjective() || System.currentTimeMillis() >= deadline) {
+            return new IslandSolver.Result(stitched, stitchedCost, stats);
+        }
+
+        // Reparación: una sola cadena, casi en descenso puro, limitada a movimientos entre destinos cercanos
+        SolverSettings repairSettings = settings.copy();
+        repairSettings.setIslands(1);
+        repairSettings.setMaxIterations(settings.getRepairIterations());
+        repairSettings.setInitialTemperature(1);
+        IslandSolver repair = new IslandSolver(context.withSettings(repairSettings), planBuilder, evaluator);
+        IslandSolver.Result repaired = repair.solve(stitched);
+        stats.addAll(repaired.getIslandStats());
+        return new IslandSolver.Result(repaired.getBestSolution(), repaired.getBestCost(), stats);
+    }
+
+    /**
+     * Agrupa los camiones por su ubicación y asigna cada pedido, en orden de
+     * fecha límite, al depósito más cercano por la red con capacidad libre; si
+     * ninguno tiene, al más cercano.
+     */
+    private List<Depot> cluster(List<Truck> trucks, List<PackageOrder> packages) {
+        RoadNetwork network = context.getNetwork();
+        Map<String, Depot> byLocation = new LinkedHashMap<>();
+        for (Truck truck : trucks) {
+            if (!truck.isAvailable() || !truck.isOperational(context.getSimulationStartTime())) {
+                continue;
+            }
+            Depot depot = byLocation.computeIfAbsent(truck.getCurrentLocation().getUbigeo(),
+                    ubigeo -> new Depot(truck.getCurrentLocation()));
+            depot.trucks.add(truck);
+            depot.freeCapacity += truck.getCapacity();
+        }
+        List<Depot> depots = new ArrayList<>(byLocation.values());
+        if (depots.isEmpty()) {
+            return depots;
+        }
+
+        Set<City> destinations = new LinkedHashSet<>();
+        for (PackageOrder pkg : packages) {
+            destinations.add(pkg.getDestination());
+        }
+        // Una búsqueda por depósito hacia todos los destinos
+        List<Map<City, ShortestPathResult>> distances = new ArrayList<>(depots.size());
+        for (Depot depot : depots) {
+            distances.add(network.calculateShortestPaths(depot.location, destinations, context.getSimulationStartTime()));
+        }
+
+        List<PackageOrder> byDeadline = new ArrayList<>(packages);
+        byDeadline.sort(Comparator.comparing(PackageOrder::getDeliveryDeadline));
+        for (PackageOrder pkg : byDeadline) {
+            Depot nearest = null;
+            Depot nearestWithRoom = null;
+            double nearestCost = Double.MAX_VALUE;
+            double nearestWithRoomCost = Double.MAX_VALUE;
+            for (int d = 0; d < depots.size(); d++) {
+                Depot depot = depots.get(d);
+                double cost = distances.get(d).get(pkg.getDestination()).getCost();
+                if (nearest == null || cost < nearestCost) {
+                    nearest = depot;
+                    nearestCost = cost;
+                }
+                if (depot.freeCapacity >= pkg.getQuantity() && (nearestWithRoom == null || cost < nearestWithRoomCost)) {
+                    nearestWithRoom = depot;
+                    nearestWithRoomCost = cost;
+                }
+            }
+            Depot chosen = nearestWithRoom != null ? nearestWithRoom : nearest;
+            chosen.packages.add(pkg);
+            chosen.freeCapacity -= pkg.getQuantity();
+        }
+        depots.removeIf(depot -> depot.packages.isEmpty());
+        return depots;
+    }
+
+    private List<IslandSolver.Result> solveInParallel(List<Depot> depots, Stitcher stitcher) {
+        if (depots.isEmpty()) {
+            return new ArrayList<>();
+        }
+        SolverSettings settings = context.getSettings();
+        // Los hilos y las islas se reparten entre los depósitos
+        SolverSettings depotSettings = settings.copy();
+        depotSettings.setParallelism(Math.max(1, settings.getParallelism() / depots.size()));
+        depotSettings.setIslands(Math.max(1, settings.getIslands() / depots.size()));
+        // Un depósito cubre solo parte de los pedidos y alcanzaría enseguida el objetivo global
+        depotSettings.setTargetObjective(Double.NEGATIVE_INFINITY);
+
+        ExecutorService executor = Executors.newFixedThreadPool(depots.size());
+        try {
+            List<Future<IslandSolver.Result>> futures = new ArrayList<>(depots.size());
+            for (int d = 0; d < depots.size(); d++) {
+                Depot depot = depots.get(d);
+                int index = d;
+                futures.add(executor.submit(() -> solveDepot(depot, depotSettings, stitcher, index)));
+            }
+            List<IslandSolver.Result> results = new ArrayList<>(depots.size());
+            for (Future<IslandSolver.Result> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Descomposición por depósito interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló el subproblema de un depósito", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private IslandSolver.Result solveDepot(Depot depot, SolverSettings depotSettings, Stitcher stitcher, int index) {
+        Solution initial = constructor.apply(depot.trucks, depot.packages);
+        if (initial.size() == 0) {
+            stitcher.update(index, initial, 0.0);
+            return new IslandSolver.Result(initial, 0.0, new ArrayList<>());
+        }
+        Incumbent depotIncumbent = new Incumbent((solution, cost) -> stitcher.update(index, solution, cost));
+        IslandSolver solver = new IslandSolver(context.forSubproblem(depotSettings, depotIncumbent), planBuilder, evaluator);
+        return solver.solve(initial);
+    }
+
+    /**
+     * Mejor solución de cada depósito. Cuando todos publicaron la suya, cada
+     * mejora de un depósito arma la unión y la ofrece al incumbente global; el
+     * costo de una solución es la suma de sus planes, así que el de la unión es
+     * la suma de los depósitos.
+     */
+    private static final class Stitcher {
+        private final Incumbent global;
+        private final Solution[] parts;
+        private final double[] costs;
+        private int published;
+        private Solution solution;
+        private double cost;
+
+        private Stitcher(Incumbent global, int depots) {
+            this.global = global;
+            this.parts = new Solution[depots];
+            this.costs = new double[depots];
+        }
+
+        private synchronized void update(int depot, Solution part, double partCost) {
+            if (parts[depot] == null) {
+                published++;
+            }
+            parts[depot] = part;
+            costs[depot] = partCost;
+            if (published < parts.length) {
+                return;
+            }
+            List<PlanState> plans = new ArrayList<>();
+            double total = 0;
+            for (int d = 0; d < parts.length; d++) {
+                for (int p = 0; p < parts[d].size(); p++) {
+                    plans.add(parts[d].get(p));
+                }
+                total += costs[d];
+            }
+            solution = Solution.of(plans);
+            cost = total;
+            global.offer(solution, cost);
+        }
+
+        private synchronized Solution getSolution() {
+            return solution;
+        }
+
+        private synchronized double getCost() {
+            return cost;
+        }
+    }
+
+    private static final class Depot {
+        private final City location;
+        private final List<Truck> trucks = new ArrayList<>();
+        private final List<PackageOrder> packages = new ArrayList<>();
+        private int freeCapacity;
+
+        private Depot(City location) {
+            this.location = location;
+        }
+    }
+}
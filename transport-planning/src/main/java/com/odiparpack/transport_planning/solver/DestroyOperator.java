@@ -0,0 +1,14 @@
+package com.odiparpack.transport_planning.solver;
+
+import java.util.SplittableRandom;
+
+/**
+ * Operador de remoción de ALNS: quita hasta count entregas de la solución
+ * parcial y las deja pendientes de reinsertar.
+ */
+interface DestroyOperator {
+
+    String name();
+
+    void destroy(PartialSolution partial, int count, SplittableRandom random);
+}
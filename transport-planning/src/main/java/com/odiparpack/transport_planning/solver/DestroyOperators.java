@@ -0,0 +1,124 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.RouteTimeline;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Operadores de remoción: al azar, por mayor tardanza y por cercanía a una
+ * entrega semilla. Los dos últimos ordenan las entregas por su criterio y
+ * eligen con sesgo hacia el principio de la lista (índice = y^p * n, con y
+ * uniforme), así que no repiten siempre la misma remoción.
+ */
+final class DestroyOperators {
+
+    // Sesgo de la elección: cuanto mayor, más se respeta el orden del criterio
+    private static final double WORST_BIAS = 3;
+    private static final double RELATED_BIAS = 6;
+
+    private DestroyOperators() {
+    }
+
+    static DestroyOperator random() {
+        return new DestroyOperator() {
+            @Override
+            public String name() {
+                return "remoción aleatoria";
+            }
+
+            @Override
+            public void destroy(PartialSolution partial, int count, SplittableRandom random) {
+                List<Assigned> assigned = assigned(partial);
+                removeBiased(partial, assigned, count, random, 1);
+            }
+        };
+    }
+
+    // Primero las entregas que llegan más tarde respecto de su fecha límite
+    static DestroyOperator worstLateness(RoadNetwork network, Date start) {
+        return new DestroyOperator() {
+            @Override
+            public String name() {
+                return "remoción por tardanza";
+            }
+
+            @Override
+            public void destroy(PartialSolution partial, int count, SplittableRandom random) {
+                List<Assigned> assigned = assigned(partial);
+                for (Assigned entry : assigned) {
+                    RouteTimeline timeline = partial.basePlan(entry.plan).getTimeline(network, start);
+                    entry.key = -(timeline.arrivalTimeAt(entry.pkg.getDestination()).getTime()
+                            - entry.pkg.getDeliveryDeadline().getTime());
+                }
+                assigned.sort(Comparator.comparingDouble(entry -> entry.key));
+                removeBiased(partial, assigned, count, random, WORST_BIAS);
+            }
+        };
+    }
+
+    // Una entrega al azar y las de destinos más cercanos a ella (remoción de Shaw por distancia)
+    static DestroyOperator related() {
+        return new DestroyOperator() {
+            @Override
+            public String name() {
+                return "remoción relacionada";
+            }
+
+            @Override
+            public void destroy(PartialSolution partial, int count, SplittableRandom random) {
+                List<Assigned> assigned = assigned(partial);
+                if (assigned.isEmpty()) {
+                    return;
+                }
+                City seed = assigned.get(random.nextInt(assigned.size())).pkg.getDestination();
+                for (Assigned entry : assigned) {
+                    entry.key = PartialSolution.distanceKm(seed, entry.pkg.getDestination());
+                }
+                assigned.sort(Comparator.comparingDouble(entry -> entry.key));
+                removeBiased(partial, assigned, count, random, RELATED_BIAS);
+            }
+        };
+    }
+
+    private static List<Assigned> assigned(PartialSolution partial) {
+        List<Assigned> assigned = new ArrayList<>(partial.deliveryCount());
+        for (int p = 0; p < partial.planCount(); p++) {
+            for (PackageOrder pkg : partial.deliveries(p)) {
+                assigned.add(new Assigned(p, pkg));
+            }
+        }
+        return assigned;
+    }
+
+    // Con bias 1 la elección es uniforme; las entregas que no se pueden quitar se descartan
+    private static void removeBiased(PartialSolution partial, List<Assigned> candidates, int count,
+                                     SplittableRandom random, double bias) {
+        int removed = 0;
+        while (removed < count && !candidates.isEmpty()) {
+            int index = (int) (Math.pow(random.nextDouble(), bias) * candidates.size());
+            Assigned entry = candidates.remove(index);
+            if (partial.remove(entry.plan, entry.pkg)) {
+                removed++;
+            }
+        }
+    }
+
+    private static final class Assigned {
+        private final int plan;
+        private final PackageOrder pkg;
+        // Criterio de orden del operador; menor va primero
+        private double key;
+
+        private Assigned(int plan, PackageOrder pkg) {
+            this.plan = plan;
+            this.pkg = pkg;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.odiparpack.transport_planning.solver;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Mejor solución conocida de una ejecución. Se puede leer en cualquier momento,
+ * incluso mientras las islas siguen buscando, para despachar un plan sin
+ * esperar a que termine la optimización.
+ */
+public final class Incumbent {
+
+    private Solution bestSolution;
+    private double bestCost = Double.MAX_VALUE;
+    private long improvedAtMillis;
+    // Se llama con cada solución que reemplaza a la mejor, dentro del bloqueo del incumbente
+    private final BiConsumer<Solution, Double> onImprovement;
+
+    public Incumbent() {
+        this((solution, cost) -> { });
+    }
+
+    Incumbent(BiConsumer<Solution, Double> onImprovement) {
+        this.onImprovement = onImprovement;
+    }
+
+    // Registra la solución si mejora a la actual; devuelve true si la reemplazó
+    public synchronized boolean offer(Solution solution, double cost) {
+        if (cost < bestCost) {
+            bestSolution = solution;
+            bestCost = cost;
+            improvedAtMillis = System.currentTimeMillis();
+            onImprovement.accept(solution, cost);
+            return true;
+        }
+        return false;
+    }
+
+    // null hasta que se publica la solución inicial
+    public synchronized Solution getBestSolution() {
+        return bestSolution;
+    }
+
+    public synchronized double getBestCost() {
+        return bestCost;
+    }
+
+    public synchronized long getImprovedAtMillis() {
+        return improvedAtMillis;
+    }
+}
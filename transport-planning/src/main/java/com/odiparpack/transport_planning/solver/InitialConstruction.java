@@ -0,0 +1,374 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.ShortestPathResult;
+import com.odiparpack.transport_planning.model.Truck;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Solución inicial por inserción con arrepentimiento (regret) y best-fit.
+ * Los pedidos se agrupan por día de vencimiento y destino; dentro de cada día
+ * se atiende primero el grupo con mayor diferencia de costo entre su mejor y
+ * su segundo mejor depósito factible (con capacidad libre para todo el grupo).
+ * Al llenarse un depósito se recalcula el arrepentimiento de los grupos que
+ * dejaron de caber en él, así que el orden cambia a medida que se cargan los
+ * camiones. Cada pedido va al camión del depósito con menos
+ * capacidad libre que igual le alcance, prefiriendo los que ya visitan el
+ * destino. Los costos depósito → destino salen de una búsqueda por depósito y
+ * las rutas de los camiones se arman en paralelo.
+ */
+public final class InitialConstruction {
+
+    private static final long MILLIS_PER_DAY = 24L * 3600 * 1000;
+
+    private final SolverContext context;
+    private final BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder;
+    // Pedidos, o lo que queda de ellos tras repartirlos, que no entraron en ningún camión
+    private final List<PackageOrder> unassigned = new ArrayList<>();
+
+    public InitialConstruction(SolverContext context, BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder) {
+        this.context = context;
+        this.planBuilder = planBuilder;
+    }
+
+    // No modifica la lista de pedidos; los pedidos que se reparten entre camiones quedan con la cantidad restante
+    public Solution build(List<Truck> trucks, List<PackageOrder> packages) {
+        unassigned.clear();
+        List<Depot> depots = depots(trucks);
+        List<TruckLoad> loads = new ArrayList<>();
+        depots.forEach(depot -> loads.addAll(depot.trucks));
+        if (depots.isEmpty()) {
+            unassigned.addAll(packages);
+            return Solution.of(new ArrayList<>());
+        }
+
+        List<Bucket> buckets = buckets(packages);
+        Set<City> destinations = new LinkedHashSet<>();
+        for (Bucket bucket : buckets) {
+            destinations.add(bucket.destination);
+        }
+        // Costos depósito → destino: una búsqueda por depósito
+        for (Depot depot : depots) {
+            Map<City, ShortestPathResult> paths = context.getNetwork()
+                    .calculateShortestPaths(depot.location, destinations, context.getSimulationStartTime());
+            for (Map.Entry<City, ShortestPathResult> entry : paths.entrySet()) {
+                depot.costTo.put(entry.getKey().getUbigeo(), entry.getValue().getCost());
+            }
+        }
+        for (Bucket bucket : buckets) {
+            bucket.rankDepots(depots);
+        }
+        // Los días se atienden en orden; dentro de cada uno, por arrepentimiento
+        int from = 0;
+        while (from < buckets.size()) {
+            int to = from;
+            while (to < buckets.size() && buckets.get(to).day == buckets.get(from).day) {
+                to++;
+            }
+            insertByRegret(buckets.subList(from, to));
+            from = to;
+        }
+        return buildPlans(loads);
+    }
+
+    /**
+     * Inserta los grupos de un día sacando siempre el de mayor arrepentimiento
+     * de un montículo. Tras cada inserción solo cambia la capacidad libre de
+     * los depósitos que recibieron carga, así que solo se recalculan los grupos
+     * que cabían en ellos y ya no caben; sus entradas viejas quedan obsoletas
+     * por la versión.
+     */
+    private void insertByRegret(List<Bucket> day) {
+        PriorityQueue<RegretEntry> heap = new PriorityQueue<>(Comparator.<RegretEntry>comparingDouble(entry -> entry.regret)
+                .reversed()
+                .thenComparing(entry -> entry.bucket.destination.getUbigeo()));
+        List<Bucket> open = new ArrayList<>(day);
+        for (Bucket bucket : open) {
+            heap.add(bucket.rekey());
+        }
+        while (!heap.isEmpty()) {
+            RegretEntry entry = heap.poll();
+            Bucket bucket = entry.bucket;
+            if (entry.version != bucket.version) {
+                continue;
+            }
+            open.remove(bucket);
+            Map<Depot, Integer> freeBefore = new HashMap<>();
+            for (Depot depot : bucket.depots) {
+                freeBefore.put(depot, depot.freeCapacity);
+            }
+            for (PackageOrder pkg : bucket.orders) {
+                insert(bucket, pkg);
+            }
+            for (Bucket other : open) {
+                if (other.fitChanged(freeBefore)) {
+                    heap.add(other.rekey());
+                }
+            }
+        }
+    }
+
+    private void insert(Bucket bucket, PackageOrder pkg) {
+        String ubigeo = bucket.destination.getUbigeo();
+        // Primero un solo camión que lleve todo el pedido, en orden de costo del depósito
+        for (Depot depot : bucket.depots) {
+            TruckLoad load = depot.bestFit(pkg.getQuantity(), ubigeo);
+            if (load != null) {
+                depot.load(load, pkg, ubigeo);
+                return;
+            }
+        }
+        // Si ninguno alcanza, se reparte entre los camiones con más espacio de los depósitos más baratos
+        for (Depot depot : bucket.depots) {
+            TruckLoad load;
+            while ((load = depot.largest()) != null) {
+                if (load.remaining >= pkg.getQuantity()) {
+                    depot.load(load, pkg, ubigeo);
+                    return;
+                }
+                depot.load(load, split(pkg, load.remaining), ubigeo);
+            }
+        }
+        // Sin capacidad en ningún depósito: el pedido (o lo que queda de él) no se asigna
+        unassigned.add(pkg);
+    }
+
+    // Lo que no se asignó en la última construcción, con la cantidad que quedó sin camión
+    public List<PackageOrder> getUnassigned() {
+        return new ArrayList<>(unassigned);
+    }
+
+    // Parte de un pedido que se asigna a otro camión; el original se queda con el resto
+    private static PackageOrder split(PackageOrder pkg, int quantity) {
+        PackageOrder partialPkg = new PackageOrder();
+        partialPkg.setOrderId(pkg.getOrderId());
+        partialPkg.setQuantity(quantity);
+        partialPkg.setDestination(pkg.getDestination());
+        partialPkg.setOrderDate(pkg.getOrderDate());
+        partialPkg.setDeliveryDeadline(pkg.getDeliveryDeadline());
+        pkg.setQuantity(pkg.getQuantity() - quantity);
+        return partialPkg;
+    }
+
+    // Las rutas de cada camión son independientes, así que se arman en paralelo
+    private Solution buildPlans(List<TruckLoad> loads) {
+        List<TruckLoad> used = new ArrayList<>();
+        for (TruckLoad load : loads) {
+            if (!load.deliveries.isEmpty()) {
+                used.add(load);
+            }
+        }
+        used.sort(Comparator.comparingInt(load -> load.order));
+        PlanState[] plans = new PlanState[used.size()];
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, context.getSettings().getParallelism()));
+        try {
+            pool.submit(() -> IntStream.range(0, plans.length).parallel()
+                    .forEach(i -> plans[i] = planBuilder.apply(used.get(i).truck, used.get(i).deliveries))).join();
+        } finally {
+            pool.shutdown();
+        }
+        return Solution.of(List.of(plans));
+    }
+
+    private List<Depot> depots(List<Truck> trucks) {
+        Map<String, Depot> byLocation = new LinkedHashMap<>();
+        for (int i = 0; i < trucks.size(); i++) {
+            Truck truck = trucks.get(i);
+            // Verificar si el camión está disponible (sin mantenimiento ni averías)
+            if (!truck.isAvailable() || !truck.isOperational(context.getSimulationStartTime())) {
+                continue;
+            }
+            Depot depot = byLocation.computeIfAbsent(truck.getCurrentLocation().getUbigeo(),
+                    ubigeo -> new Depot(truck.getCurrentLocation()));
+            depot.add(new TruckLoad(truck, i));
+        }
+        return new ArrayList<>(byLocation.values());
+    }
+
+    // Pedidos agrupados por día de vencimiento y destino, cada grupo en orden de vencimiento
+    private static List<Bucket> buckets(List<PackageOrder> packages) {
+        List<PackageOrder> byDeadline = new ArrayList<>(packages);
+        byDeadline.sort(Comparator.comparing(PackageOrder::getDeliveryDeadline));
+        Map<String, Bucket> buckets = new LinkedHashMap<>();
+        for (PackageOrder pkg : byDeadline) {
+            long day = Math.floorDiv(pkg.getDeliveryDeadline().getTime(), MILLIS_PER_DAY);
+            buckets.computeIfAbsent(day + "/" + pkg.getDestination().getUbigeo(),
+                    key -> new Bucket(day, pkg.getDestination())).orders.add(pkg);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private static final class Bucket {
+        private final long day;
+        private final City destination;
+        private final List<PackageOrder> orders = new ArrayList<>();
+        // Depósitos del más barato al más caro para este destino
+        private List<Depot> depots;
+        // Sube con cada recálculo; las entradas del montículo con otra versión se descartan
+        private int version;
+
+        private Bucket(long day, City destination) {
+            this.day = day;
+            this.destination = destination;
+        }
+
+        private void rankDepots(List<Depot> all) {
+            String ubigeo = destination.getUbigeo();
+            depots = new ArrayList<>(all);
+            depots.sort(Comparator.comparingDouble(depot -> depot.cost(ubigeo)));
+        }
+
+        private int quantity() {
+            int quantity = 0;
+            for (PackageOrder pkg : orders) {
+                quantity += pkg.getQuantity();
+            }
+            return quantity;
+        }
+
+        private boolean fits(Depot depot, int freeCapacity) {
+            return freeCapacity >= quantity() && depot.cost(destination.getUbigeo()) < Double.MAX_VALUE;
+        }
+
+        /**
+         * Diferencia de costo entre el segundo y el primer depósito factible.
+         * Con uno solo es máxima: si espera, puede quedarse sin lugar. Sin
+         * ninguno es negativa y el grupo va al final, repartido donde quede espacio.
+         */
+        private double regret() {
+            String ubigeo = destination.getUbigeo();
+            double best = -1;
+            for (Depot depot : depots) {
+                if (!fits(depot, depot.freeCapacity)) {
+                    continue;
+                }
+                if (best < 0) {
+                    best = depot.cost(ubigeo);
+                } else {
+                    return depot.cost(ubigeo) - best;
+                }
+            }
+            return best < 0 ? -1 : Double.MAX_VALUE;
+        }
+
+        private RegretEntry rekey() {
+            return new RegretEntry(this, ++version, regret());
+        }
+
+        // true si algún depósito que recibió carga dejó de tener lugar para el grupo
+        private boolean fitChanged(Map<Depot, Integer> freeBefore) {
+            for (Map.Entry<Depot, Integer> entry : freeBefore.entrySet()) {
+                Depot depot = entry.getKey();
+                if (depot.freeCapacity != entry.getValue() && fits(depot, entry.getValue()) != fits(depot, depot.freeCapacity)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class RegretEntry {
+        private final Bucket bucket;
+        private final int version;
+        private final double regret;
+
+        private RegretEntry(Bucket bucket, int version, double regret) {
+            this.bucket = bucket;
+            this.version = version;
+            this.regret = regret;
+        }
+    }
+
+    private static final class Depot {
+        private final City location;
+        private final List<TruckLoad> trucks = new ArrayList<>();
+        // Camiones con espacio, de menor a mayor capacidad libre
+        private final TreeSet<TruckLoad> byRemaining = new TreeSet<>(
+                Comparator.<TruckLoad>comparingInt(load -> load.remaining).thenComparingInt(load -> load.order));
+        // Camiones que ya visitan cada destino
+        private final Map<String, List<TruckLoad>> serving = new HashMap<>();
+        private final Map<String, Double> costTo = new HashMap<>();
+        // Suma del espacio libre de sus camiones
+        private int freeCapacity;
+
+        private Depot(City location) {
+            this.location = location;
+        }
+
+        private void add(TruckLoad load) {
+            trucks.add(load);
+            freeCapacity += load.remaining;
+            if (load.remaining > 0) {
+                byRemaining.add(load);
+            }
+        }
+
+        private double cost(String ubigeo) {
+            return costTo.getOrDefault(ubigeo, Double.MAX_VALUE);
+        }
+
+        // Camión con menos espacio libre que alcance para quantity, prefiriendo los que ya van al destino
+        private TruckLoad bestFit(int quantity, String ubigeo) {
+            TruckLoad best = null;
+            for (TruckLoad load : serving.getOrDefault(ubigeo, List.of())) {
+                if (load.remaining >= quantity && (best == null || load.remaining < best.remaining)) {
+                    best = load;
+                }
+            }
+            return best != null ? best : byRemaining.ceiling(TruckLoad.probe(quantity));
+        }
+
+        private TruckLoad largest() {
+            return byRemaining.isEmpty() ? null : byRemaining.last();
+        }
+
+        private void load(TruckLoad load, PackageOrder pkg, String ubigeo) {
+            byRemaining.remove(load);
+            load.remaining -= pkg.getQuantity();
+            freeCapacity -= pkg.getQuantity();
+            load.deliveries.add(pkg);
+            if (load.remaining > 0) {
+                byRemaining.add(load);
+            }
+            List<TruckLoad> visitors = serving.computeIfAbsent(ubigeo, key -> new ArrayList<>());
+            if (!visitors.contains(load)) {
+                visitors.add(load);
+            }
+        }
+    }
+
+    private static final class TruckLoad {
+        private final Truck truck;
+        // Posición en la lista de camiones: desempata y fija el orden de los planes
+        private final int order;
+        private int remaining;
+        private final List<PackageOrder> deliveries = new ArrayList<>();
+
+        private TruckLoad(Truck truck, int order) {
+            this.truck = truck;
+            this.order = order;
+            this.remaining = truck == null ? 0 : truck.getCapacity();
+        }
+
+        // Valor de búsqueda para ceiling(): va antes que cualquier camión con el mismo espacio libre
+        private static TruckLoad probe(int remaining) {
+            TruckLoad probe = new TruckLoad(null, -1);
+            probe.remaining = remaining;
+            return probe;
+        }
+    }
+}
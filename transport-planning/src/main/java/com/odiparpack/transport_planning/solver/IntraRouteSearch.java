@@ -0,0 +1,154 @@
+package com.odiparpack.transport_planning.solver;
+
+/**
+ * Mejora el orden de las paradas de un camión con 2-opt y Or-opt sobre una
+ * matriz de costos parada a parada, sin nuevas búsquedas en el grafo. La
+ * parada 0 es la ciudad de salida y el recorrido vuelve a ella. La matriz
+ * puede ser asimétrica: el costo de recorrer un tramo al revés sale de sumas
+ * prefijas, así que cada movimiento se puntúa en tiempo constante. Los costos
+ * no dependen de la hora de salida ni de las fechas límite: quien llama debe
+ * validar el orden resultante con su propia evaluación.
+ */
+public final class IntraRouteSearch {
+
+    // Costo con el que se reemplazan los pares de paradas sin camino
+    public static final double UNREACHABLE = 1e7;
+
+    private static final double EPSILON = 1e-9;
+    // Or-opt mueve segmentos de 1 a 3 paradas; con 1 es un relocate
+    private static final int MAX_SEGMENT = 3;
+
+    private final double[][] cost;
+    // Recorrido cerrado: tour[0] = tour[n] = 0
+    private final int[] tour;
+    private final double[] forward;
+    private final double[] backward;
+
+    private IntraRouteSearch(double[][] cost, int[] initialOrder) {
+        this.cost = cost;
+        int n = initialOrder.length;
+        this.tour = new int[n + 1];
+        System.arraycopy(initialOrder, 0, tour, 0, n);
+        this.forward = new double[n + 1];
+        this.backward = new double[n + 1];
+    }
+
+    /**
+     * Devuelve el orden mejorado de las paradas empezando por la 0 (sin repetir
+     * la vuelta). initialOrder debe empezar por 0; se aplica el mejor
+     * movimiento de cada pasada hasta que ninguno mejora o se agotan las pasadas.
+     */
+    public static int[] improve(double[][] cost, int[] initialOrder, int maxPasses) {
+        if (initialOrder.length < 3) {
+            return initialOrder.clone();
+        }
+        IntraRouteSearch search = new IntraRouteSearch(cost, initialOrder);
+        for (int pass = 0; pass < maxPasses; pass++) {
+            if (!search.applyBestMove()) {
+                break;
+            }
+        }
+        int[] order = new int[initialOrder.length];
+        System.arraycopy(search.tour, 0, order, 0, order.length);
+        return order;
+    }
+
+    // Costo del recorrido cerrado que sigue el orden dado
+    public static double tourCost(double[][] cost, int[] order) {
+        double total = 0;
+        for (int k = 0; k < order.length; k++) {
+            total += cost[order[k]][order[(k + 1) % order.length]];
+        }
+        return total;
+    }
+
+    private boolean applyBestMove() {
+        int n = tour.length - 1;
+        updatePrefixSums();
+
+        double bestDelta = -EPSILON;
+        int bestType = -1;
+        int bestA = 0;
+        int bestB = 0;
+        int bestC = 0;
+
+        // 2-opt: invertir las posiciones i..j
+        for (int i = 1; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double delta = arc(i - 1, j) + arc(i, j + 1) - arc(i - 1, i) - arc(j, j + 1)
+                        + (backward[j] - backward[i]) - (forward[j] - forward[i]);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    bestType = 0;
+                    bestA = i;
+                    bestB = j;
+                }
+            }
+        }
+
+        // Or-opt: llevar las posiciones s..e entre p y p + 1, sin invertirlas
+        for (int s = 1; s < n; s++) {
+            for (int e = s; e < Math.min(n, s + MAX_SEGMENT); e++) {
+                double removal = arc(s - 1, s) + arc(e, e + 1) - arc(s - 1, e + 1);
+                for (int p = 0; p < n; p++) {
+                    if (p >= s - 1 && p <= e) {
+                        continue;
+                    }
+                    double delta = arc(p, s) + arc(e, p + 1) - arc(p, p + 1) - removal;
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestType = 1;
+                        bestA = s;
+                        bestB = e;
+                        bestC = p;
+                    }
+                }
+            }
+        }
+
+        if (bestType == 0) {
+            reverse(bestA, bestB);
+        } else if (bestType == 1) {
+            moveSegment(bestA, bestB, bestC);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    // Costo del arco entre las paradas en las posiciones a y b del recorrido
+    private double arc(int a, int b) {
+        return cost[tour[a]][tour[b]];
+    }
+
+    // forward[k]: costo de ir de la posición 0 a la k; backward[k]: lo mismo recorriendo cada arco al revés
+    private void updatePrefixSums() {
+        for (int k = 0; k + 1 < tour.length; k++) {
+            forward[k + 1] = forward[k] + arc(k, k + 1);
+            backward[k + 1] = backward[k] + arc(k + 1, k);
+        }
+    }
+
+    private void reverse(int i, int j) {
+        while (i < j) {
+            int stop = tour[i];
+            tour[i++] = tour[j];
+            tour[j--] = stop;
+        }
+    }
+
+    private void moveSegment(int s, int e, int p) {
+        int length = e - s + 1;
+        int[] segment = new int[length];
+        System.arraycopy(tour, s, segment, 0, length);
+        if (p > e) {
+            // El segmento va más adelante: se corren hacia atrás las posiciones e + 1..p
+            System.arraycopy(tour, e + 1, tour, s, p - e);
+            System.arraycopy(segment, 0, tour, p - length + 1, length);
+        } else {
+            // El segmento va más atrás: se corren hacia adelante las posiciones p + 1..s - 1
+            System.arraycopy(tour, p + 1, tour, p + 1 + length, s - p - 1);
+            System.arraycopy(segment, 0, tour, p + 1, length);
+        }
+    }
+}
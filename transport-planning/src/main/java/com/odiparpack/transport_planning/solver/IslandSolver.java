@@ -0,0 +1,200 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.Truck;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Modelo de islas: varias cadenas de recocido simulado con GLS avanzan en
+ * paralelo, cada una con su SplittableRandom derivado de la semilla, y cada
+ * cierto número de iteraciones intercambian su mejor solución a través de un
+ * mejor global. Cada isla se detiene según la política de término de
+ * SolverSettings (iteraciones, plazo del contexto, ventana sin mejora u
+ * objetivo alcanzado) o cuando se cancela la ejecución; la mejor
+ * solución se publica en el Incumbent del contexto a medida que mejora. Con
+ * varias islas el resultado depende del momento de las migraciones, así que
+ * solo es reproducible con una.
+ */
+public final class IslandSolver {
+
+    private final RoadNetwork network;
+    private final Date startTime;
+    private final SolverSettings settings;
+    private final BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder;
+    private final Function<PlanState, PlanEvaluation> evaluator;
+    private final CancellationToken cancellationToken;
+    private final long deadline;
+    // Mejor solución publicada por cualquier isla
+    private final Incumbent incumbent;
+
+    public IslandSolver(SolverContext context,
+                        BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder,
+                        Function<PlanState, PlanEvaluation> evaluator) {
+        this.network = context.getNetwork();
+        this.startTime = context.getSimulationStartTime();
+        this.settings = context.getSettings();
+        this.cancellationToken = context.getCancellationToken();
+        this.incumbent = context.getIncumbent();
+        this.deadline = context.getDeadlineMillis();
+        this.planBuilder = planBuilder;
+        this.evaluator = evaluator;
+    }
+
+    public Result solve(Solution initialSolution) {
+        settings.validate();
+        int islandCount = Math.max(1, settings.getIslands());
+        int threadsPerIsland = Math.max(1, settings.getParallelism() / islandCount);
+
+        // Listas de candidatos compartidas por las islas; son de solo lectura
+        CandidateLists candidates = settings.getCandidateNeighbours() > 0
+                ? CandidateLists.build(network, initialSolution, settings.getCandidateNeighbours())
+                : null;
+
+        SplittableRandom root = new SplittableRandom(settings.getSeed());
+        List<AnnealingIsland> islands = new ArrayList<>(islandCount);
+        List<ParallelNeighbourhood> neighbourhoods = new ArrayList<>(islandCount);
+        try {
+            for (int i = 0; i < islandCount; i++) {
+                ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(threadsPerIsland, planBuilder, evaluator, candidates,
+                        settings.isDontLookBits(), settings.getMoveCacheEntries());
+                neighbourhoods.add(neighbourhood);
+                AdaptiveLargeNeighbourhood operators = settings.isAdaptiveOperators()
+                        ? new AdaptiveLargeNeighbourhood(network, startTime, settings, neighbourhood, planBuilder, evaluator)
+                        : null;
+                AnnealingIsland island = new AnnealingIsland(i, network, settings, root.split(), neighbourhood, operators,
+                        evaluator, initialSolution);
+                // La primera isla parte de la solución constructiva tal cual
+                if (i > 0) {
+                    island.perturb(settings.getPerturbationMoves());
+                }
+                islands.add(island);
+                publish(island);
+            }
+
+            if (islandCount == 1) {
+                run(islands.get(0));
+            } else {
+                runInParallel(islands);
+            }
+        } finally {
+            neighbourhoods.forEach(ParallelNeighbourhood::close);
+        }
+
+        List<IslandStats> stats = new ArrayList<>(islandCount);
+        for (AnnealingIsland island : islands) {
+            publish(island);
+            stats.add(island.stats());
+        }
+        return new Result(incumbent.getBestSolution(), incumbent.getBestCost(), stats);
+    }
+
+    private void runInParallel(List<AnnealingIsland> islands) {
+        ExecutorService executor = Executors.newFixedThreadPool(islands.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>(islands.size());
+            for (AnnealingIsland island : islands) {
+                futures.add(executor.submit(() -> run(island)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Búsqueda por islas interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló una isla de la búsqueda", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(AnnealingIsland island) {
+        int migrationInterval = Math.max(1, settings.getMigrationInterval());
+        TerminationReason reason;
+        while ((reason = checkTermination(island)) == null) {
+            island.iterate();
+            // El incumbente se mantiene al día en cada iteración para poder despacharlo en cualquier momento
+            publish(island);
+            if (island.getIterations() % migrationInterval == 0) {
+                migrate(island);
+            }
+        }
+        island.stop(reason);
+    }
+
+    // null mientras la isla deba seguir iterando
+    private TerminationReason checkTermination(AnnealingIsland island) {
+        if (cancellationToken.isCancelled()) {
+            return TerminationReason.CANCELLED;
+        }
+        if (incumbent.getBestCost() <= settings.getTargetObjective()) {
+            return TerminationReason.TARGET_REACHED;
+        }
+        if (System.currentTimeMillis() >= deadline) {
+            return TerminationReason.TIME_BUDGET;
+        }
+        if (settings.getMaxIterations() > 0 && island.getIterations() >= settings.getMaxIterations()) {
+            return TerminationReason.MAX_ITERATIONS;
+        }
+        if (settings.getNoImprovementIterations() > 0
+                && island.iterationsWithoutImprovement() >= settings.getNoImprovementIterations()) {
+            return TerminationReason.NO_IMPROVEMENT;
+        }
+        return null;
+    }
+
+    // Envía a la isla la mejor solución global si es mejor que la suya
+    private void migrate(AnnealingIsland island) {
+        Solution migrant;
+        double migrantCost;
+        synchronized (incumbent) {
+            migrant = incumbent.getBestSolution();
+            migrantCost = incumbent.getBestCost();
+        }
+        if (migrantCost < island.getBestCost()) {
+            island.receive(migrant, migrantCost);
+        }
+    }
+
+    private void publish(AnnealingIsland island) {
+        synchronized (incumbent) {
+            incumbent.offer(island.getBestSolution(), island.getBestCost());
+        }
+    }
+
+    public static final class Result {
+        private final Solution bestSolution;
+        private final double bestCost;
+        private final List<IslandStats> islandStats;
+
+        Result(Solution bestSolution, double bestCost, List<IslandStats> islandStats) {
+            this.bestSolution = bestSolution;
+            this.bestCost = bestCost;
+            this.islandStats = islandStats;
+        }
+
+        public Solution getBestSolution() {
+            return bestSolution;
+        }
+
+        // Costo sin penalizaciones de GLS
+        public double getBestCost() {
+            return bestCost;
+        }
+
+        public List<IslandStats> getIslandStats() {
+            return islandStats;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.odiparpack.transport_planning.solver;
+
+import java.util.List;
+
+/**
+ * Estadísticas de una isla al terminar la búsqueda.
+ */
+public final class IslandStats {
+
+    private final int island;
+    private final int iterations;
+    private final int acceptedMoves;
+    private final int improvements;
+    private final int immigrants;
+    private final long evaluatedPlans;
+    private final long cachedMoves;
+    private final double bestCost;
+    private final TerminationReason terminationReason;
+    // Vacía si la isla no usó los operadores adaptativos
+    private final List<OperatorStats> operatorStats;
+
+    IslandStats(int island, int iterations, int acceptedMoves, int improvements, int immigrants, long evaluatedPlans,
+                long cachedMoves, double bestCost, TerminationReason terminationReason, List<OperatorStats> operatorStats) {
+        this.island = island;
+        this.iterations = iterations;
+        this.acceptedMoves = acceptedMoves;
+        this.improvements = improvements;
+        this.immigrants = immigrants;
+        this.evaluatedPlans = evaluatedPlans;
+        this.cachedMoves = cachedMoves;
+        this.bestCost = bestCost;
+        this.terminationReason = terminationReason;
+        this.operatorStats = List.copyOf(operatorStats);
+    }
+
+    public int getIsland() {
+        return island;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getAcceptedMoves() {
+        return acceptedMoves;
+    }
+
+    public int getImprovements() {
+        return improvements;
+    }
+
+    // Veces que la isla adoptó la mejor solución global
+    public int getImmigrants() {
+        return immigrants;
+    }
+
+    public long getEvaluatedPlans() {
+        return evaluatedPlans;
+    }
+
+    // Movimientos del vecindario puntuados con planes del caché
+    public long getCachedMoves() {
+        return cachedMoves;
+    }
+
+    public double getBestCost() {
+        return bestCost;
+    }
+
+    public TerminationReason getTerminationReason() {
+        return terminationReason;
+    }
+
+    public List<OperatorStats> getOperatorStats() {
+        return operatorStats;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Isla %d: %d iteraciones, %d aceptadas, %d mejoras, %d migraciones recibidas, %d planes evaluados, %d movimientos del caché, mejor costo %.2f, fin por %s",
+                island, iterations, acceptedMoves, improvements, immigrants, evaluatedPlans, cachedMoves, bestCost, terminationReason);
+    }
+}
@@ -0,0 +1,99 @@
+package com.odiparpack.transport_planning.solver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Movimientos ya puntuados, por (plan, plan, movimiento). Los PlanState son
+ * inmutables y un plan que cambia es un objeto nuevo, así que la identidad del
+ * objeto hace de versión del plan: mientras ninguno de los dos camiones cambie,
+ * los planes armados y sus evaluaciones siguen valiendo. Solo el delta se
+ * recalcula, porque depende de las penalizaciones vigentes. Cada entrada
+ * retiene los dos planes armados, así que el caché tiene un máximo de entradas
+ * y descarta las usadas hace más tiempo; con 0 no guarda nada.
+ */
+final class MoveCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final int maxEntries;
+    private final Map<Key, NeighbourhoodMove> entries;
+
+    MoveCache(int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+        // Orden de acceso: la entrada más antigua es la menos usada
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, NeighbourhoodMove> eldest) {
+                return size() > MoveCache.this.maxEntries;
+            }
+        };
+    }
+
+    // Copia en move los planes y evaluaciones guardados; false si no estaba
+    boolean fill(NeighbourhoodMove move, Solution solution) {
+        if (maxEntries == 0) {
+            return false;
+        }
+        NeighbourhoodMove cached = entries.get(key(move, solution));
+        if (cached == null) {
+            return false;
+        }
+        move.newPlanA = cached.newPlanA;
+        move.newPlanB = cached.newPlanB;
+        move.evaluationA = cached.evaluationA;
+        move.evaluationB = cached.evaluationB;
+        return true;
+    }
+
+    void put(NeighbourhoodMove move, Solution solution) {
+        if (maxEntries == 0) {
+            return;
+        }
+        entries.put(key(move, solution), move);
+    }
+
+    // Descarta los movimientos de planes que ya no están en la solución; current es un conjunto por identidad
+    void retainPlans(Set<PlanState> current) {
+        entries.keySet().removeIf(key -> !current.contains(key.planA) || !current.contains(key.planB));
+    }
+
+    private static Key key(NeighbourhoodMove move, Solution solution) {
+        return new Key(solution.get(move.planA), solution.get(move.planB), move.type, move.deliveryA, move.deliveryB);
+    }
+
+    private static final class Key {
+        private final PlanState planA;
+        private final PlanState planB;
+        private final NeighbourhoodMove.Type type;
+        private final int deliveryA;
+        private final int deliveryB;
+
+        private Key(PlanState planA, PlanState planB, NeighbourhoodMove.Type type, int deliveryA, int deliveryB) {
+            this.planA = planA;
+            this.planB = planB;
+            this.type = type;
+            this.deliveryA = deliveryA;
+            this.deliveryB = deliveryB;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return planA == other.planA && planB == other.planB && type == other.type
+                    && deliveryA == other.deliveryA && deliveryB == other.deliveryB;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(planA);
+            hash = 31 * hash + System.identityHashCode(planB);
+            hash = 31 * hash + type.ordinal();
+            hash = 31 * hash + deliveryA;
+            return 31 * hash + deliveryB;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.odiparpack.transport_planning.solver;
+
+/**
+ * Movimiento candidato entre dos planes: intercambio de un paquete de cada uno
+ * o traslado de un paquete del primero al segundo. Una vez puntuado guarda los
+ * planes resultantes y sus evaluaciones para aplicarlo sin recalcular.
+ */
+final class NeighbourhoodMove {
+
+    enum Type { SWAP, RELOCATE }
+
+    final Type type;
+    final int planA;
+    final int planB;
+    final int deliveryA;
+    // -1 en los traslados
+    final int deliveryB;
+
+    double delta = Double.MAX_VALUE;
+    PlanState newPlanA;
+    PlanState newPlanB;
+    PlanEvaluation evaluationA;
+    PlanEvaluation evaluationB;
+
+    NeighbourhoodMove(Type type, int planA, int planB, int deliveryA, int deliveryB) {
+        this.type = type;
+        this.planA = planA;
+        this.planB = planB;
+        this.deliveryA = deliveryA;
+        this.deliveryB = deliveryB;
+    }
+}
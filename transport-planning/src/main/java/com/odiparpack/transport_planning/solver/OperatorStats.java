@@ -0,0 +1,76 @@
+package com.odiparpack.transport_planning.solver;
+
+/**
+ * Rendimiento de un operador de la búsqueda adaptativa al terminar una isla.
+ * El tiempo es la CPU de las iteraciones en que se eligió el operador: la del
+ * hilo de la isla más la del pool que puntúa el vecindario. Incluye armar y
+ * evaluar los planes que cambió.
+ */
+public final class OperatorStats {
+
+    private final String name;
+    private final long calls;
+    private final long accepted;
+    private final long improvements;
+    // Suma de lo que bajó el costo aumentado de la solución actual
+    private final double improvement;
+    private final long cpuNanos;
+    private final double weight;
+
+    OperatorStats(String name, long calls, long accepted, long improvements, double improvement, long cpuNanos,
+                  double weight) {
+        this.name = name;
+        this.calls = calls;
+        this.accepted = accepted;
+        this.improvements = improvements;
+        this.improvement = improvement;
+        this.cpuNanos = cpuNanos;
+        this.weight = weight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getImprovements() {
+        return improvements;
+    }
+
+    public double getImprovement() {
+        return improvement;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    // Peso de selección al terminar
+    public double getWeight() {
+        return weight;
+    }
+
+    // Por segundo de CPU
+    public double getMovesPerSecond() {
+        return cpuNanos == 0 ? 0 : calls * 1e9 / cpuNanos;
+    }
+
+    // Por milisegundo de CPU
+    public double getImprovementPerMillisecond() {
+        return cpuNanos == 0 ? 0 : improvement * 1e6 / cpuNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("  %-22s %6d usos, %6d aceptados, %5d mejoras, %9.1f ms CPU, %8.1f mov/s, %10.2f mejora/ms, peso %.2f",
+                name, calls, accepted, improvements, cpuNanos / 1e6, getMovesPerSecond(),
+                getImprovementPerMillisecond(), weight);
+    }
+}
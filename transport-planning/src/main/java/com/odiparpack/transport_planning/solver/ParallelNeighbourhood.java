@@ -0,0 +1,379 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.Truck;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Vecindario de intercambios y traslados de paquetes entre camiones, puntuado
+ * en paralelo sobre un ForkJoinPool. La solución actual no se modifica durante
+ * la puntuación: cada movimiento arma sus propios planes nuevos, y la solución
+ * vecina comparte con la actual todos los planes que no cambian. Con listas de
+ * candidatos solo se combinan entregas con destinos cercanos. Los movimientos
+ * se aplican después en un orden fijo (delta y luego índice), así que el
+ * resultado no depende del número de hilos ni del orden en que terminen.
+ * Los movimientos entre planes que no cambiaron desde el paso anterior salen
+ * de un caché acotado (LRU por entradas); con los don't-look bits, además,
+ * no se enumeran los pares de camiones que ya se revisaron sin encontrar
+ * mejoras, hasta que su plan cambia o se penaliza un tramo de su ruta.
+ */
+public final class ParallelNeighbourhood implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    // Arma un plan (ruta incluida) para un camión y sus entregas
+    private final BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder;
+    private final Function<PlanState, PlanEvaluation> evaluator;
+    // null para enumerar todos los pares de entregas
+    private final CandidateLists candidates;
+    private final MoveCache cache;
+    // Planes revisados sin movimientos que mejoren; null si los don't-look bits están apagados
+    private final Set<PlanState> settled;
+    private long evaluatedPlans;
+    private long cachedMoves;
+    // CPU que gastaron los hilos del pool puntuando movimientos
+    private final LongAdder poolCpuNanos = new LongAdder();
+
+    public ParallelNeighbourhood(int parallelism, BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder,
+                                 Function<PlanState, PlanEvaluation> evaluator) {
+        this(parallelism, planBuilder, evaluator, null);
+    }
+
+    public ParallelNeighbourhood(int parallelism, BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder,
+                                 Function<PlanState, PlanEvaluation> evaluator, CandidateLists candidates) {
+        this(parallelism, planBuilder, evaluator, candidates, false);
+    }
+
+    public ParallelNeighbourhood(int parallelism, BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder,
+                                 Function<PlanState, PlanEvaluation> evaluator, CandidateLists candidates,
+                                 boolean dontLookBits) {
+        this(parallelism, planBuilder, evaluator, candidates, dontLookBits, MoveCache.DEFAULT_MAX_ENTRIES);
+    }
+
+    // moveCacheEntries: movimientos puntuados que se guardan como máximo; 0 desactiva el caché
+    public ParallelNeighbourhood(int parallelism, BiFunction<Truck, List<PackageOrder>, PlanState> planBuilder,
+                                 Function<PlanState, PlanEvaluation> evaluator, CandidateLists candidates,
+                                 boolean dontLookBits, int moveCacheEntries) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.cache = new MoveCache(moveCacheEntries);
+        this.planBuilder = planBuilder;
+        this.evaluator = evaluator;
+        this.candidates = candidates;
+        // Los planes son inmutables: un plan que cambia es otro objeto y arranca sin el bit
+        this.settled = dontLookBits ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // Planes candidatos evaluados al puntuar movimientos
+    public long getEvaluatedPlans() {
+        return evaluatedPlans;
+    }
+
+    // Movimientos puntuados con los planes guardados en el caché, sin volver a armarlos
+    public long getCachedMoves() {
+        return cachedMoves;
+    }
+
+    // Acumulado desde que se creó el vecindario; el hilo que llama solo espera al pool
+    public long getPoolCpuNanos() {
+        return poolCpuNanos.sum();
+    }
+
+    /**
+     * Devuelve la solución vecina y deja en cost las evaluaciones de los planes
+     * reemplazados. Se aplican todos los movimientos que mejoran y no comparten
+     * planes; si ninguno mejora se aplica el menos malo para que el recocido
+     * simulado decida si lo acepta.
+     */
+    public Solution step(Solution solution, SolutionCost cost) {
+        cost.total(solution);
+        Set<PlanState> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int p = 0; p < solution.size(); p++) {
+            current.add(solution.get(p));
+        }
+        cache.retainPlans(current);
+        if (settled != null) {
+            settled.retainAll(current);
+        }
+        NeighbourhoodMove[] moves = enumerateUnsettledMoves(solution);
+        if (moves.length == 0) {
+            return solution;
+        }
+
+        // El caché se consulta y se llena fuera del pool, así que no necesita sincronización
+        for (NeighbourhoodMove move : moves) {
+            if (cache.fill(move, solution)) {
+                cachedMoves++;
+            } else {
+                evaluatedPlans += 2;
+            }
+        }
+        pool.submit(() -> IntStream.range(0, moves.length).parallel()
+                .forEach(k -> {
+                    long start = CpuClock.now();
+                    score(moves[k], solution, cost);
+                    poolCpuNanos.add(CpuClock.now() - start);
+                })).join();
+        for (NeighbourhoodMove move : moves) {
+            cache.put(move, solution);
+        }
+        if (settled != null) {
+            markSettled(moves, solution);
+        }
+
+        Integer[] order = new Integer[moves.length];
+        for (int k = 0; k < order.length; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(k -> moves[k].delta).thenComparingInt(k -> k));
+
+        Solution.Editor neighbour = solution.edit();
+        boolean[] touched = new boolean[solution.size()];
+        boolean applied = false;
+        for (int k : order) {
+            NeighbourhoodMove move = moves[k];
+            if (move.delta == Double.MAX_VALUE || (applied && move.delta >= 0)) {
+                break;
+            }
+            if (touched[move.planA] || touched[move.planB]) {
+                continue;
+            }
+            apply(move, neighbour, cost);
+            touched[move.planA] = true;
+            touched[move.planB] = true;
+            applied = true;
+            if (move.delta >= 0) {
+                break;
+            }
+        }
+        return neighbour.build();
+    }
+
+    /**
+     * Aplica un movimiento factible elegido al azar, sin importar su costo. Se
+     * usa para diversificar el punto de partida de cada isla.
+     */
+    public Solution perturb(Solution solution, SolutionCost cost, SplittableRandom random) {
+        cost.total(solution);
+        NeighbourhoodMove[] moves = enumerateMoves(solution, false);
+        if (moves.length == 0) {
+            return solution;
+        }
+        NeighbourhoodMove move = moves[random.nextInt(moves.length)];
+        evaluatedPlans += 2;
+        score(move, solution, cost);
+        Solution.Editor neighbour = solution.edit();
+        apply(move, neighbour, cost);
+        return neighbour.build();
+    }
+
+    // Quita el don't-look bit del plan, por ejemplo cuando se penaliza un tramo de su ruta
+    public void unsettle(PlanState plan) {
+        if (settled != null) {
+            settled.remove(plan);
+        }
+    }
+
+    // true si el plan tiene el don't-look bit
+    boolean isSettled(PlanState plan) {
+        return settled != null && settled.contains(plan);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private NeighbourhoodMove[] enumerateUnsettledMoves(Solution solution) {
+        NeighbourhoodMove[] moves = enumerateMoves(solution, true);
+        if (moves.length == 0 && settled != null && !settled.isEmpty()) {
+            // Todos los pares estaban revisados: se vuelve a mirar la solución entera
+            settled.clear();
+            moves = enumerateMoves(solution, true);
+        }
+        return moves;
+    }
+
+    // Marca los planes que participaron en movimientos puntuados y en ninguno que mejore
+    private void markSettled(NeighbourhoodMove[] moves, Solution solution) {
+        boolean[] seen = new boolean[solution.size()];
+        boolean[] improving = new boolean[solution.size()];
+        for (NeighbourhoodMove move : moves) {
+            seen[move.planA] = true;
+            seen[move.planB] = true;
+            if (move.delta < 0) {
+                improving[move.planA] = true;
+                improving[move.planB] = true;
+            }
+        }
+        for (int p = 0; p < seen.length; p++) {
+            if (seen[p] && !improving[p]) {
+                settled.add(solution.get(p));
+            }
+        }
+    }
+
+    // Con skipSettled se omiten los pares en que los dos planes tienen el don't-look bit
+    private boolean skip(Solution solution, int i, int j, boolean skipSettled) {
+        return skipSettled && settled != null && settled.contains(solution.get(i)) && settled.contains(solution.get(j));
+    }
+
+    private NeighbourhoodMove[] enumerateMoves(Solution solution, boolean skipSettled) {
+        if (candidates != null) {
+            return enumerateCandidateMoves(solution, skipSettled);
+        }
+        List<NeighbourhoodMove> moves = new ArrayList<>();
+        for (int i = 0; i < solution.size(); i++) {
+            for (int j = 0; j < solution.size(); j++) {
+                if (i == j || skip(solution, i, j, skipSettled)) {
+                    continue;
+                }
+                PlanState tp1 = solution.get(i);
+                PlanState tp2 = solution.get(j);
+                int load1 = tp1.getLoad();
+                int load2 = tp2.getLoad();
+                for (int a = 0; a < tp1.getDeliveries().size(); a++) {
+                    int quantityA = tp1.getDeliveries().get(a).getQuantity();
+                    // Intercambios una sola vez por par de camiones
+                    if (i < j) {
+                        for (int b = 0; b < tp2.getDeliveries().size(); b++) {
+                            int quantityB = tp2.getDeliveries().get(b).getQuantity();
+                            if (load1 - quantityA + quantityB <= tp1.getTruck().getCapacity()
+                                    && load2 - quantityB + quantityA <= tp2.getTruck().getCapacity()) {
+                                moves.add(new NeighbourhoodMove(NeighbourhoodMove.Type.SWAP, i, j, a, b));
+                            }
+                        }
+                    }
+                    // Un traslado no puede dejar al camión sin entregas
+                    if (tp1.getDeliveries().size() > 1 && load2 + quantityA <= tp2.getTruck().getCapacity()) {
+                        moves.add(new NeighbourhoodMove(NeighbourhoodMove.Type.RELOCATE, i, j, a, -1));
+                    }
+                }
+            }
+        }
+        return moves.toArray(new NeighbourhoodMove[0]);
+    }
+
+    /**
+     * Movimientos restringidos a las listas de candidatos: una entrega se
+     * intercambia con las entregas de destinos cercanos y se traslada a los
+     * camiones que ya visitan alguno de esos destinos.
+     */
+    private NeighbourhoodMove[] enumerateCandidateMoves(Solution solution, boolean skipSettled) {
+        // Entregas de la solución agrupadas por nodo de destino: las de v están en [first[v], first[v + 1])
+        int[] first = new int[candidates.nodeCount() + 1];
+        for (int p = 0; p < solution.size(); p++) {
+            for (PackageOrder pkg : solution.get(p).getDeliveries()) {
+                int node = candidates.nodeOf(pkg);
+                if (node >= 0) {
+                    first[node + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < candidates.nodeCount(); v++) {
+            first[v + 1] += first[v];
+        }
+        int[] cursor = Arrays.copyOf(first, first.length - 1);
+        int[] servingPlan = new int[first[first.length - 1]];
+        int[] servingDelivery = new int[servingPlan.length];
+        for (int p = 0; p < solution.size(); p++) {
+            List<PackageOrder> deliveries = solution.get(p).getDeliveries();
+            for (int d = 0; d < deliveries.size(); d++) {
+                int node = candidates.nodeOf(deliveries.get(d));
+                if (node >= 0) {
+                    servingPlan[cursor[node]] = p;
+                    servingDelivery[cursor[node]++] = d;
+                }
+            }
+        }
+
+        List<NeighbourhoodMove> moves = new ArrayList<>();
+        // relocatedTo[j] == stamp si ya se generó el traslado de la entrega actual al camión j
+        int[] relocatedTo = new int[solution.size()];
+        int stamp = 0;
+        for (int i = 0; i < solution.size(); i++) {
+            PlanState tp1 = solution.get(i);
+            for (int a = 0; a < tp1.getDeliveries().size(); a++) {
+                stamp++;
+                int quantityA = tp1.getDeliveries().get(a).getQuantity();
+                int u = candidates.nodeOf(tp1.getDeliveries().get(a));
+                for (int v : candidates.near(u)) {
+                    for (int k = first[v]; k < first[v + 1]; k++) {
+                        int j = servingPlan[k];
+                        if (j == i || skip(solution, i, j, skipSettled)) {
+                            continue;
+                        }
+                        PlanState tp2 = solution.get(j);
+                        int b = servingDelivery[k];
+                        int quantityB = tp2.getDeliveries().get(b).getQuantity();
+                        // Un intercambio se genera una sola vez aunque cada destino esté en la lista del otro
+                        if ((i < j || !candidates.isNear(v, u))
+                                && tp1.getLoad() - quantityA + quantityB <= tp1.getTruck().getCapacity()
+                                && tp2.getLoad() - quantityB + quantityA <= tp2.getTruck().getCapacity()) {
+                            moves.add(new NeighbourhoodMove(NeighbourhoodMove.Type.SWAP, i, j, a, b));
+                        }
+                        // Un traslado no puede dejar al camión sin entregas
+                        if (relocatedTo[j] != stamp && tp1.getDeliveries().size() > 1
+                                && tp2.getLoad() + quantityA <= tp2.getTruck().getCapacity()) {
+                            relocatedTo[j] = stamp;
+                            moves.add(new NeighbourhoodMove(NeighbourhoodMove.Type.RELOCATE, i, j, a, -1));
+                        }
+                    }
+                }
+            }
+        }
+        return moves.toArray(new NeighbourhoodMove[0]);
+    }
+
+    private void score(NeighbourhoodMove move, Solution solution, SolutionCost cost) {
+        if (move.newPlanA == null) {
+            build(move, solution);
+        }
+        move.delta = cost.augmentedCost(move.evaluationA) + cost.augmentedCost(move.evaluationB)
+                - cost.planCost(move.planA) - cost.planCost(move.planB);
+    }
+
+    // Arma y evalúa los dos planes que resultan del movimiento
+    private void build(NeighbourhoodMove move, Solution solution) {
+        PlanState tp1 = solution.get(move.planA);
+        PlanState tp2 = solution.get(move.planB);
+        // Solo se copian las entregas de los dos planes que cambian
+        List<PackageOrder> deliveries1 = new ArrayList<>(tp1.getDeliveries());
+        List<PackageOrder> deliveries2 = new ArrayList<>(tp2.getDeliveries().size() + 1);
+        deliveries2.addAll(tp2.getDeliveries());
+        PackageOrder moved = deliveries1.remove(move.deliveryA);
+        if (move.type == NeighbourhoodMove.Type.SWAP) {
+            PackageOrder swapped = deliveries2.set(move.deliveryB, moved);
+            deliveries1.add(move.deliveryA, swapped);
+        } else {
+            deliveries2.add(moved);
+        }
+
+        move.newPlanA = planBuilder.apply(tp1.getTruck(), deliveries1);
+        move.newPlanB = planBuilder.apply(tp2.getTruck(), deliveries2);
+        move.evaluationA = evaluator.apply(move.newPlanA);
+        move.evaluationB = evaluator.apply(move.newPlanB);
+    }
+
+    private static void apply(NeighbourhoodMove move, Solution.Editor neighbour, SolutionCost cost) {
+        neighbour.set(move.planA, move.newPlanA);
+        neighbour.set(move.planB, move.newPlanB);
+        cost.set(move.planA, move.evaluationA);
+        cost.set(move.planB, move.evaluationB);
+    }
+}
@@ -0,0 +1,140 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.routing.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solución a medio destruir de un paso de ALNS. Las entregas de cada plan se
+ * copian recién cuando un operador lo toca; el resto se lee de la solución
+ * original. Los paquetes quitados esperan en una lista hasta que un operador
+ * de reparación los vuelve a insertar.
+ */
+final class PartialSolution {
+
+    private final Solution base;
+    // null mientras el plan no cambie
+    private final List<PackageOrder>[] deliveries;
+    private final int[] loads;
+    private final boolean[] touched;
+    private final List<PackageOrder> removed = new ArrayList<>();
+    private int deliveryCount;
+
+    @SuppressWarnings("unchecked")
+    PartialSolution(Solution base) {
+        this.base = base;
+        this.deliveries = new List[base.size()];
+        this.loads = new int[base.size()];
+        this.touched = new boolean[base.size()];
+        for (int p = 0; p < base.size(); p++) {
+            loads[p] = base.get(p).getLoad();
+            deliveryCount += base.get(p).getDeliveries().size();
+        }
+    }
+
+    int planCount() {
+        return loads.length;
+    }
+
+    PlanState basePlan(int plan) {
+        return base.get(plan);
+    }
+
+    List<PackageOrder> deliveries(int plan) {
+        return deliveries[plan] != null ? deliveries[plan] : base.get(plan).getDeliveries();
+    }
+
+    // Entregas que siguen asignadas
+    int deliveryCount() {
+        return deliveryCount;
+    }
+
+    boolean isTouched(int plan) {
+        return touched[plan];
+    }
+
+    // Un plan no se queda sin entregas, igual que en los traslados del vecindario
+    boolean canRemove(int plan) {
+        return deliveries(plan).size() > 1;
+    }
+
+    // Se busca por identidad: dos partes de un mismo pedido son iguales para equals()
+    boolean remove(int plan, PackageOrder pkg) {
+        if (!canRemove(plan)) {
+            return false;
+        }
+        List<PackageOrder> list = editable(plan);
+        for (int d = 0; d < list.size(); d++) {
+            if (list.get(d) == pkg) {
+                list.remove(d);
+                loads[plan] -= pkg.getQuantity();
+                deliveryCount--;
+                removed.add(pkg);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    List<PackageOrder> removed() {
+        return removed;
+    }
+
+    boolean fits(int plan, PackageOrder pkg) {
+        return loads[plan] + pkg.getQuantity() <= base.get(plan).getTruck().getCapacity();
+    }
+
+    void insert(int plan, PackageOrder pkg) {
+        editable(plan).add(pkg);
+        loads[plan] += pkg.getQuantity();
+        deliveryCount++;
+        for (int r = 0; r < removed.size(); r++) {
+            if (removed.get(r) == pkg) {
+                removed.remove(r);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Costo estimado de sumar el paquete al plan: distancia en línea recta, en
+     * km, desde la parada más cercana (la salida o un destino del plan). No hace
+     * búsquedas en la red; la ruta real se arma solo para los planes elegidos.
+     */
+    double insertionCost(int plan, PackageOrder pkg) {
+        City target = pkg.getDestination();
+        double best = distanceKm(base.get(plan).getTruck().getCurrentLocation(), target);
+        for (PackageOrder other : deliveries(plan)) {
+            best = Math.min(best, distanceKm(other.getDestination(), target));
+        }
+        return best;
+    }
+
+    // Planes tocados, en orden de índice
+    int[] touchedPlans() {
+        int[] plans = new int[planCount()];
+        int count = 0;
+        for (int p = 0; p < plans.length; p++) {
+            if (touched[p]) {
+                plans[count++] = p;
+            }
+        }
+        return Arrays.copyOf(plans, count);
+    }
+
+    static double distanceKm(City a, City b) {
+        return GeoUtils.haversineKm(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+    }
+
+    private List<PackageOrder> editable(int plan) {
+        if (deliveries[plan] == null) {
+            deliveries[plan] = new ArrayList<>(base.get(plan).getDeliveries());
+            touched[plan] = true;
+        }
+        return deliveries[plan];
+    }
+}
@@ -0,0 +1,30 @@
+package com.odiparpack.transport_planning.solver;
+
+/**
+ * Costo de un plan de transporte separado en la parte fija (tiempos, esperas,
+ * bloqueos y tardanzas) y los tramos que suman la penalización de GLS. Así la
+ * penalización se puede recalcular sin volver a recorrer la ruta.
+ */
+public final class PlanEvaluation {
+
+    private final double baseCost;
+    // Id de tramo del grafo por cada recorrido penalizable; puede repetirse
+    private final int[] penalizedEdges;
+
+    public PlanEvaluation(double baseCost, int[] penalizedEdges) {
+        this.baseCost = baseCost;
+        this.penalizedEdges = penalizedEdges;
+    }
+
+    public double getBaseCost() {
+        return baseCost;
+    }
+
+    public int penalizedEdgeCount() {
+        return penalizedEdges.length;
+    }
+
+    public int penalizedEdge(int i) {
+        return penalizedEdges[i];
+    }
+}
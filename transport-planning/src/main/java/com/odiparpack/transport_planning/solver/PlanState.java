@@ -0,0 +1,103 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.RouteTimeline;
+import com.odiparpack.transport_planning.model.TransportationPlan;
+import com.odiparpack.transport_planning.model.Truck;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Plan de un camión dentro del solver. Es inmutable, así que varias soluciones
+ * pueden compartir el mismo objeto sin copiarlo; un movimiento arma un
+ * PlanState nuevo solo para los camiones que cambia. Se convierte a la entidad
+ * TransportationPlan recién al guardar la solución.
+ */
+public final class PlanState {
+
+    private final Truck truck;
+    private final List<PackageOrder> deliveries;
+    private final List<City> route;
+    private final int load;
+    // Se calcula a demanda; la ruta no cambia, así que solo depende de la red y de la hora de salida
+    private volatile RouteTimeline timeline;
+    // Última evaluación, con la red y la hora de salida para las que vale
+    private volatile EvaluationMemo evaluation;
+
+    // Las listas pasan a ser del plan: quien las arma no debe modificarlas después
+    public PlanState(Truck truck, List<PackageOrder> deliveries, List<City> route) {
+        this.truck = truck;
+        this.deliveries = Collections.unmodifiableList(deliveries);
+        this.route = Collections.unmodifiableList(route);
+        int load = 0;
+        for (PackageOrder pkg : deliveries) {
+            load += pkg.getQuantity();
+        }
+        this.load = load;
+    }
+
+    public Truck getTruck() {
+        return truck;
+    }
+
+    public List<PackageOrder> getDeliveries() {
+        return deliveries;
+    }
+
+    public List<City> getRoute() {
+        return route;
+    }
+
+    // Cantidad total de paquetes asignados
+    public int getLoad() {
+        return load;
+    }
+
+    // start es la hora de salida con la que el solver arma y evalúa las rutas (la del contexto); incluye la
+    // espera del camión en cada parada donde entrega
+    public RouteTimeline getTimeline(RoadNetwork network, Date start) {
+        RouteTimeline current = timeline;
+        long wait = truck.getWaitTimeAfterDelivery();
+        if (current == null || !current.isCurrent(route, deliveries, wait, network, start)) {
+            current = RouteTimeline.of(network, route, start, deliveries, wait);
+            timeline = current;
+        }
+        return current;
+    }
+
+    // Evaluación guardada para esta red y hora de salida, o null si hay que calcularla
+    public PlanEvaluation getEvaluation(RoadNetwork network, Date start) {
+        EvaluationMemo memo = evaluation;
+        return memo != null && memo.network == network && memo.startMillis == start.getTime() ? memo.evaluation : null;
+    }
+
+    public void setEvaluation(RoadNetwork network, Date start, PlanEvaluation planEvaluation) {
+        evaluation = new EvaluationMemo(network, start.getTime(), planEvaluation);
+    }
+
+    // Entidad para persistir, con sus propias copias de las listas
+    public TransportationPlan toTransportationPlan() {
+        TransportationPlan plan = new TransportationPlan();
+        plan.setTruck(truck);
+        plan.setDeliveries(new ArrayList<>(deliveries));
+        plan.setRoute(new ArrayList<>(route));
+        return plan;
+    }
+
+    private static final class EvaluationMemo {
+        private final RoadNetwork network;
+        private final long startMillis;
+        private final PlanEvaluation evaluation;
+
+        private EvaluationMemo(RoadNetwork network, long startMillis, PlanEvaluation evaluation) {
+            this.network = network;
+            this.startMillis = startMillis;
+            this.evaluation = evaluation;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.odiparpack.transport_planning.solver;
+
+import java.util.SplittableRandom;
+
+/**
+ * Operador de reparación de ALNS: inserta todas las entregas pendientes de la
+ * solución parcial respetando la capacidad. Devuelve false si alguna no entra
+ * en ningún camión; en ese caso el paso se descarta.
+ */
+interface RepairOperator {
+
+    String name();
+
+    boolean repair(PartialSolution partial, SplittableRandom random);
+}
@@ -0,0 +1,107 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.PackageOrder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Operadores de reparación: inserción voraz y por arrepentimiento (regret-2).
+ * Ambos usan el costo estimado de PartialSolution, que no hace búsquedas en
+ * la red, así que cada inserción cuesta lo mismo que recorrer las entregas.
+ */
+final class RepairOperators {
+
+    private RepairOperators() {
+    }
+
+    // Cada paquete, del más grande al más chico, al camión con espacio donde sale más barato
+    static RepairOperator greedy() {
+        return new RepairOperator() {
+            @Override
+            public String name() {
+                return "inserción voraz";
+            }
+
+            @Override
+            public boolean repair(PartialSolution partial, SplittableRandom random) {
+                List<PackageOrder> pending = new ArrayList<>(partial.removed());
+                pending.sort(Comparator.comparingInt(PackageOrder::getQuantity).reversed());
+                for (PackageOrder pkg : pending) {
+                    int best = -1;
+                    double bestCost = Double.MAX_VALUE;
+                    for (int p = 0; p < partial.planCount(); p++) {
+                        if (partial.fits(p, pkg)) {
+                            double cost = partial.insertionCost(p, pkg);
+                            if (cost < bestCost) {
+                                best = p;
+                                bestCost = cost;
+                            }
+                        }
+                    }
+                    if (best < 0) {
+                        return false;
+                    }
+                    partial.insert(best, pkg);
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Se inserta primero el paquete que más perdería si no fuera a su mejor
+     * camión: el de mayor diferencia entre su segunda y su primera opción. Los
+     * que solo entran en un camión van antes que todos.
+     */
+    static RepairOperator regret() {
+        return new RepairOperator() {
+            @Override
+            public String name() {
+                return "inserción por regret";
+            }
+
+            @Override
+            public boolean repair(PartialSolution partial, SplittableRandom random) {
+                while (!partial.removed().isEmpty()) {
+                    PackageOrder chosen = null;
+                    int chosenPlan = -1;
+                    double chosenRegret = -1;
+                    double chosenCost = Double.MAX_VALUE;
+                    for (PackageOrder pkg : partial.removed()) {
+                        int best = -1;
+                        double bestCost = Double.MAX_VALUE;
+                        double secondCost = Double.MAX_VALUE;
+                        for (int p = 0; p < partial.planCount(); p++) {
+                            if (!partial.fits(p, pkg)) {
+                                continue;
+                            }
+                            double cost = partial.insertionCost(p, pkg);
+                            if (cost < bestCost) {
+                                secondCost = bestCost;
+                                best = p;
+                                bestCost = cost;
+                            } else if (cost < secondCost) {
+                                secondCost = cost;
+                            }
+                        }
+                        if (best < 0) {
+                            return false;
+                        }
+                        double regret = secondCost == Double.MAX_VALUE ? Double.MAX_VALUE : secondCost - bestCost;
+                        if (regret > chosenRegret || (regret == chosenRegret && bestCost < chosenCost)) {
+                            chosen = pkg;
+                            chosenPlan = best;
+                            chosenRegret = regret;
+                            chosenCost = bestCost;
+                        }
+                    }
+                    partial.insert(chosenPlan, chosen);
+                }
+                return true;
+            }
+        };
+    }
+}
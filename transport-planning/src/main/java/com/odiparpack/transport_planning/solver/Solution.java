@@ -0,0 +1,70 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.TransportationPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solución inmutable: un plan por camión. Las soluciones vecinas comparten los
+ * planes que no cambian con la solución de la que salen; editar solo copia el
+ * arreglo de referencias, y solo si de verdad se reemplaza algún plan.
+ */
+public final class Solution {
+
+    private final PlanState[] plans;
+
+    private Solution(PlanState[] plans) {
+        this.plans = plans;
+    }
+
+    public static Solution of(List<PlanState> plans) {
+        return new Solution(plans.toArray(new PlanState[0]));
+    }
+
+    public int size() {
+        return plans.length;
+    }
+
+    public PlanState get(int index) {
+        return plans[index];
+    }
+
+    public Editor edit() {
+        return new Editor(this);
+    }
+
+    // Entidades para persistir la solución
+    public List<TransportationPlan> toTransportationPlans() {
+        List<TransportationPlan> entities = new ArrayList<>(plans.length);
+        for (PlanState plan : plans) {
+            entities.add(plan.toTransportationPlan());
+        }
+        return entities;
+    }
+
+    /**
+     * Arma una solución vecina reemplazando algunos planes. El arreglo se copia
+     * con el primer reemplazo; sin reemplazos build() devuelve la misma solución.
+     */
+    public static final class Editor {
+        private final Solution source;
+        private PlanState[] plans;
+
+        private Editor(Solution source) {
+            this.source = source;
+        }
+
+        public Editor set(int index, PlanState plan) {
+            if (plans == null) {
+                plans = source.plans.clone();
+            }
+            plans[index] = plan;
+            return this;
+        }
+
+        public Solution build() {
+            return plans == null ? source : new Solution(plans);
+        }
+    }
+}
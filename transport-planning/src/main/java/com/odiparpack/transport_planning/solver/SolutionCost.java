@@ -0,0 +1,145 @@
+package com.odiparpack.transport_planning.solver;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Costo total de una solución mantenido de forma incremental. Cada plan guarda
+ * su evaluación y solo se vuelve a evaluar cuando se marca como modificado; el
+ * término lambda * penalización se actualiza con los tramos de las evaluaciones,
+ * sin recorrer las rutas. Copiar el costo solo copia arreglos del tamaño de la
+ * solución, nunca del tamaño de la red.
+ */
+public final class SolutionCost {
+
+    private final Function<PlanState, PlanEvaluation> evaluator;
+    private final IntUnaryOperator penaltyOf;
+    private final double lambda;
+
+    private PlanEvaluation[] evaluations;
+    private boolean[] dirty;
+    private double baseTotal;
+    // Suma de penalización * uso sobre todos los tramos
+    private long penaltyTotal;
+    private int evaluatedPlans;
+
+    public SolutionCost(double lambda, IntUnaryOperator penaltyOf, Function<PlanState, PlanEvaluation> evaluator) {
+        this.evaluator = evaluator;
+        this.penaltyOf = penaltyOf;
+        this.lambda = lambda;
+        this.evaluations = new PlanEvaluation[0];
+        this.dirty = new boolean[0];
+    }
+
+    private SolutionCost(SolutionCost other) {
+        this.evaluator = other.evaluator;
+        this.penaltyOf = other.penaltyOf;
+        this.lambda = other.lambda;
+        this.evaluations = other.evaluations.clone();
+        this.dirty = other.dirty.clone();
+        this.baseTotal = other.baseTotal;
+        this.penaltyTotal = other.penaltyTotal;
+    }
+
+    // Copia para evaluar una solución vecina sin tocar el costo de la actual
+    public SolutionCost copy() {
+        return new SolutionCost(this);
+    }
+
+    public void markDirty(int planIndex) {
+        if (planIndex < dirty.length) {
+            dirty[planIndex] = true;
+        }
+    }
+
+    // Costo aumentado de la solución: reevalúa solo los planes marcados o nuevos
+    public double total(Solution solution) {
+        if (solution.size() != evaluations.length) {
+            resize(solution.size());
+        }
+        for (int i = 0; i < evaluations.length; i++) {
+            if (dirty[i]) {
+                replace(i, evaluator.apply(solution.get(i)));
+                dirty[i] = false;
+                evaluatedPlans++;
+            }
+        }
+        return baseTotal + lambda * penaltyTotal;
+    }
+
+    // Costo sin penalizaciones de GLS (el objetivo real) según la última llamada a total()
+    public double baseTotal() {
+        return baseTotal;
+    }
+
+    // Costo aumentado vigente del plan; requiere que total() ya se haya llamado sin planes pendientes
+    public double planCost(int planIndex) {
+        return augmentedCost(evaluations[planIndex]);
+    }
+
+    // Costo aumentado de una evaluación con las penalizaciones actuales, sin registrarla
+    public double augmentedCost(PlanEvaluation evaluation) {
+        long penalty = 0;
+        for (int k = 0; k < evaluation.penalizedEdgeCount(); k++) {
+            penalty += penaltyOf.applyAsInt(evaluation.penalizedEdge(k));
+        }
+        return evaluation.getBaseCost() + lambda * penalty;
+    }
+
+    // Registra la evaluación ya calculada de un plan que se reemplazó
+    public void set(int planIndex, PlanEvaluation evaluation) {
+        replace(planIndex, evaluation);
+        dirty[planIndex] = false;
+    }
+
+    // La penalización del tramo subió en uno: el total crece en lambda por cada uso vigente.
+    // Se penalizan pocos tramos por iteración, así que contar los usos sale más barato que
+    // mantener un contador por tramo en cada copia.
+    public void penaltyIncremented(int edge) {
+        for (PlanEvaluation evaluation : evaluations) {
+            if (evaluation == null) {
+                continue;
+            }
+            for (int k = 0; k < evaluation.penalizedEdgeCount(); k++) {
+                if (evaluation.penalizedEdge(k) == edge) {
+                    penaltyTotal++;
+                }
+            }
+        }
+    }
+
+    // Planes evaluados por esta instancia desde que se creó o copió
+    public int getEvaluatedPlans() {
+        return evaluatedPlans;
+    }
+
+    private void resize(int planCount) {
+        for (int i = planCount; i < evaluations.length; i++) {
+            replace(i, null);
+        }
+        int previous = evaluations.length;
+        evaluations = Arrays.copyOf(evaluations, planCount);
+        dirty = Arrays.copyOf(dirty, planCount);
+        for (int i = previous; i < planCount; i++) {
+            dirty[i] = true;
+        }
+    }
+
+    private void replace(int planIndex, PlanEvaluation evaluation) {
+        PlanEvaluation old = evaluations[planIndex];
+        if (old != null) {
+            baseTotal -= old.getBaseCost();
+            for (int k = 0; k < old.penalizedEdgeCount(); k++) {
+                penaltyTotal -= penaltyOf.applyAsInt(old.penalizedEdge(k));
+            }
+        }
+        if (evaluation != null) {
+            baseTotal += evaluation.getBaseCost();
+            for (int k = 0; k < evaluation.penalizedEdgeCount(); k++) {
+                penaltyTotal += penaltyOf.applyAsInt(evaluation.penalizedEdge(k));
+            }
+        }
+        evaluations[planIndex] = evaluation;
+    }
+}
@@ -0,0 +1,86 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.RoadNetwork;
+
+import java.util.Date;
+
+/**
+ * Estado de una ejecución del planificador. Cada solicitud crea el suyo, de
+ * modo que dos planificaciones simultáneas solo comparten la red, que es de
+ * solo lectura. El plazo es absoluto y lo fija quien recibe la solicitud, así
+ * que el armado de la red y la solución inicial también cuentan contra el
+ * presupuesto.
+ */
+public final class SolverContext {
+
+    private final RoadNetwork network;
+    private final long networkVersion;
+    private final Date simulationStartTime;
+    private final SolverSettings settings;
+    private final CancellationToken cancellationToken;
+    private final Incumbent incumbent;
+    // Hora (epoch ms) en que las islas deben detenerse; Long.MAX_VALUE sin límite
+    private final long deadlineMillis;
+
+    public SolverContext(RoadNetwork network, long networkVersion, Date simulationStartTime, SolverSettings settings) {
+        this(network, networkVersion, simulationStartTime, settings, new CancellationToken());
+    }
+
+    public SolverContext(RoadNetwork network, long networkVersion, Date simulationStartTime, SolverSettings settings,
+                         CancellationToken cancellationToken) {
+        this(network, networkVersion, simulationStartTime, settings, cancellationToken, new Incumbent(),
+                settings.deadlineFromNow());
+    }
+
+    // El llamador conserva el token y el incumbente para cancelar la ejecución o leer su mejor solución
+    public SolverContext(RoadNetwork network, long networkVersion, Date simulationStartTime, SolverSettings settings,
+                         CancellationToken cancellationToken, Incumbent incumbent, long deadlineMillis) {
+        this.network = network;
+        this.networkVersion = networkVersion;
+        this.simulationStartTime = simulationStartTime;
+        this.settings = settings;
+        this.cancellationToken = cancellationToken;
+        this.incumbent = incumbent;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    // Subproblema con su propio incumbente: su mejor solución cubre solo parte de los pedidos
+    public SolverContext forSubproblem(SolverSettings subproblemSettings, Incumbent subproblemIncumbent) {
+        return new SolverContext(network, networkVersion, simulationStartTime, subproblemSettings, cancellationToken, subproblemIncumbent,
+                deadlineMillis);
+    }
+
+    // Otra fase sobre la solución completa; publica en el mismo incumbente
+    public SolverContext withSettings(SolverSettings phaseSettings) {
+        return new SolverContext(network, networkVersion, simulationStartTime, phaseSettings, cancellationToken, incumbent, deadlineMillis);
+    }
+
+    public RoadNetwork getNetwork() {
+        return network;
+    }
+
+    public long getNetworkVersion() {
+        return networkVersion;
+    }
+
+    public Date getSimulationStartTime() {
+        return simulationStartTime;
+    }
+
+    public SolverSettings getSettings() {
+        return settings;
+    }
+
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    // Mejor solución hasta el momento, legible mientras la búsqueda sigue en curso
+    public Incumbent getIncumbent() {
+        return incumbent;
+    }
+}
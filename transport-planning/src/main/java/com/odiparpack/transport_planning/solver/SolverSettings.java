@@ -0,0 +1,71 @@
+package com.odiparpack.transport_planning.solver;
+
+import lombok.Data;
+
+/**
+ * Parámetros del recocido simulado con GLS y del modo de islas.
+ */
+@Data
+public class SolverSettings implements Cloneable {
+    // Máximo de iteraciones por isla; 0 sin límite
+    private int maxIterations = 1000;
+    private double initialTemperature = 1000;
+    private double coolingRate = 0.995;
+    private double lambda;
+    private long seed = 42;
+    // Hilos totales; se reparten entre las islas
+    private int parallelism = 1;
+    // Cadenas independientes; 1 equivale a la búsqueda de una sola cadena
+    private int islands = 1;
+    // Cada cuántas iteraciones una isla publica su mejor solución y recibe la global
+    private int migrationInterval = 50;
+    // Movimientos aleatorios con los que arranca cada isla a partir de la segunda
+    private int perturbationMoves = 3;
+    // Destinos cercanos con los que se combina cada entrega en el vecindario; 0 enumera todos los pares
+    private int candidateNeighbours;
+    // Pasadas de 2-opt / Or-opt sobre las paradas de cada ruta construida; 0 las desactiva
+    private int intraRoutePasses = 50;
+    // Resolver por separado los pedidos de cada depósito y luego reparar la frontera
+    private boolean decomposeByDepot;
+    // Iteraciones de la búsqueda global que repara la solución unida; 0 la omite
+    private int repairIterations = 100;
+    // Elegir en cada iteración entre el vecindario y los operadores de remoción/reparación de ALNS
+    private boolean adaptiveOperators;
+    // Fracción máxima de las entregas que quita una remoción
+    private double removalFraction = 0.15;
+    // Usos de operadores tras los que se recalculan sus pesos
+    private int operatorSegment = 50;
+    // No enumerar pares de camiones cuyos planes no cambiaron desde que se revisaron sin mejoras
+    private boolean dontLookBits;
+    // Movimientos puntuados que cada isla guarda para reutilizar; 0 desactiva el caché
+    private int moveCacheEntries = 4096;
+    // Presupuesto de tiempo compartido por todas las islas; 0 sin límite
+    private long timeBudgetMillis;
+    // Iteraciones seguidas sin mejorar tras las que una isla se detiene; 0 sin límite
+    private int noImprovementIterations;
+    // Costo (sin penalizaciones) con el que basta para detener la búsqueda
+    private double targetObjective = Double.NEGATIVE_INFINITY;
+
+    // Copia para ajustar los parámetros de un subproblema sin tocar los de la ejecución
+    public SolverSettings copy() {
+        try {
+            return (SolverSettings) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Plazo absoluto de una ejecución que empieza ahora; Long.MAX_VALUE si no hay presupuesto
+    public long deadlineFromNow() {
+        return timeBudgetMillis > 0 ? System.currentTimeMillis() + timeBudgetMillis : Long.MAX_VALUE;
+    }
+
+    // La temperatura tiene piso y un costo objetivo puede no alcanzarse: sin alguno de
+    // estos límites la búsqueda no termina salvo que se cancele
+    public void validate() {
+        if (maxIterations <= 0 && timeBudgetMillis <= 0 && noImprovementIterations <= 0) {
+            throw new IllegalArgumentException("La búsqueda necesita un máximo de iteraciones, un presupuesto de tiempo"
+                    + " o un límite de iteraciones sin mejora");
+        }
+    }
+}
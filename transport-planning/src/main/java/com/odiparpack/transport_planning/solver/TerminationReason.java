@@ -0,0 +1,17 @@
+package com.odiparpack.transport_planning.solver;
+
+/**
+ * Motivo por el que una isla dejó de iterar.
+ */
+public enum TerminationReason {
+    // Se alcanzó el máximo de iteraciones
+    MAX_ITERATIONS,
+    // Se agotó el presupuesto de tiempo
+    TIME_BUDGET,
+    // La isla pasó la ventana configurada sin mejorar su mejor solución
+    NO_IMPROVEMENT,
+    // Alguna isla alcanzó el objetivo buscado
+    TARGET_REACHED,
+    // La ejecución se canceló desde fuera
+    CANCELLED
+}
@@ -0,0 +1,53 @@
+package com.odiparpack.transport_planning.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadSegmentTest {
+
+	private static final long HOUR = 3600 * 1000L;
+
+	@Test
+	void overlappingBlockagesAreMergedAndQueriedByTime() {
+		RoadSegment segment = new RoadSegment();
+		// Insertados desordenados; [10, 14) y [12, 16) se fusionan
+		segment.addBlockagePeriod(at(20), at(22));
+		segment.addBlockagePeriod(at(12), at(16));
+		segment.addBlockagePeriod(at(10), at(14));
+
+		assertArrayEquals(new long[] {minutes(10), minutes(20)}, segment.getBlockageStartMinutes());
+		assertArrayEquals(new long[] {minutes(16), minutes(22)}, segment.getBlockageEndMinutes());
+
+		assertTrue(segment.isAvailableAt(at(9)));
+		assertFalse(segment.isAvailableAt(at(10)));
+		assertFalse(segment.isAvailableAt(at(15)));
+		assertTrue(segment.isAvailableAt(at(16)));
+
+		assertEquals(at(16), segment.availableFrom(at(11)));
+		assertEquals(at(18), segment.availableFrom(at(18)));
+		assertEquals(at(10), segment.nextAvailabilityChange(at(0)));
+		assertEquals(at(16), segment.nextAvailabilityChange(at(12)));
+		assertEquals(at(20), segment.nextAvailabilityChange(at(17)));
+		assertNull(segment.nextAvailabilityChange(at(22)));
+	}
+
+	@Test
+	void indexIsRebuiltWhenBlockagesChange() {
+		RoadSegment segment = new RoadSegment();
+		assertTrue(segment.isAvailableAt(at(5)));
+
+		segment.addBlockagePeriod(at(4), at(6));
+		assertFalse(segment.isAvailableAt(at(5)));
+	}
+
+	private static Date at(int hour) {
+		return new Date(hour * HOUR);
+	}
+
+	private static long minutes(int hour) {
+		return hour * 60L;
+	}
+}
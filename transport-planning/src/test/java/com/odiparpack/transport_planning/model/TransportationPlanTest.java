@@ -0,0 +1,95 @@
+package com.odiparpack.transport_planning.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.odiparpack.transport_planning.routing.LineNetworkFixture.segment;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportationPlanTest {
+
+	private static final long HOUR = 3600 * 1000L;
+
+	@Test
+	void timelineGivesTheFirstArrivalAtEachCity() {
+		City lima = city("150101");
+		City huacho = city("150801");
+		City huaraz = city("020101");
+		RoadNetwork network = new RoadNetwork(List.of(lima, huacho, huaraz),
+				List.of(segment(lima, huacho, 140, 70), segment(huacho, huaraz, 140, 70), segment(huaraz, huacho, 140, 70)));
+
+		TransportationPlan plan = new TransportationPlan();
+		Truck truck = new Truck();
+		truck.setAvailableFrom(new Date(0));
+		plan.setTruck(truck);
+		plan.setRoute(new ArrayList<>(List.of(lima, huacho, huaraz, huacho)));
+
+		RouteTimeline timeline = plan.getTimeline(network);
+		assertEquals(new Date(2 * HOUR), timeline.arrivalTime(1));
+		assertEquals(new Date(6 * HOUR), timeline.arrivalTime(3));
+		assertEquals(1, timeline.firstVisit(huacho));
+		assertEquals(new Date(4 * HOUR), timeline.arrivalTimeAt(huaraz));
+		assertSame(timeline, plan.getTimeline(network));
+
+		// Cambiar la ruta invalida la línea de tiempo
+		plan.getRoute().remove(3);
+		assertNotSame(timeline, plan.getTimeline(network));
+		plan.setRoute(new ArrayList<>(List.of(lima, huacho)));
+		assertEquals(-1, plan.getTimeline(network).firstVisit(huaraz));
+		assertEquals(new Date(2 * HOUR), plan.getTimeline(network).arrivalTimeAt(huaraz));
+	}
+
+	@Test
+	void timelineWaitsForShortBlockagesOnly() {
+		City lima = city("150101");
+		City huacho = city("150801");
+		City huaraz = city("020101");
+		RoadSegment toHuacho = segment(lima, huacho, 140, 70);
+		RoadSegment toHuaraz = segment(huacho, huaraz, 140, 70);
+		// Se espera la hora que falta para reabrir; el bloqueo de 10 horas supera la espera máxima de 4
+		toHuacho.addBlockagePeriod(new Date(0), new Date(HOUR));
+		toHuaraz.addBlockagePeriod(new Date(0), new Date(10 * HOUR));
+		RoadNetwork network = new RoadNetwork(List.of(lima, huacho, huaraz), List.of(toHuacho, toHuaraz));
+
+		TransportationPlan plan = new TransportationPlan();
+		plan.setTruck(new Truck());
+		plan.setRoute(new ArrayList<>(List.of(lima, huacho, huaraz)));
+
+		RouteTimeline timeline = plan.getTimeline(network, new Date(0));
+		assertEquals(new Date(3 * HOUR), timeline.arrivalTime(1));
+		assertEquals(new Date(5 * HOUR), timeline.arrivalTime(2));
+	}
+
+	@Test
+	void timelineWaitsAfterEachDeliveryStop() {
+		City lima = city("150101");
+		City huacho = city("150801");
+		City huaraz = city("020101");
+		RoadSegment toHuaraz = segment(huacho, huaraz, 140, 70);
+		// Sin la espera por la entrega en Huacho el camión pasaría antes del bloqueo
+		toHuaraz.addBlockagePeriod(new Date(3 * HOUR), new Date(5 * HOUR));
+		RoadNetwork network = new RoadNetwork(List.of(lima, huacho, huaraz), List.of(segment(lima, huacho, 140, 70), toHuaraz));
+
+		TransportationPlan plan = new TransportationPlan();
+		plan.setTruck(new Truck());
+		PackageOrder pkg = new PackageOrder();
+		pkg.setDestination(huacho);
+		plan.setDeliveries(List.of(pkg));
+		plan.setRoute(new ArrayList<>(List.of(lima, huacho, huaraz)));
+
+		RouteTimeline timeline = plan.getTimeline(network, new Date(0));
+		assertEquals(new Date(2 * HOUR), timeline.arrivalTime(1));
+		// Entrega, espera 2 horas y sale a las 4; el tramo reabre a las 5
+		assertEquals(new Date(4 * HOUR), timeline.departureTime(1));
+		assertEquals(new Date(7 * HOUR), timeline.arrivalTime(2));
+	}
+
+	private static City city(String ubigeo) {
+		City city = new City();
+		city.setUbigeo(ubigeo);
+		return city;
+	}
+}
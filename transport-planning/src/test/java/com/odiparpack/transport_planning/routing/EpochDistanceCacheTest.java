@@ -0,0 +1,108 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.RoadSegment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpochDistanceCacheTest {
+
+	private static final long HOUR = 3600 * 1000L;
+	// Alineado al minuto, como los instantes de cambio del índice de bloqueos
+	private static final long BLOCKED_FROM = 28_333_333L * 60_000;
+	private static final long BLOCKED_UNTIL = BLOCKED_FROM + 2 * HOUR;
+
+	private LineNetworkFixture fixture;
+	private RoadGraph graph;
+	private ShortestPathEngine engine;
+	private BlockageEpochs epochs;
+
+	// Línea 0-1-2 (2 h por tramo) más un atajo directo 0 -> 2 de 10 h; el tramo 0 -> 1 se cierra dos horas
+	@BeforeEach
+	void buildNetwork() {
+		fixture = LineNetworkFixture.of(3);
+		fixture.roadSegments.add(LineNetworkFixture.segment(fixture.city(0), fixture.city(2), 500, 50));
+		RoadSegment first = fixture.roadSegments.get(0);
+		first.addBlockagePeriod(new Date(BLOCKED_FROM), new Date(BLOCKED_UNTIL));
+		graph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+		engine = new ShortestPathEngine(graph);
+		epochs = BlockageEpochs.build(graph);
+	}
+
+	@Test
+	void epochsChangeExactlyAtTheBlockageStartAndEnd() {
+		assertEquals(3, epochs.epochCount());
+		assertEquals(0, epochs.epochOf(BLOCKED_FROM - 1));
+		assertEquals(1, epochs.epochOf(BLOCKED_FROM));
+		assertEquals(1, epochs.epochOf(BLOCKED_UNTIL - 1));
+		assertEquals(2, epochs.epochOf(BLOCKED_UNTIL));
+
+		assertEquals(BLOCKED_FROM, epochs.nextChangeAfter(BLOCKED_FROM - HOUR));
+		assertEquals(BLOCKED_UNTIL, epochs.nextChangeAfter(BLOCKED_FROM));
+		assertEquals(Long.MAX_VALUE, epochs.nextChangeAfter(BLOCKED_UNTIL));
+	}
+
+	@Test
+	void queriesAtAndAcrossTheBoundaryUseTheirOwnEpoch() {
+		EpochDistanceCache cache = new EpochDistanceCache(engine, epochs);
+		int source = graph.indexOf(fixture.city(0));
+		int target = graph.indexOf(fixture.city(2));
+
+		assertEquals(4.0, cache.row(source, new Date(BLOCKED_FROM - 1)).cost(target), 1e-9);
+		// En el instante de inicio el tramo ya está cerrado: se toma el atajo
+		assertEquals(10.0, cache.row(source, new Date(BLOCKED_FROM)).cost(target), 1e-9);
+		assertEquals(10.0, cache.row(source, new Date(BLOCKED_UNTIL - 1)).cost(target), 1e-9);
+		assertEquals(4.0, cache.row(source, new Date(BLOCKED_UNTIL)).cost(target), 1e-9);
+
+		// Dentro de una época se reutiliza la misma fila aunque cambie el instante
+		assertSame(cache.row(source, new Date(BLOCKED_FROM - HOUR)), cache.row(source, new Date(BLOCKED_FROM - 1)));
+		// Las épocas antes y después del bloqueo tienen los mismos caminos, pero no comparten fila
+		assertNotSame(cache.row(source, new Date(BLOCKED_FROM - 1)), cache.row(source, new Date(BLOCKED_UNTIL)));
+	}
+
+	@Test
+	void leastRecentlyUsedRowsAndEpochsAreEvicted() {
+		EpochDistanceCache cache = new EpochDistanceCache(engine, epochs, 2, 2);
+		Date before = new Date(BLOCKED_FROM - 1);
+
+		DistanceRow zero = cache.row(0, before);
+		DistanceRow one = cache.row(1, before);
+		assertSame(zero, cache.row(0, before));
+		// La tercera fila desplaza a la menos usada, que es la del origen 1
+		cache.row(2, before);
+		assertSame(zero, cache.row(0, before));
+		assertNotSame(one, cache.row(1, before));
+
+		// Una tercera época desplaza a la menos usada, que es la de antes del bloqueo
+		DistanceRow blocked = cache.row(0, new Date(BLOCKED_FROM));
+		cache.row(0, new Date(BLOCKED_UNTIL));
+		assertSame(blocked, cache.row(0, new Date(BLOCKED_FROM)));
+		// La fila del origen 0 seguía en su época, pero la época entera se descartó
+		long misses = cache.getMisses();
+		assertNotSame(zero, cache.row(0, before));
+		assertEquals(misses + 1, cache.getMisses());
+	}
+
+	@Test
+	void countersTrackHitsAndMisses() {
+		EpochDistanceCache cache = new EpochDistanceCache(engine, epochs);
+		assertEquals(0.0, cache.getHitRate());
+
+		cache.row(0, new Date(BLOCKED_FROM - HOUR));
+		cache.row(0, new Date(BLOCKED_FROM - 1));
+		cache.row(0, new Date(BLOCKED_FROM - 2));
+		cache.row(0, new Date(BLOCKED_FROM));
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(0.5, cache.getHitRate(), 1e-9);
+
+		// clear descarta las filas pero no los contadores
+		cache.clear();
+		cache.row(0, new Date(BLOCKED_FROM - 1));
+		assertEquals(2, cache.getHits());
+		assertEquals(3, cache.getMisses());
+	}
+}
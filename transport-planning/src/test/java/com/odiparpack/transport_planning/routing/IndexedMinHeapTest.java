@@ -0,0 +1,54 @@
+package com.odiparpack.transport_planning.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedMinHeapTest {
+
+	@Test
+	void pollsInKeyOrderAfterDecreaseKey() {
+		int n = 500;
+		Random random = new Random(7);
+		IndexedMinHeap heap = new IndexedMinHeap(n);
+		double[] expected = new double[n];
+		for (int node = 0; node < n; node++) {
+			expected[node] = random.nextDouble() * 1000;
+			heap.insertOrDecrease(node, expected[node]);
+		}
+		for (int i = 0; i < 2000; i++) {
+			int node = random.nextInt(n);
+			double key = random.nextDouble() * 1000;
+			heap.insertOrDecrease(node, key);
+			expected[node] = Math.min(expected[node], key);
+		}
+
+		Arrays.sort(expected);
+		for (int i = 0; i < n; i++) {
+			double key = heap.peekKey();
+			int node = heap.poll();
+			assertEquals(expected[i], key);
+			assertFalse(heap.contains(node));
+		}
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	void clearAllowsReuse() {
+		IndexedMinHeap heap = new IndexedMinHeap(4);
+		heap.insertOrDecrease(3, 2.0);
+		heap.insertOrDecrease(1, 1.0);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(3));
+
+		heap.ensureCapacity(8);
+		heap.insertOrDecrease(7, 5.0);
+		heap.insertOrDecrease(3, 4.0);
+		assertEquals(3, heap.poll());
+		assertEquals(7, heap.poll());
+	}
+}
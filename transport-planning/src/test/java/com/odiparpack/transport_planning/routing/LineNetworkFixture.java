@@ -0,0 +1,88 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.RoadSegment;
+import com.odiparpack.transport_planning.model.Truck;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Red pequeña en línea norte-sur para las pruebas unitarias: la ciudad i está
+ * en la latitud -i y cada par vecino se une en ambos sentidos por un tramo de
+ * 100 km a 50 km/h (2 horas). Trae también camiones y pedidos mínimos.
+ */
+public final class LineNetworkFixture {
+
+	public final List<City> cities = new ArrayList<>();
+	public final List<RoadSegment> roadSegments = new ArrayList<>();
+
+	private LineNetworkFixture() {}
+
+	public static LineNetworkFixture of(int size) {
+		LineNetworkFixture fixture = new LineNetworkFixture();
+		for (int i = 0; i < size; i++) {
+			City city = new City();
+			city.setUbigeo(String.format("%06d", i));
+			city.setProvince("P" + i);
+			city.setLatitude(-i);
+			city.setLongitude(-77);
+			city.setWarehouseCapacity(100);
+			fixture.cities.add(city);
+		}
+		for (int i = 0; i + 1 < size; i++) {
+			fixture.roadSegments.add(segment(fixture.city(i), fixture.city(i + 1)));
+			fixture.roadSegments.add(segment(fixture.city(i + 1), fixture.city(i)));
+		}
+		return fixture;
+	}
+
+	public City city(int index) {
+		return cities.get(index);
+	}
+
+	public RoadNetwork network() {
+		return new RoadNetwork(cities, roadSegments);
+	}
+
+	public static RoadSegment segment(City origin, City destination) {
+		return segment(origin, destination, 100, 50);
+	}
+
+	public static RoadSegment segment(City origin, City destination, double distance, double speedLimit) {
+		RoadSegment segment = new RoadSegment();
+		segment.setOrigin(origin);
+		segment.setDestination(destination);
+		segment.setDistance(distance);
+		segment.setSpeedLimit(speedLimit);
+		segment.setCost(distance / speedLimit);
+		return segment;
+	}
+
+	public static Truck truck(String code, int capacity, City location) {
+		Truck truck = new Truck();
+		truck.setCode(code);
+		truck.setCapacity(capacity);
+		truck.setAvailable(true);
+		truck.setCurrentLocation(location);
+		return truck;
+	}
+
+	public static PackageOrder order(String id, int quantity, City destination, long deadline) {
+		PackageOrder pkg = new PackageOrder();
+		pkg.setOrderId(id);
+		pkg.setQuantity(quantity);
+		pkg.setDestination(destination);
+		pkg.setDeliveryDeadline(new Date(deadline));
+		return pkg;
+	}
+
+	public static PackageOrder order(String id, int quantity, City destination, long orderTime, long deadline) {
+		PackageOrder pkg = order(id, quantity, destination, deadline);
+		pkg.setOrderDate(new Date(orderTime));
+		return pkg;
+	}
+}
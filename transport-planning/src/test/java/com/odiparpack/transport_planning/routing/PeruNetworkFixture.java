@@ -0,0 +1,84 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.RoadSegment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Carga las oficinas y tramos de src/main/resources/data sin levantar el
+ * contexto de Spring, con los mismos costos que calcula DataLoaderService.
+ */
+final class PeruNetworkFixture {
+
+	final List<City> cities = new ArrayList<>();
+	final List<RoadSegment> roadSegments = new ArrayList<>();
+	final Map<String, City> citiesByUbigeo = new HashMap<>();
+
+	private PeruNetworkFixture() {}
+
+	static PeruNetworkFixture load() {
+		PeruNetworkFixture fixture = new PeruNetworkFixture();
+		for (String line : readLines("data/c.1inf54.24-2.oficinas.v1.0.txt")) {
+			String[] tokens = line.split(",");
+			if (tokens.length < 7) {
+				continue;
+			}
+			City city = new City();
+			city.setUbigeo(tokens[0]);
+			city.setDepartment(tokens[1]);
+			city.setProvince(tokens[2]);
+			city.setLatitude(Double.parseDouble(tokens[3]));
+			city.setLongitude(Double.parseDouble(tokens[4]));
+			city.setRegion(tokens[5]);
+			city.setWarehouseCapacity(Integer.parseInt(tokens[6]));
+			fixture.cities.add(city);
+			fixture.citiesByUbigeo.put(city.getUbigeo(), city);
+		}
+		for (String line : readLines("data/road_segments.txt")) {
+			String[] tokens = line.split("=>");
+			if (tokens.length != 2) {
+				continue;
+			}
+			City origin = fixture.citiesByUbigeo.get(tokens[0].trim());
+			City destination = fixture.citiesByUbigeo.get(tokens[1].trim());
+			if (origin == null || destination == null) {
+				continue;
+			}
+			RoadSegment segment = new RoadSegment();
+			segment.setId((long) fixture.roadSegments.size() + 1);
+			segment.setOrigin(origin);
+			segment.setDestination(destination);
+			segment.setDistance(GeoUtils.haversineKm(origin.getLatitude(), origin.getLongitude(),
+					destination.getLatitude(), destination.getLongitude()));
+			segment.setSpeedLimit(GeoUtils.speedLimit(origin.getRegion(), destination.getRegion()));
+			segment.setCost(segment.getDistance() / segment.getSpeedLimit());
+			fixture.roadSegments.add(segment);
+		}
+		return fixture;
+	}
+
+	City city(String ubigeo) {
+		return citiesByUbigeo.get(ubigeo);
+	}
+
+	private static List<String> readLines(String resource) {
+		List<String> lines = new ArrayList<>();
+		ClassLoader loader = PeruNetworkFixture.class.getClassLoader();
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(
+				Objects.requireNonNull(loader.getResourceAsStream(resource), resource), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				lines.add(line);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return lines;
+	}
+}
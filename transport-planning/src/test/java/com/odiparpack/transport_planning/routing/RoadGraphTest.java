@@ -0,0 +1,31 @@
+package com.odiparpack.transport_planning.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadGraphTest {
+
+	@Test
+	void edgeLookupFindsEverySegmentAndRejectsMissingPairs() {
+		PeruNetworkFixture fixture = PeruNetworkFixture.load();
+		RoadGraph graph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+
+		for (int e = 0; e < graph.edgeCount(); e++) {
+			int found = graph.edgeBetween(graph.source(e), graph.target(e));
+			assertEquals(graph.source(e), graph.source(found));
+			assertEquals(graph.target(e), graph.target(found));
+		}
+
+		int pairs = 0;
+		for (int u = 0; u < graph.nodeCount(); u++) {
+			for (int v = 0; v < graph.nodeCount(); v++) {
+				if (graph.edgeBetween(u, v) >= 0) {
+					pairs++;
+				}
+			}
+		}
+		assertEquals(graph.edgeCount(), pairs);
+		assertEquals(-1, graph.edgeBetween(-1, 0));
+	}
+}
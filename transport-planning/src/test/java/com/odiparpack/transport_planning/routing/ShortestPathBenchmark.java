@@ -0,0 +1,95 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.ShortestPathResult;
+
+import java.util.*;
+
+/**
+ * Compara el Dijkstra con {@link IndexedMinHeap} contra la versión anterior con
+ * PriorityQueue y borrado perezoso, sobre la red completa de oficinas del Perú.
+ * No forma parte de la suite de pruebas; se ejecuta a mano:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.odiparpack.transport_planning.routing.ShortestPathBenchmark
+ * </pre>
+ */
+public class ShortestPathBenchmark {
+
+	private static final int QUERIES = 20_000;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		PeruNetworkFixture fixture = PeruNetworkFixture.load();
+		RoadGraph graph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+		ShortestPathEngine engine = new ShortestPathEngine(graph);
+		Date time = new Date();
+
+		Random random = new Random(42);
+		int[] sources = new int[QUERIES];
+		int[] targets = new int[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			sources[i] = random.nextInt(graph.nodeCount());
+			targets[i] = random.nextInt(graph.nodeCount());
+		}
+
+		System.out.printf("Red: %d nodos, %d tramos, %d consultas por ronda%n",
+				graph.nodeCount(), graph.edgeCount(), QUERIES);
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			double checksumLazy = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++) {
+				checksumLazy += lazyPriorityQueue(graph, sources[i], targets[i], time);
+			}
+			long lazyNanos = System.nanoTime() - start;
+
+			double checksumIndexed = 0;
+			start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++) {
+				ShortestPathResult result = engine.shortestPath(sources[i], targets[i], time);
+				checksumIndexed += result.getCost();
+			}
+			long indexedNanos = System.nanoTime() - start;
+
+			if (Math.abs(checksumLazy - checksumIndexed) > 1e-6 * Math.abs(checksumLazy)) {
+				throw new IllegalStateException("Los costos no coinciden: " + checksumLazy + " vs " + checksumIndexed);
+			}
+			System.out.printf("Ronda %d: PriorityQueue %.1f us/consulta | IndexedMinHeap %.1f us/consulta%n",
+					round, lazyNanos / 1000.0 / QUERIES, indexedNanos / 1000.0 / QUERIES);
+		}
+	}
+
+	// Reproduce la cola de la implementación original: un par en caja por relajación y entradas obsoletas
+	private static double lazyPriorityQueue(RoadGraph graph, int source, int target, Date time) {
+		PriorityQueue<double[]> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[1]));
+		double[] costs = new double[graph.nodeCount()];
+		boolean[] visited = new boolean[graph.nodeCount()];
+		Arrays.fill(costs, Double.MAX_VALUE);
+		costs[source] = 0.0;
+		queue.add(new double[] {source, 0.0});
+
+		while (!queue.isEmpty()) {
+			double[] current = queue.poll();
+			int u = (int) current[0];
+			if (visited[u]) {
+				continue;
+			}
+			visited[u] = true;
+			if (u == target) {
+				return costs[u];
+			}
+			for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				if (!graph.segment(e).isAvailableAt(time)) {
+					continue;
+				}
+				int v = graph.target(e);
+				double newCost = current[1] + graph.cost(e);
+				if (newCost < costs[v]) {
+					costs[v] = newCost;
+					queue.add(new double[] {v, newCost});
+				}
+			}
+		}
+		return Double.MAX_VALUE;
+	}
+}
@@ -0,0 +1,226 @@
+package com.odiparpack.transport_planning.routing;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.ShortestPathResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathStrategiesTest {
+
+	private static RoadGraph graph;
+	private static ShortestPathEngine engine;
+
+	@BeforeAll
+	static void loadNetwork() {
+		PeruNetworkFixture fixture = PeruNetworkFixture.load();
+		graph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+		engine = new ShortestPathEngine(graph, LandmarkIndex.build(graph, LandmarkIndex.DEFAULT_LANDMARKS));
+	}
+
+	@Test
+	void goalDirectedStrategiesMatchDijkstra() {
+		Date time = new Date();
+		Random random = new Random(11);
+		for (int i = 0; i < 300; i++) {
+			int source = random.nextInt(graph.nodeCount());
+			int target = random.nextInt(graph.nodeCount());
+			double expected = engine.shortestPath(source, target, time).getCost();
+			for (ShortestPathStrategy strategy : new ShortestPathStrategy[] {ShortestPathStrategy.A_STAR, ShortestPathStrategy.ALT}) {
+				ShortestPathResult result = engine.shortestPath(source, target, time, strategy);
+				assertEquals(expected, result.getCost(), 1e-9, strategy + " " + source + " -> " + target);
+				assertEquals(graph.indexOf(result.getPath().get(result.getPath().size() - 1)), target);
+			}
+		}
+	}
+
+	@Test
+	void goalDirectedStrategiesSettleFewerNodesAcrossPeru() {
+		int tumbes = graph.indexOf(PeruNetworkFixture.load().city("240101"));
+		int tacna = graph.indexOf(PeruNetworkFixture.load().city("230101"));
+		Date time = new Date();
+
+		engine.shortestPath(tumbes, tacna, time, ShortestPathStrategy.DIJKSTRA);
+		int dijkstra = engine.lastSettledCount();
+		engine.shortestPath(tumbes, tacna, time, ShortestPathStrategy.A_STAR);
+		int aStar = engine.lastSettledCount();
+		engine.shortestPath(tumbes, tacna, time, ShortestPathStrategy.ALT);
+		int alt = engine.lastSettledCount();
+
+		assertTrue(aStar < dijkstra, "A* " + aStar + " vs Dijkstra " + dijkstra);
+		assertTrue(alt < dijkstra, "ALT " + alt + " vs Dijkstra " + dijkstra);
+	}
+
+	@Test
+	void contractionHierarchyMatchesDijkstraWithBlockagesAndAfterReload(@TempDir Path dir) throws IOException {
+		PeruNetworkFixture fixture = PeruNetworkFixture.load();
+		RoadGraph blockedGraph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+		ShortestPathEngine dijkstra = new ShortestPathEngine(blockedGraph);
+		int tumbes = blockedGraph.indexOf(fixture.city("240101"));
+		int tacna = blockedGraph.indexOf(fixture.city("230101"));
+
+		// Cerrar los tramos del camino óptimo durante una ventana de dos horas
+		Date now = new Date();
+		Date before = new Date(now.getTime() - 3 * 3600 * 1000);
+		List<City> optimal = dijkstra.shortestPath(tumbes, tacna, now).getPath();
+		for (int i = 0; i < optimal.size() - 1; i++) {
+			for (int e = blockedGraph.firstEdge(blockedGraph.indexOf(optimal.get(i))); e < blockedGraph.endEdge(blockedGraph.indexOf(optimal.get(i))); e++) {
+				if (blockedGraph.city(blockedGraph.target(e)).equals(optimal.get(i + 1))) {
+					blockedGraph.segment(e).addBlockagePeriod(new Date(now.getTime() - 3600 * 1000), new Date(now.getTime() + 3600 * 1000));
+				}
+			}
+		}
+
+		// El índice de bloqueos se arma con el grafo
+		blockedGraph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+		dijkstra = new ShortestPathEngine(blockedGraph);
+
+		Path indexPath = dir.resolve("peru.cch");
+		ContractionHierarchy.loadOrBuild(blockedGraph, indexPath);
+		ContractionHierarchy hierarchy = ContractionHierarchy.load(blockedGraph, indexPath);
+		assertNotNull(hierarchy);
+
+		Random random = new Random(5);
+		for (int i = 0; i < 300; i++) {
+			int source = i == 0 ? tumbes : random.nextInt(blockedGraph.nodeCount());
+			int target = i == 0 ? tacna : random.nextInt(blockedGraph.nodeCount());
+			for (Date time : new Date[] {before, now}) {
+				ShortestPathResult expected = dijkstra.shortestPath(source, target, time);
+				ShortestPathResult result = hierarchy.shortestPath(source, target, time);
+				assertEquals(expected.getCost(), result.getCost(), 1e-9, source + " -> " + target + " at " + time);
+				assertEquals(pathCost(blockedGraph, result.getPath(), time), result.getCost(), 1e-9);
+			}
+		}
+		assertTrue(hierarchy.shortestPath(tumbes, tacna, now).getCost() > hierarchy.shortestPath(tumbes, tacna, before).getCost());
+	}
+
+	@Test
+	void earliestArrivalChecksBlockagesWhenTheTruckReachesEachSegment() {
+		PeruNetworkFixture fixture = PeruNetworkFixture.load();
+		RoadGraph timedGraph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+		ShortestPathEngine timedEngine = new ShortestPathEngine(timedGraph);
+		int tumbes = timedGraph.indexOf(fixture.city("240101"));
+		int tacna = timedGraph.indexOf(fixture.city("230101"));
+		Date departure = new Date();
+
+		ShortestPathResult free = timedEngine.shortestPath(tumbes, tacna, departure);
+		assertEquals(free.getCost(), timedEngine.earliestArrivals(tumbes, new int[] {tacna}, departure, 0)[0].getCost(), 1e-9);
+
+		// El último tramo se cierra una hora después de la salida: libre al salir, bloqueado al llegar
+		List<City> path = free.getPath();
+		int last = timedGraph.indexOf(path.get(path.size() - 2));
+		for (int e = timedGraph.firstEdge(last); e < timedGraph.endEdge(last); e++) {
+			if (timedGraph.target(e) == tacna) {
+				timedGraph.segment(e).addBlockagePeriod(new Date(departure.getTime() + 3600 * 1000), new Date(departure.getTime() + 1000L * 3600 * 1000));
+			}
+		}
+		timedGraph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+		timedEngine = new ShortestPathEngine(timedGraph);
+
+		assertEquals(free.getCost(), timedEngine.shortestPath(tumbes, tacna, departure).getCost(), 1e-9);
+		ShortestPathResult detour = timedEngine.earliestArrivals(tumbes, new int[] {tacna}, departure, 0)[0];
+		assertTrue(detour.getCost() > free.getCost(), "desvío " + detour.getCost() + " vs " + free.getCost());
+		assertNotEquals(path.get(path.size() - 2), detour.getPath().get(detour.getPath().size() - 2));
+	}
+
+	@Test
+	void oneToManyMatchesPointToPointIncludingUnreachableAndUnknownDestinations() {
+		PeruNetworkFixture fixture = PeruNetworkFixture.load();
+		// Una ciudad sin tramos queda en el grafo pero es inalcanzable; la otra no está en la red
+		City isolated = new City();
+		isolated.setUbigeo("999998");
+		City unknown = new City();
+		unknown.setUbigeo("999999");
+		List<City> cities = new ArrayList<>(fixture.cities);
+		cities.add(isolated);
+		RoadNetwork network = new RoadNetwork(cities, fixture.roadSegments);
+		RoadGraph networkGraph = network.getGraph();
+		ShortestPathEngine networkEngine = network.getEngine();
+		Date time = new Date();
+
+		Random random = new Random(17);
+		for (int i = 0; i < 20; i++) {
+			City origin = fixture.cities.get(random.nextInt(fixture.cities.size()));
+			List<City> destinations = new ArrayList<>();
+			for (int k = 0; k < 30; k++) {
+				destinations.add(fixture.cities.get(random.nextInt(fixture.cities.size())));
+			}
+			// El propio origen, un destino repetido, uno inalcanzable y uno desconocido
+			destinations.add(origin);
+			destinations.add(destinations.get(0));
+			destinations.add(isolated);
+			destinations.add(unknown);
+
+			int[] targets = new int[destinations.size() - 1];
+			for (int k = 0; k < targets.length; k++) {
+				targets[k] = networkGraph.indexOf(destinations.get(k));
+			}
+			ShortestPathResult[] oneToMany = networkEngine.shortestPaths(networkGraph.indexOf(origin), targets, time);
+			for (int k = 0; k < targets.length; k++) {
+				ShortestPathResult expected = networkEngine.shortestPath(networkGraph.indexOf(origin), targets[k], time);
+				assertSameResult(networkGraph, origin, destinations.get(k), expected, oneToMany[k], time);
+			}
+
+			for (ShortestPathStrategy strategy : new ShortestPathStrategy[] {ShortestPathStrategy.DIJKSTRA, ShortestPathStrategy.EPOCH_CACHE}) {
+				network.setStrategy(strategy);
+				Map<City, ShortestPathResult> results = network.calculateShortestPaths(origin, destinations, time);
+				assertEquals(new LinkedHashSet<>(destinations), results.keySet(), strategy.toString());
+				for (City destination : destinations) {
+					ShortestPathResult expected = network.calculateShortestPathCost(origin, destination, time, ShortestPathStrategy.DIJKSTRA);
+					assertSameResult(networkGraph, origin, destination, expected, results.get(destination), time);
+				}
+			}
+		}
+
+		network.setStrategy(ShortestPathStrategy.DIJKSTRA);
+		Map<City, ShortestPathResult> fromUnknown = network.calculateShortestPaths(unknown, fixture.cities.subList(0, 3), time);
+		for (ShortestPathResult result : fromUnknown.values()) {
+			assertEquals(Double.MAX_VALUE, result.getCost());
+			assertTrue(result.getPath().isEmpty());
+		}
+	}
+
+	private static void assertSameResult(RoadGraph graph, City origin, City destination, ShortestPathResult expected,
+			ShortestPathResult result, Date time) {
+		String label = origin.getUbigeo() + " -> " + destination.getUbigeo();
+		assertEquals(expected.getCost(), result.getCost(), 1e-9, label);
+		if (expected.getCost() == Double.MAX_VALUE) {
+			assertTrue(result.getPath().isEmpty(), label);
+			return;
+		}
+		// Con empates el camino puede ser otro, pero debe unir las mismas ciudades al mismo costo
+		List<City> path = result.getPath();
+		assertEquals(origin, path.get(0), label);
+		assertEquals(destination, path.get(path.size() - 1), label);
+		assertEquals(result.getCost(), pathCost(graph, path, time), 1e-9, label);
+	}
+
+	// Suma los tramos disponibles del camino; falla si alguno no existe o está bloqueado
+	private static double pathCost(RoadGraph graph, List<City> path, Date time) {
+		double cost = 0;
+		for (int i = 0; i < path.size() - 1; i++) {
+			int u = graph.indexOf(path.get(i));
+			double best = Double.MAX_VALUE;
+			for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				if (graph.city(graph.target(e)).equals(path.get(i + 1)) && graph.segment(e).isAvailableAt(time)) {
+					best = Math.min(best, graph.cost(e));
+				}
+			}
+			assertNotEquals(Double.MAX_VALUE, best, "tramo inexistente o bloqueado en " + path.get(i).getUbigeo());
+			cost += best;
+		}
+		return cost;
+	}
+}
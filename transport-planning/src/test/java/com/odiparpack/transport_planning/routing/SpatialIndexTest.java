@@ -0,0 +1,46 @@
+package com.odiparpack.transport_planning.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialIndexTest {
+
+	@Test
+	void nearestMatchesABruteForceScan() {
+		PeruNetworkFixture fixture = PeruNetworkFixture.load();
+		RoadGraph graph = RoadGraph.build(fixture.cities, fixture.roadSegments);
+		SpatialIndex index = SpatialIndex.build(graph);
+
+		double meanLatitude = IntStream.range(0, graph.nodeCount()).mapToDouble(graph::latitude).average().orElse(0);
+		double cos = Math.cos(Math.toRadians(meanLatitude));
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			int q = node;
+			// Solo los nodos pares, para probar también el filtro
+			int[] expected = IntStream.range(0, graph.nodeCount())
+					.filter(v -> v % 2 == 0)
+					.boxed()
+					.sorted(Comparator.<Integer>comparingDouble(v -> projectedDistance(graph, cos, q, v)).thenComparingInt(v -> v))
+					.limit(6)
+					.mapToInt(Integer::intValue)
+					.toArray();
+			int[] found = index.nearest(node, 6, v -> v % 2 == 0);
+			// Con distancias empatadas el árbol puede elegir otro nodo a la misma distancia
+			assertEquals(expected.length, found.length);
+			for (int i = 0; i < found.length; i++) {
+				assertEquals(projectedDistance(graph, cos, q, expected[i]), projectedDistance(graph, cos, q, found[i]), 1e-9,
+						() -> "nodo " + q + ": " + Arrays.toString(expected) + " vs " + Arrays.toString(found));
+			}
+		}
+	}
+
+	private static double projectedDistance(RoadGraph graph, double cos, int a, int b) {
+		double dx = (graph.longitude(a) - graph.longitude(b)) * cos;
+		double dy = graph.latitude(a) - graph.latitude(b);
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+}
@@ -0,0 +1,33 @@
+package com.odiparpack.transport_planning.service;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.RoadSegment;
+import com.odiparpack.transport_planning.routing.LineNetworkFixture;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadNetworkProviderTest {
+
+	@Test
+	void snapshotIsSharedUntilSegmentsOrBlockagesChange() {
+		LineNetworkFixture fixture = LineNetworkFixture.of(3);
+		List<City> cities = fixture.cities;
+		List<RoadSegment> segments = fixture.roadSegments;
+
+		RoadNetworkProvider provider = new RoadNetworkProvider();
+		NetworkSnapshot first = provider.acquire(cities, segments);
+		assertSame(first, provider.acquire(cities, new ArrayList<>(segments)));
+		assertEquals(1, first.getVersion());
+
+		segments.get(1).addBlockagePeriod(new Date(0), new Date(3_600_000));
+		NetworkSnapshot second = provider.acquire(cities, segments);
+		assertNotSame(first, second);
+		assertEquals(2, second.getVersion());
+		assertSame(second, provider.acquire(cities, segments));
+	}
+}
@@ -0,0 +1,175 @@
+package com.odiparpack.transport_planning.simulation;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.Truck;
+import com.odiparpack.transport_planning.routing.LineNetworkFixture;
+import com.odiparpack.transport_planning.solver.CancellationToken;
+import com.odiparpack.transport_planning.solver.PlanState;
+import com.odiparpack.transport_planning.solver.Solution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.odiparpack.transport_planning.routing.LineNetworkFixture.order;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+
+	private static final long MINUTE = 60_000L;
+	private static final long DAY = 24 * 60 * MINUTE;
+
+	private LineNetworkFixture fixture;
+	private List<City> cities;
+	private RoadNetwork network;
+
+	@BeforeEach
+	void setUp() {
+		// Línea 0 - 1 - 2 - 3 con tramos de 2 horas; el depósito está en la ciudad 0
+		fixture = LineNetworkFixture.of(4);
+		cities = fixture.cities;
+		network = fixture.network();
+	}
+
+	@Test
+	void ordersArriveAreDispatchedAtTheNextReplanAndDelivered() {
+		Truck truck = truck("T1", 10);
+		PackageOrder order = order("1", 4, cities.get(2), 30 * MINUTE, DAY);
+
+		Simulation simulation = new Simulation(network, settings(DAY, false), List.of(truck), this::firstFreeTruck);
+		simulation.addOrders(List.of(order));
+		SimulationReport report = simulation.run();
+
+		assertEquals(SimulationReport.StopReason.END_OF_HORIZON, report.getStopReason());
+		assertEquals(1, report.getOrdersReceived());
+		assertEquals(1, report.getDeliveries());
+		assertEquals(0, report.getLateOrders());
+		assertEquals(1, report.getReplans());
+		// Sale en la replanificación de la hora 1 y llega tras dos tramos de 2 horas
+		assertEquals(new Date(300 * MINUTE), truck.getLastStopTime());
+		assertEquals(1, report.getEventCount(EventType.TRUCK_ARRIVAL));
+		assertEquals(1, report.getEventCount(EventType.TRUCK_RETURN));
+		assertEquals(1, report.getEventCount(EventType.WAREHOUSE_RELEASE));
+		assertEquals(24, report.getEventCount(EventType.REPLAN));
+		// De vuelta en el depósito y con el almacén de destino ya liberado
+		assertEquals(cities.get(0), truck.getCurrentLocation());
+		assertEquals(0, cities.get(2).getCurrentCapacity());
+		assertEquals(new Date(DAY), report.getEnd());
+	}
+
+	@Test
+	void aBlockageMetAfterADeliveryWaitDelaysTheNextArrival() {
+		// El camión sale a la hora 1, entrega en 1 a las 3 horas y espera 2; el tramo 1 -> 2 sigue cerrado hasta la hora 6
+		fixture.roadSegments.get(2).addBlockagePeriod(new Date(200 * MINUTE), new Date(360 * MINUTE));
+		network = fixture.network();
+		Truck truck = truck("T1", 10);
+		PackageOrder near = order("1", 4, cities.get(1), 30 * MINUTE, DAY);
+		PackageOrder far = order("2", 4, cities.get(2), 30 * MINUTE, DAY);
+
+		Simulation simulation = new Simulation(network, settings(DAY, false), List.of(truck), this::firstFreeTruck);
+		simulation.addOrders(List.of(near, far));
+		simulation.addBlockages(fixture.roadSegments);
+		SimulationReport report = simulation.run();
+
+		assertEquals(1, report.getEventCount(EventType.BLOCKAGE_START));
+		assertEquals(2, report.getDeliveries());
+		// Sale de 1 a los 300 minutos, espera la reapertura a los 360 y llega a 2 dos horas después
+		assertEquals(new Date(480 * MINUTE), truck.getLastStopTime());
+	}
+
+	@Test
+	void aBreakdownReturnsTheLoadToTheQueueForAnotherTruck() {
+		Truck first = truck("T1", 10);
+		Truck second = truck("T2", 10);
+		PackageOrder order = order("1", 4, cities.get(3), 30 * MINUTE, DAY);
+
+		Simulation simulation = new Simulation(network, settings(DAY, false), List.of(first, second), this::firstFreeTruck);
+		simulation.addOrders(List.of(order));
+		simulation.addIncidents(List.of(new TruckIncident(TruckIncident.Kind.BREAKDOWN, "T1",
+				new Date(120 * MINUTE), new Date(120 * MINUTE + 2 * DAY), 1)));
+		SimulationReport report = simulation.run();
+
+		assertEquals(1, report.getBreakdowns());
+		assertEquals(1, report.getReturnedPackages());
+		assertEquals(1, report.getDeliveries());
+		assertEquals(0, report.getLateOrders());
+		// T1 se avería en camino; T2 sale en la misma replanificación y llega 6 horas después
+		assertNull(first.getLastStopTime());
+		assertTrue(first.isBrokenDown());
+		assertEquals(new Date(480 * MINUTE), second.getLastStopTime());
+	}
+
+	@Test
+	void aCancelledRunStopsBeforeTheNextEvent() {
+		Truck truck = truck("T1", 10);
+		CancellationToken token = new CancellationToken();
+		Simulation simulation = new Simulation(network, settings(DAY, false), List.of(truck), (now, trucks, orders) -> {
+			token.cancel();
+			return firstFreeTruck(now, trucks, orders);
+		});
+		simulation.addOrders(List.of(order("1", 4, cities.get(2), 30 * MINUTE, DAY)));
+		SimulationReport report = simulation.run(token);
+
+		assertEquals(SimulationReport.StopReason.CANCELLED, report.getStopReason());
+		assertEquals(1, report.getReplans());
+		assertEquals(0, report.getDeliveries());
+		assertEquals(new Date(60 * MINUTE), report.getEnd());
+	}
+
+	@Test
+	void theCollapseScenarioStopsAtTheFirstMissedDeadline() {
+		Truck truck = truck("T1", 5);
+		PackageOrder served = order("A", 5, cities.get(3), 30 * MINUTE, 8 * 60 * MINUTE);
+		PackageOrder missed = order("B", 5, cities.get(3), 30 * MINUTE, 8 * 60 * MINUTE);
+
+		Simulation simulation = new Simulation(network, settings(30 * DAY, true), List.of(truck), this::firstFreeTruck);
+		simulation.addOrders(List.of(served, missed));
+		SimulationReport report = simulation.run();
+
+		assertEquals(SimulationReport.StopReason.COLLAPSE, report.getStopReason());
+		assertEquals("B", report.getCollapseOrderId());
+		assertEquals(new Date(8 * 60 * MINUTE), report.getCollapseTime());
+		assertEquals(new Date(8 * 60 * MINUTE), report.getEnd());
+		assertEquals(1, report.getDeliveries());
+		assertEquals(1, report.getLateOrders());
+	}
+
+	// Todo lo que entre en el primer camión libre, con ida y vuelta por la línea hasta el destino más lejano
+	private Solution firstFreeTruck(Date now, List<Truck> trucks, List<PackageOrder> orders) {
+		Truck truck = trucks.get(0);
+		List<PackageOrder> deliveries = new ArrayList<>();
+		int load = 0;
+		int farthest = 0;
+		for (PackageOrder order : orders) {
+			if (load + order.getQuantity() <= truck.getCapacity()) {
+				deliveries.add(order);
+				load += order.getQuantity();
+				farthest = Math.max(farthest, cities.indexOf(order.getDestination()));
+			}
+		}
+		List<City> route = new ArrayList<>();
+		for (int i = 0; i <= farthest; i++) {
+			route.add(cities.get(i));
+		}
+		for (int i = farthest - 1; i >= 0; i--) {
+			route.add(cities.get(i));
+		}
+		return Solution.of(List.of(new PlanState(truck, deliveries, route)));
+	}
+
+	private static SimulationSettings settings(long horizon, boolean stopAtCollapse) {
+		SimulationSettings settings = new SimulationSettings();
+		settings.setStart(new Date(0));
+		settings.setEnd(new Date(horizon));
+		settings.setStopAtCollapse(stopAtCollapse);
+		return settings;
+	}
+
+	private Truck truck(String code, int capacity) {
+		return LineNetworkFixture.truck(code, capacity, cities.get(0));
+	}
+}
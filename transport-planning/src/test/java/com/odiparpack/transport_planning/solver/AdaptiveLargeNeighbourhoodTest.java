@@ -0,0 +1,164 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.RoadSegment;
+import com.odiparpack.transport_planning.model.Truck;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLargeNeighbourhoodTest {
+
+	private static final List<City> CITIES = new ArrayList<>();
+	private static final RoadNetwork NETWORK;
+
+	static {
+		for (int i = 0; i < 6; i++) {
+			City city = new City();
+			city.setUbigeo(String.format("%06d", i));
+			city.setLatitude(-i);
+			city.setLongitude(-77);
+			CITIES.add(city);
+		}
+		List<RoadSegment> segments = new ArrayList<>();
+		for (int i = 0; i + 1 < CITIES.size(); i++) {
+			RoadSegment segment = new RoadSegment();
+			segment.setOrigin(CITIES.get(i));
+			segment.setDestination(CITIES.get(i + 1));
+			segment.setDistance(100);
+			segment.setSpeedLimit(50);
+			segment.setCost(2);
+			segments.add(segment);
+		}
+		NETWORK = new RoadNetwork(CITIES, segments);
+	}
+
+	@Test
+	void destroyAndRepairKeepsEveryDeliveryOnceWithinCapacity() {
+		SolverSettings settings = new SolverSettings();
+		settings.setRemovalFraction(0.5);
+		AdaptiveLargeNeighbourhood operators = new AdaptiveLargeNeighbourhood(NETWORK, new Date(0), settings, null,
+				AdaptiveLargeNeighbourhoodTest::plan, AdaptiveLargeNeighbourhoodTest::evaluate);
+		List<DestroyOperator> destroys = List.of(DestroyOperators.random(), DestroyOperators.worstLateness(NETWORK, new Date(0)),
+				DestroyOperators.related());
+		List<RepairOperator> repairs = List.of(RepairOperators.greedy(), RepairOperators.regret());
+		SplittableRandom random = new SplittableRandom(7);
+
+		Solution initial = initialSolution();
+		for (DestroyOperator destroy : destroys) {
+			for (RepairOperator repair : repairs) {
+				Solution solution = initial;
+				for (int step = 0; step < 20; step++) {
+					SolutionCost cost = new SolutionCost(0, edge -> 0, AdaptiveLargeNeighbourhoodTest::evaluate);
+					Solution next = operators.destroyAndRepair(solution, cost, destroy, repair, random);
+					assertSameDeliveries(initial, next);
+					assertEquals(totalCost(next), cost.total(next), 1e-9);
+					for (int p = 0; p < next.size(); p++) {
+						assertTrue(next.get(p).getLoad() <= next.get(p).getTruck().getCapacity());
+						assertFalse(next.get(p).getDeliveries().isEmpty());
+					}
+					solution = next;
+				}
+			}
+		}
+	}
+
+	@Test
+	void everyIterationIsChargedToAnOperator() {
+		SolverSettings settings = new SolverSettings();
+		settings.setAdaptiveOperators(true);
+		settings.setMaxIterations(60);
+		settings.setOperatorSegment(10);
+		SolverContext context = new SolverContext(NETWORK, 1, new Date(0), settings);
+
+		IslandSolver.Result result = new IslandSolver(context, AdaptiveLargeNeighbourhoodTest::plan,
+				AdaptiveLargeNeighbourhoodTest::evaluate).solve(initialSolution());
+		IslandStats island = result.getIslandStats().get(0);
+		List<OperatorStats> stats = island.getOperatorStats();
+		// Vecindario y tres remociones, luego las dos reparaciones
+		assertEquals(6, stats.size());
+		long moves = 0;
+		for (int op = 0; op < 4; op++) {
+			moves += stats.get(op).getCalls();
+		}
+		assertEquals(island.getIterations(), moves);
+		assertEquals(moves - stats.get(0).getCalls(), stats.get(4).getCalls() + stats.get(5).getCalls());
+		assertTrue(result.getBestCost() <= totalCost(initialSolution()));
+	}
+
+	private static void assertSameDeliveries(Solution expected, Solution actual) {
+		Map<PackageOrder, Integer> count = new IdentityHashMap<>();
+		for (int p = 0; p < actual.size(); p++) {
+			for (PackageOrder pkg : actual.get(p).getDeliveries()) {
+				assertNull(count.put(pkg, 1));
+			}
+		}
+		int total = 0;
+		for (int p = 0; p < expected.size(); p++) {
+			for (PackageOrder pkg : expected.get(p).getDeliveries()) {
+				assertTrue(count.containsKey(pkg));
+				total++;
+			}
+		}
+		assertEquals(total, count.size());
+	}
+
+	// Tres camiones en la ciudad 0 con entregas repartidas por turnos entre las otras ciudades
+	private static Solution initialSolution() {
+		List<PlanState> plans = new ArrayList<>();
+		int orderId = 0;
+		for (int t = 0; t < 3; t++) {
+			Truck truck = new Truck();
+			truck.setCode("T" + t);
+			truck.setCapacity(12);
+			truck.setCurrentLocation(CITIES.get(0));
+			truck.setAvailableFrom(new Date(0));
+			List<PackageOrder> deliveries = new ArrayList<>();
+			for (int d = 0; d < 3; d++) {
+				PackageOrder pkg = new PackageOrder();
+				pkg.setOrderId(String.valueOf(orderId));
+				pkg.setQuantity(2 + d);
+				pkg.setDestination(CITIES.get(1 + orderId % 5));
+				pkg.setDeliveryDeadline(new Date(orderId * 3_600_000L));
+				deliveries.add(pkg);
+				orderId++;
+			}
+			plans.add(plan(truck, deliveries));
+		}
+		return Solution.of(plans);
+	}
+
+	private static PlanState plan(Truck truck, List<PackageOrder> deliveries) {
+		List<City> route = new ArrayList<>();
+		route.add(truck.getCurrentLocation());
+		deliveries.forEach(pkg -> route.add(pkg.getDestination()));
+		return new PlanState(truck, deliveries, route);
+	}
+
+	// Cada camión prefiere los destinos cercanos a su número
+	private static PlanEvaluation evaluate(PlanState plan) {
+		int truck = Integer.parseInt(plan.getTruck().getCode().substring(1));
+		double cost = 0;
+		for (PackageOrder pkg : plan.getDeliveries()) {
+			cost += Math.abs(Integer.parseInt(pkg.getDestination().getUbigeo()) - 2 * truck) * pkg.getQuantity();
+		}
+		return new PlanEvaluation(cost, new int[0]);
+	}
+
+	private static double totalCost(Solution solution) {
+		double total = 0;
+		for (int p = 0; p < solution.size(); p++) {
+			total += evaluate(solution.get(p)).getBaseCost();
+		}
+		return total;
+	}
+}
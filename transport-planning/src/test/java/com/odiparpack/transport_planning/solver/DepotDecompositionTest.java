@@ -0,0 +1,159 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.Truck;
+import com.odiparpack.transport_planning.routing.LineNetworkFixture;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static com.odiparpack.transport_planning.routing.LineNetworkFixture.order;
+import static com.odiparpack.transport_planning.routing.LineNetworkFixture.truck;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepotDecompositionTest {
+
+	// Dos depósitos en los extremos de una línea norte-sur con tres ciudades a cada lado
+	private final LineNetworkFixture fixture = LineNetworkFixture.of(8);
+	private final List<City> cities = fixture.cities;
+
+	@Test
+	void ordersAreSolvedByTheirNearestDepotAndNoneIsLost() {
+		SolverSettings settings = new SolverSettings();
+		settings.setMaxIterations(20);
+		settings.setRepairIterations(10);
+		SolverContext context = context(settings);
+		IslandSolver.Result result = decomposition(context).solve(trucks(), packages());
+
+		Set<String> delivered = new HashSet<>();
+		for (int p = 0; p < result.getBestSolution().size(); p++) {
+			PlanState plan = result.getBestSolution().get(p);
+			for (PackageOrder pkg : plan.getDeliveries()) {
+				assertTrue(delivered.add(pkg.getOrderId()));
+				// Cada pedido queda con un camión del depósito de su lado
+				assertEquals(Integer.parseInt(pkg.getOrderId()) < 4, plan.getTruck().getCurrentLocation() == cities.get(0));
+			}
+		}
+		assertEquals(6, delivered.size());
+		assertSame(result.getBestSolution(), context.getIncumbent().getBestSolution());
+	}
+
+	@Test
+	void theTargetIsOnlyComparedWithTheStitchedSolution() {
+		SolverSettings settings = new SolverSettings();
+		settings.setMaxIterations(20);
+		settings.setRepairIterations(10);
+		settings.setTargetObjective(1e9);
+		IslandSolver.Result result = decomposition(context(settings)).solve(trucks(), packages());
+
+		// Los depósitos no se detienen por el objetivo global; la unión ya lo cumple y no hace falta reparar
+		assertEquals(2, result.getIslandStats().size());
+		for (IslandStats stats : result.getIslandStats()) {
+			assertEquals(TerminationReason.MAX_ITERATIONS, stats.getTerminationReason());
+		}
+	}
+
+	@Test
+	void theRepairPassOnlyGetsTheTimeTheDepotsLeft() {
+		SolverSettings settings = new SolverSettings();
+		settings.setMaxIterations(0);
+		settings.setTimeBudgetMillis(300);
+		// Sin plazo propio, una reparación tan larga excedería el presupuesto
+		settings.setRepairIterations(Integer.MAX_VALUE);
+
+		IslandSolver.Result result = decomposition(context(settings)).solve(trucks(), packages());
+		// Con MAX_VALUE iteraciones solo el plazo compartido puede haber detenido la reparación
+		for (IslandStats stats : result.getIslandStats()) {
+			assertEquals(TerminationReason.TIME_BUDGET, stats.getTerminationReason());
+		}
+	}
+
+	@Test
+	void theStitchedBestIsReadableWhileTheDepotsAreStillSearching() throws Exception {
+		// Los depósitos solo se detienen al cancelar: el presupuesto no se alcanza durante la prueba
+		SolverSettings settings = new SolverSettings();
+		settings.setMaxIterations(0);
+		settings.setTimeBudgetMillis(600_000);
+		settings.setRepairIterations(0);
+		SolverContext context = context(settings);
+
+		CompletableFuture<IslandSolver.Result> run = CompletableFuture.supplyAsync(
+				() -> decomposition(context).solve(trucks(), packages()));
+		Solution early = null;
+		while (early == null && !run.isDone()) {
+			early = context.getIncumbent().getBestSolution();
+			Thread.sleep(5);
+		}
+		// La unión ya está publicada y los depósitos siguen buscando
+		assertNotNull(early);
+		assertFalse(run.isDone());
+		int deliveries = 0;
+		for (int p = 0; p < early.size(); p++) {
+			deliveries += early.get(p).getDeliveries().size();
+		}
+		assertEquals(6, deliveries);
+
+		context.getCancellationToken().cancel();
+		IslandSolver.Result result = run.get();
+		for (IslandStats stats : result.getIslandStats()) {
+			assertEquals(TerminationReason.CANCELLED, stats.getTerminationReason());
+		}
+		assertTrue(result.getBestCost() <= context.getIncumbent().getBestCost());
+	}
+
+	private List<Truck> trucks() {
+		List<Truck> trucks = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			trucks.add(truck("T" + t, 10, t < 2 ? cities.get(0) : cities.get(7)));
+		}
+		return trucks;
+	}
+
+	private List<PackageOrder> packages() {
+		List<PackageOrder> packages = new ArrayList<>();
+		for (int i = 1; i < 7; i++) {
+			packages.add(order(String.valueOf(i), 3, cities.get(i), i));
+		}
+		return packages;
+	}
+
+	private SolverContext context(SolverSettings settings) {
+		return new SolverContext(fixture.network(), 1, new Date(0), settings);
+	}
+
+	private static DepotDecomposition decomposition(SolverContext context) {
+		return new DepotDecomposition(context, DepotDecompositionTest::construct,
+				(truck, deliveries) -> new PlanState(truck, deliveries, new ArrayList<>()), DepotDecompositionTest::evaluate);
+	}
+
+	// Reparte los pedidos entre los camiones por turnos
+	private static Solution construct(List<Truck> trucks, List<PackageOrder> packages) {
+		List<List<PackageOrder>> deliveries = new ArrayList<>();
+		trucks.forEach(truck -> deliveries.add(new ArrayList<>()));
+		for (int i = 0; i < packages.size(); i++) {
+			deliveries.get(i % trucks.size()).add(packages.get(i));
+		}
+		List<PlanState> plans = new ArrayList<>();
+		for (int t = 0; t < trucks.size(); t++) {
+			if (!deliveries.get(t).isEmpty()) {
+				plans.add(new PlanState(trucks.get(t), deliveries.get(t), new ArrayList<>()));
+			}
+		}
+		return Solution.of(plans);
+	}
+
+	// Distancia en grados de latitud entre el depósito del camión y cada destino
+	private static PlanEvaluation evaluate(PlanState plan) {
+		double cost = 0;
+		for (PackageOrder pkg : plan.getDeliveries()) {
+			cost += Math.abs(plan.getTruck().getCurrentLocation().getLatitude() - pkg.getDestination().getLatitude());
+		}
+		return new PlanEvaluation(cost, new int[0]);
+	}
+}
@@ -0,0 +1,105 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.Truck;
+import com.odiparpack.transport_planning.routing.LineNetworkFixture;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.odiparpack.transport_planning.routing.LineNetworkFixture.order;
+import static com.odiparpack.transport_planning.routing.LineNetworkFixture.truck;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InitialConstructionTest {
+
+	@Test
+	void ordersGoToTheTightestTruckOfTheNearestDepotAndSplitWhenNoneFits() {
+		// Depósito A en la ciudad 0 y depósito B en la 4, sobre una línea norte-sur
+		LineNetworkFixture fixture = LineNetworkFixture.of(5);
+		List<City> cities = fixture.cities;
+		RoadNetwork network = fixture.network();
+
+		List<Truck> trucks = new ArrayList<>();
+		trucks.add(truck("A10", 10, cities.get(0)));
+		trucks.add(truck("A4", 4, cities.get(0)));
+		trucks.add(truck("B10", 10, cities.get(4)));
+
+		PackageOrder near = order("1", 3, cities.get(1), 1);
+		PackageOrder large = order("2", 12, cities.get(3), 2);
+		List<PackageOrder> packages = new ArrayList<>(List.of(large, near));
+
+		SolverContext context = new SolverContext(network, 1, new Date(0), new SolverSettings());
+		InitialConstruction construction = new InitialConstruction(context,
+				(truck, deliveries) -> new PlanState(truck, deliveries, new ArrayList<>()));
+		Solution solution = construction.build(trucks, packages);
+
+		Map<String, List<PackageOrder>> byTruck = new HashMap<>();
+		for (int p = 0; p < solution.size(); p++) {
+			byTruck.put(solution.get(p).getTruck().getCode(), solution.get(p).getDeliveries());
+		}
+		// Best-fit: el pedido de 3 va al camión de 4, no al de 10
+		assertEquals(List.of(near), byTruck.get("A4"));
+		// El de 12 no entra en ningún camión: 10 con el depósito más cercano y el resto con el otro
+		assertEquals(1, byTruck.get("B10").size());
+		assertEquals("2", byTruck.get("B10").get(0).getOrderId());
+		assertEquals(10, byTruck.get("B10").get(0).getQuantity());
+		assertEquals(List.of(large), byTruck.get("A10"));
+		assertEquals(2, large.getQuantity());
+		// Los planes siguen el orden de los camiones y la lista de pedidos no se toca
+		assertEquals("A10", solution.get(0).getTruck().getCode());
+		assertEquals(List.of(large, near), packages);
+		assertTrue(construction.getUnassigned().isEmpty());
+	}
+
+	@Test
+	void theRemainderThatFitsNowhereIsReported() {
+		LineNetworkFixture fixture = LineNetworkFixture.of(2);
+		PackageOrder order = order("1", 6, fixture.city(1), 1);
+
+		SolverContext context = new SolverContext(fixture.network(), 1, new Date(0), new SolverSettings());
+		InitialConstruction construction = new InitialConstruction(context,
+				(truck, deliveries) -> new PlanState(truck, deliveries, new ArrayList<>()));
+		Solution solution = construction.build(List.of(truck("T4", 4, fixture.city(0))), List.of(order));
+
+		assertEquals(4, solution.get(0).getDeliveries().get(0).getQuantity());
+		// El pedido original se queda con los 2 paquetes que no entraron
+		assertEquals(List.of(order), construction.getUnassigned());
+		assertEquals(2, order.getQuantity());
+	}
+
+	@Test
+	void regretsAreRecomputedAsTheDepotsFill() {
+		LineNetworkFixture fixture = LineNetworkFixture.of(5);
+		List<City> cities = fixture.cities;
+		List<Truck> trucks = new ArrayList<>();
+		trucks.add(truck("A5", 5, cities.get(0)));
+		trucks.add(truck("A3", 3, cities.get(0)));
+		trucks.add(truck("B5", 5, cities.get(4)));
+
+		// Al principio P y R tienen arrepentimiento 4 y Q, a igual distancia de los dos depósitos, 0
+		PackageOrder p = order("P", 5, cities.get(1), 1);
+		PackageOrder q = order("Q", 5, cities.get(2), 2);
+		PackageOrder r = order("R", 3, cities.get(3), 3);
+
+		SolverContext context = new SolverContext(fixture.network(), 1, new Date(0), new SolverSettings());
+		Solution solution = new InitialConstruction(context,
+				(truck, deliveries) -> new PlanState(truck, deliveries, new ArrayList<>())).build(trucks, List.of(p, q, r));
+
+		Map<String, List<PackageOrder>> byTruck = new HashMap<>();
+		for (int i = 0; i < solution.size(); i++) {
+			byTruck.put(solution.get(i).getTruck().getCode(), solution.get(i).getDeliveries());
+		}
+		// Cargado P, Q ya solo cabe en B y pasa delante de R, que todavía cabe en los dos: nadie se parte
+		assertEquals(List.of(p), byTruck.get("A5"));
+		assertEquals(List.of(q), byTruck.get("B5"));
+		assertEquals(List.of(r), byTruck.get("A3"));
+		assertEquals(5, q.getQuantity());
+	}
+}
@@ -0,0 +1,48 @@
+package com.odiparpack.transport_planning.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntraRouteSearchTest {
+
+	@Test
+	void untanglesACrossedTourOnALine() {
+		// Paradas sobre una recta en 0, 1, 2, 3 y 4; el orden 0-3-2-1-4 se cruza
+		double[][] cost = new double[5][5];
+		for (int i = 0; i < 5; i++) {
+			for (int j = 0; j < 5; j++) {
+				cost[i][j] = Math.abs(i - j);
+			}
+		}
+		int[] order = IntraRouteSearch.improve(cost, new int[] {0, 3, 2, 1, 4}, 50);
+		assertEquals(8, IntraRouteSearch.tourCost(cost, order), 1e-9);
+		assertEquals(0, order[0]);
+	}
+
+	@Test
+	void neverWorsensAnAsymmetricTour() {
+		Random random = new Random(11);
+		for (int trial = 0; trial < 50; trial++) {
+			int n = 3 + random.nextInt(10);
+			double[][] cost = new double[n][n];
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					cost[i][j] = i == j ? 0 : 1 + random.nextInt(100);
+				}
+			}
+			int[] initial = new int[n];
+			Arrays.setAll(initial, i -> i);
+
+			int[] order = IntraRouteSearch.improve(cost, initial, 1000);
+			assertTrue(IntraRouteSearch.tourCost(cost, order) <= IntraRouteSearch.tourCost(cost, initial) + 1e-9);
+			assertEquals(0, order[0]);
+			int[] sorted = order.clone();
+			Arrays.sort(sorted);
+			assertArrayEquals(initial, sorted);
+		}
+	}
+}
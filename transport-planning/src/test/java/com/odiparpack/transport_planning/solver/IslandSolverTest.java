@@ -0,0 +1,141 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.City;
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.RoadNetwork;
+import com.odiparpack.transport_planning.model.RoadSegment;
+import com.odiparpack.transport_planning.model.Truck;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IslandSolverTest {
+
+	@Test
+	void cancelledRunReturnsTheInitialSolution() {
+		SolverContext context = context(new SolverSettings());
+		context.getCancellationToken().cancel();
+
+		IslandSolver.Result result = solver(context).solve(initialSolution());
+		assertEquals(TerminationReason.CANCELLED, result.getIslandStats().get(0).getTerminationReason());
+		assertEquals(0, result.getIslandStats().get(0).getIterations());
+		assertEquals(totalCost(initialSolution()), result.getBestCost(), 1e-9);
+		assertSame(result.getBestSolution(), context.getIncumbent().getBestSolution());
+	}
+
+	@Test
+	void stopsAfterTheNoImprovementWindow() {
+		SolverSettings settings = new SolverSettings();
+		settings.setMaxIterations(0);
+		settings.setNoImprovementIterations(20);
+		settings.setIslands(2);
+		settings.setParallelism(2);
+
+		IslandSolver.Result result = solver(context(settings)).solve(initialSolution());
+		for (IslandStats stats : result.getIslandStats()) {
+			assertEquals(TerminationReason.NO_IMPROVEMENT, stats.getTerminationReason());
+		}
+		assertTrue(result.getBestCost() < totalCost(initialSolution()));
+	}
+
+	@Test
+	void stopsOnceTheTargetIsReached() {
+		SolverSettings settings = new SolverSettings();
+		settings.setMaxIterations(0);
+		settings.setTimeBudgetMillis(10_000);
+		settings.setTargetObjective(totalCost(initialSolution()) - 1);
+
+		IslandSolver.Result result = solver(context(settings)).solve(initialSolution());
+		assertEquals(TerminationReason.TARGET_REACHED, result.getIslandStats().get(0).getTerminationReason());
+		assertTrue(result.getBestCost() <= settings.getTargetObjective());
+	}
+
+	@Test
+	void theDeadlineStartsWhenTheCallerSetsIt() {
+		SolverSettings settings = new SolverSettings();
+		settings.setMaxIterations(0);
+		settings.setTimeBudgetMillis(60_000);
+		SolverContext base = context(settings);
+		// El presupuesto se gastó antes de llegar al solver (red, solución inicial): no queda tiempo para iterar
+		Incumbent incumbent = new Incumbent();
+		SolverContext context = new SolverContext(base.getNetwork(), 1, new Date(0), settings, new CancellationToken(),
+				incumbent, System.currentTimeMillis() - 1);
+
+		IslandSolver.Result result = solver(context).solve(initialSolution());
+		assertEquals(TerminationReason.TIME_BUDGET, result.getIslandStats().get(0).getTerminationReason());
+		assertEquals(0, result.getIslandStats().get(0).getIterations());
+		// El llamador lee la mejor solución en su propio incumbente
+		assertSame(result.getBestSolution(), incumbent.getBestSolution());
+	}
+
+	@Test
+	void rejectsARunWithoutAnyStoppingLimit() {
+		SolverSettings settings = new SolverSettings();
+		settings.setMaxIterations(0);
+		settings.setTargetObjective(0);
+
+		assertThrows(IllegalArgumentException.class, () -> solver(context(settings)).solve(initialSolution()));
+	}
+
+	private static IslandSolver solver(SolverContext context) {
+		return new IslandSolver(context, IslandSolverTest::plan, IslandSolverTest::evaluate);
+	}
+
+	private static SolverContext context(SolverSettings settings) {
+		City lima = new City();
+		lima.setUbigeo("150101");
+		City callao = new City();
+		callao.setUbigeo("070101");
+		RoadSegment segment = new RoadSegment();
+		segment.setOrigin(lima);
+		segment.setDestination(callao);
+		segment.setCost(1);
+		RoadNetwork network = new RoadNetwork(List.of(lima, callao), List.of(segment));
+		return new SolverContext(network, 1, new Date(0), settings);
+	}
+
+	private static Solution initialSolution() {
+		List<PlanState> solution = new ArrayList<>();
+		int orderId = 0;
+		for (int t = 0; t < 4; t++) {
+			Truck truck = new Truck();
+			truck.setCode("T" + t);
+			truck.setCapacity(20);
+			List<PackageOrder> deliveries = new ArrayList<>();
+			for (int p = 0; p < 3; p++) {
+				PackageOrder pkg = new PackageOrder();
+				pkg.setOrderId(String.valueOf(orderId++));
+				pkg.setQuantity(2 + p);
+				deliveries.add(pkg);
+			}
+			solution.add(plan(truck, deliveries));
+		}
+		return Solution.of(solution);
+	}
+
+	private static PlanState plan(Truck truck, List<PackageOrder> deliveries) {
+		return new PlanState(truck, deliveries, new ArrayList<>());
+	}
+
+	// Costo sintético: cada camión prefiere pedidos cuyo id se parezca a su número
+	private static PlanEvaluation evaluate(PlanState plan) {
+		int truck = Integer.parseInt(plan.getTruck().getCode().substring(1));
+		double cost = 0;
+		for (PackageOrder pkg : plan.getDeliveries()) {
+			cost += Math.abs(Integer.parseInt(pkg.getOrderId()) % 4 - truck) * pkg.getQuantity();
+		}
+		return new PlanEvaluation(cost, new int[0]);
+	}
+
+	private static double totalCost(Solution solution) {
+		double total = 0;
+		for (int p = 0; p < solution.size(); p++) {
+			total += evaluate(solution.get(p)).getBaseCost();
+		}
+		return total;
+	}
+}
@@ -0,0 +1,236 @@
+package com.odiparpack.transport_planning.solver;
+
+import com.odiparpack.transport_planning.model.PackageOrder;
+import com.odiparpack.transport_planning.model.Truck;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelNeighbourhoodTest {
+
+	@Test
+	void resultDoesNotDependOnParallelism() {
+		List<List<String>> sequential = run(1);
+		List<List<String>> parallel = run(4);
+		assertEquals(sequential, parallel);
+	}
+
+	@Test
+	void improvingStepsNeverIncreaseTheCost() {
+		Solution solution = initialSolution();
+		SolutionCost cost = new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate);
+		double previous = cost.total(solution);
+		try (ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(3, ParallelNeighbourhoodTest::plan, ParallelNeighbourhoodTest::evaluate)) {
+			for (int step = 0; step < 5; step++) {
+				SolutionCost next = cost.copy();
+				Solution neighbour = neighbourhood.step(solution, next);
+				double total = next.total(neighbour);
+				assertEquals(fullTotal(neighbour), total, 1e-9);
+				if (total < previous) {
+					previous = total;
+					solution = neighbour;
+					cost = next;
+				}
+			}
+		}
+		assertTrue(previous < new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate).total(initialSolution()));
+	}
+
+	@Test
+	void neighbourSharesTheUnchangedPlans() {
+		Solution solution = initialSolution();
+		SolutionCost cost = new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate);
+		try (ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(1, ParallelNeighbourhoodTest::plan, ParallelNeighbourhoodTest::evaluate)) {
+			Solution neighbour = neighbourhood.perturb(solution, cost, new SplittableRandom(1));
+			int replaced = 0;
+			for (int p = 0; p < solution.size(); p++) {
+				if (neighbour.get(p) != solution.get(p)) {
+					replaced++;
+				}
+			}
+			// Un movimiento toca exactamente dos camiones; el resto se comparte sin copiar
+			assertEquals(2, replaced);
+		}
+	}
+
+	@Test
+	void repeatedStepReusesTheScoredMoves() {
+		Solution solution = initialSolution();
+		SolutionCost cost = new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate);
+		try (ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(2, ParallelNeighbourhoodTest::plan, ParallelNeighbourhoodTest::evaluate)) {
+			SolutionCost firstCost = cost.copy();
+			Solution first = neighbourhood.step(solution, firstCost);
+			long evaluated = neighbourhood.getEvaluatedPlans();
+			assertEquals(0, neighbourhood.getCachedMoves());
+
+			// Como si el recocido hubiera rechazado el vecino: ningún plan cambió, nada se vuelve a armar
+			SolutionCost secondCost = cost.copy();
+			Solution second = neighbourhood.step(solution, secondCost);
+			assertEquals(evaluated, neighbourhood.getEvaluatedPlans());
+			assertEquals(evaluated / 2, neighbourhood.getCachedMoves());
+			assertEquals(firstCost.total(first), secondCost.total(second), 1e-9);
+			for (int p = 0; p < first.size(); p++) {
+				assertEquals(first.get(p).getDeliveries(), second.get(p).getDeliveries());
+			}
+		}
+	}
+
+	@Test
+	void aDisabledMoveCacheScoresEveryMoveAgain() {
+		Solution solution = initialSolution();
+		SolutionCost cost = new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate);
+		try (ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(2, ParallelNeighbourhoodTest::plan,
+				ParallelNeighbourhoodTest::evaluate, null, false, 0)) {
+			neighbourhood.step(solution, cost.copy());
+			long evaluated = neighbourhood.getEvaluatedPlans();
+			neighbourhood.step(solution, cost.copy());
+			assertEquals(2 * evaluated, neighbourhood.getEvaluatedPlans());
+			assertEquals(0, neighbourhood.getCachedMoves());
+		}
+	}
+
+	@Test
+	void theMoveCacheKeepsAtMostItsEntries() {
+		Solution solution = initialSolution();
+		SolutionCost cost = new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate);
+		try (ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(2, ParallelNeighbourhoodTest::plan,
+				ParallelNeighbourhoodTest::evaluate, null, false, 3)) {
+			neighbourhood.step(solution, cost.copy());
+			long evaluated = neighbourhood.getEvaluatedPlans();
+			neighbourhood.step(solution, cost.copy());
+			// Solo las tres entradas que quedaron se reutilizan; el resto se vuelve a armar
+			assertEquals(3, neighbourhood.getCachedMoves());
+			assertEquals(2 * evaluated - 6, neighbourhood.getEvaluatedPlans());
+		}
+	}
+
+	@Test
+	void unsettlingAPlanLooksAtItsPairsAgain() {
+		Solution solution = initialSolution();
+		SolutionCost cost = new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate);
+		try (ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(1, ParallelNeighbourhoodTest::plan,
+				ParallelNeighbourhoodTest::evaluate, null, true, 0)) {
+			// Se baja hasta que todos los planes quedan revisados sin mejoras
+			double current = cost.total(solution);
+			for (int step = 0; step < 40; step++) {
+				SolutionCost next = cost.copy();
+				Solution neighbour = neighbourhood.step(solution, next);
+				if (next.total(neighbour) < current) {
+					current = next.total(neighbour);
+					solution = neighbour;
+					cost = next;
+				}
+			}
+			neighbourhood.step(solution, cost.copy());
+			long fullStep = neighbourhood.getEvaluatedPlans();
+			neighbourhood.step(solution, cost.copy());
+			fullStep = neighbourhood.getEvaluatedPlans() - fullStep;
+			for (int p = 0; p < solution.size(); p++) {
+				assertTrue(neighbourhood.isSettled(solution.get(p)));
+			}
+
+			// Como si GLS hubiera penalizado un tramo del primer plan
+			neighbourhood.unsettle(solution.get(0));
+			assertFalse(neighbourhood.isSettled(solution.get(0)));
+			long before = neighbourhood.getEvaluatedPlans();
+			neighbourhood.step(solution, cost.copy());
+			long partialStep = neighbourhood.getEvaluatedPlans() - before;
+			assertTrue(partialStep > 0);
+			assertTrue(partialStep < fullStep);
+		}
+	}
+
+	@Test
+	void dontLookBitsStillReachALocalOptimum() {
+		Solution solution = initialSolution();
+		SolutionCost cost = new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate);
+		double current = cost.total(solution);
+		try (ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(1, ParallelNeighbourhoodTest::plan,
+				ParallelNeighbourhoodTest::evaluate, null, true)) {
+			for (int step = 0; step < 40; step++) {
+				SolutionCost next = cost.copy();
+				Solution neighbour = neighbourhood.step(solution, next);
+				double total = next.total(neighbour);
+				if (total < current) {
+					current = total;
+					solution = neighbour;
+					cost = next;
+				}
+			}
+		}
+		// Sin don't-look bits tampoco queda ningún movimiento que mejore
+		try (ParallelNeighbourhood full = new ParallelNeighbourhood(1, ParallelNeighbourhoodTest::plan, ParallelNeighbourhoodTest::evaluate)) {
+			SolutionCost next = cost.copy();
+			Solution neighbour = full.step(solution, next);
+			assertTrue(next.total(neighbour) >= current - 1e-9);
+		}
+	}
+
+	private static List<List<String>> run(int parallelism) {
+		Solution solution = initialSolution();
+		SolutionCost cost = new SolutionCost(0.0, edge -> 0, ParallelNeighbourhoodTest::evaluate);
+		List<List<String>> trace = new ArrayList<>();
+		try (ParallelNeighbourhood neighbourhood = new ParallelNeighbourhood(parallelism, ParallelNeighbourhoodTest::plan, ParallelNeighbourhoodTest::evaluate)) {
+			for (int step = 0; step < 8; step++) {
+				cost = cost.copy();
+				solution = neighbourhood.step(solution, cost);
+				List<String> snapshot = new ArrayList<>();
+				for (int p = 0; p < solution.size(); p++) {
+					PlanState plan = solution.get(p);
+					StringBuilder orders = new StringBuilder(plan.getTruck().getCode()).append(':');
+					plan.getDeliveries().forEach(pkg -> orders.append(pkg.getOrderId()).append(','));
+					snapshot.add(orders.toString());
+				}
+				trace.add(snapshot);
+			}
+		}
+		return trace;
+	}
+
+	private static Solution initialSolution() {
+		Random random = new Random(7);
+		List<PlanState> solution = new ArrayList<>();
+		long orderId = 1;
+		for (int t = 0; t < 5; t++) {
+			Truck truck = new Truck();
+			truck.setCode("T" + t);
+			truck.setCapacity(30);
+			List<PackageOrder> deliveries = new ArrayList<>();
+			for (int p = 0; p < 3; p++) {
+				PackageOrder pkg = new PackageOrder();
+				pkg.setOrderId(String.valueOf(orderId++));
+				pkg.setQuantity(1 + random.nextInt(8));
+				deliveries.add(pkg);
+			}
+			solution.add(plan(truck, deliveries));
+		}
+		return Solution.of(solution);
+	}
+
+	private static PlanState plan(Truck truck, List<PackageOrder> deliveries) {
+		return new PlanState(truck, deliveries, new ArrayList<>());
+	}
+
+	// Costo sintético: cada camión prefiere pedidos cuyo id se parezca a su número
+	private static PlanEvaluation evaluate(PlanState plan) {
+		int truck = Integer.parseInt(plan.getTruck().getCode().substring(1));
+		double cost = 0;
+		for (PackageOrder pkg : plan.getDeliveries()) {
+			cost += Math.abs(Long.parseLong(pkg.getOrderId()) % 5 - truck) * pkg.getQuantity();
+		}
+		return new PlanEvaluation(cost, new int[0]);
+	}
+
+	private static double fullTotal(Solution solution) {
+		double total = 0;
+		for (int p = 0; p < solution.size(); p++) {
+			total += evaluate(solution.get(p)).getBaseCost();
+		}
+		return total;
+	}
+}
@@ -0,0 +1,69 @@
+package com.odiparpack.transport_planning.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionCostTest {
+
+	@Test
+	void incrementalTotalMatchesFullRecomputation() {
+		Random random = new Random(3);
+		int edgeCount = 20;
+		double lambda = 0.5;
+		int[] penalties = new int[edgeCount];
+		Map<PlanState, PlanEvaluation> evaluations = new IdentityHashMap<>();
+		List<PlanState> plans = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			PlanState plan = new PlanState(null, new ArrayList<>(), new ArrayList<>());
+			plans.add(plan);
+			evaluations.put(plan, randomEvaluation(random, edgeCount));
+		}
+		Solution solution = Solution.of(plans);
+
+		SolutionCost cost = new SolutionCost(lambda, edge -> penalties[edge], evaluations::get);
+		assertEquals(fullTotal(solution, evaluations, penalties, lambda), cost.total(solution), 1e-9);
+		assertEquals(solution.size(), cost.getEvaluatedPlans());
+
+		for (int step = 0; step < 200; step++) {
+			SolutionCost neighbour = cost.copy();
+			int changed = random.nextInt(solution.size());
+			evaluations.put(solution.get(changed), randomEvaluation(random, edgeCount));
+			neighbour.markDirty(changed);
+			assertEquals(fullTotal(solution, evaluations, penalties, lambda), neighbour.total(solution), 1e-9);
+			assertEquals(1, neighbour.getEvaluatedPlans());
+			cost = neighbour;
+
+			int penalized = random.nextInt(edgeCount);
+			penalties[penalized]++;
+			cost.penaltyIncremented(penalized);
+			assertEquals(fullTotal(solution, evaluations, penalties, lambda), cost.total(solution), 1e-9);
+		}
+	}
+
+	private static PlanEvaluation randomEvaluation(Random random, int edgeCount) {
+		int[] edges = new int[random.nextInt(8)];
+		for (int i = 0; i < edges.length; i++) {
+			edges[i] = random.nextInt(edgeCount);
+		}
+		return new PlanEvaluation(random.nextDouble() * 100, edges);
+	}
+
+	private static double fullTotal(Solution solution, Map<PlanState, PlanEvaluation> evaluations, int[] penalties, double lambda) {
+		double total = 0;
+		for (int p = 0; p < solution.size(); p++) {
+			PlanEvaluation evaluation = evaluations.get(solution.get(p));
+			total += evaluation.getBaseCost();
+			for (int k = 0; k < evaluation.penalizedEdgeCount(); k++) {
+				total += lambda * penalties[evaluation.penalizedEdge(k)];
+			}
+		}
+		return total;
+	}
+}